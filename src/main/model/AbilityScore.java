@@ -5,18 +5,24 @@ import org.json.JSONObject;
 // Represents one of the six main ability scores in D&D 5E.
 // Contains details about the ability's type, its base value,
 // and provides methods to calculate the modifier based on the score.
+// The value and its modifier are held as one shared, immutable ScoreValue, so changing or copying the score
+// only swaps a reference.
 
-public class AbilityScore {
+public class AbilityScore extends ModifierSource {
 
     private final AbilityType type;   // Type of the ability (e.g., STRENGTH)
-    private int score;                // The actual score
-    private int modifier;             // The calculated modifier based on the score
+    private ScoreValue value;         // The actual score and the modifier calculated from it
 
     // EFFECTS: constructs an ability with type and score.
 
     public AbilityScore(AbilityType type, int score) {
+        this(type, ScoreValue.of(score));
+    }
+
+    // EFFECTS: constructs an ability with type and the given score value.
+    public AbilityScore(AbilityType type, ScoreValue value) {
         this.type = type;
-        setScore(score);  // Automatically sets the modifier based on the score
+        this.value = value;
     }
 
     // Getters
@@ -26,11 +32,15 @@ public class AbilityScore {
     }
 
     public int getScore() {
-        return this.score;
+        return this.value.getScore();
     }
 
     public int getModifier() {
-        return this.modifier;
+        return this.value.getModifier();
+    }
+
+    public ScoreValue getValue() {
+        return this.value;
     }
 
 
@@ -39,18 +49,13 @@ public class AbilityScore {
     // MODIFIES: this
     // EFFECTS:  sets the ability score and recalculates the modifier based on the score
     public void setScore(int score) {
-        this.score = score;
-        this.modifier = calculateModifier();  // Recalculate the modifier whenever the score changes
-    }
-
-    // EFFECTS:  calculates and returns the ability modifier based on the standard D&D 5E formula
-    private int calculateModifier() {
-        return Math.floorDiv(this.score - 10, 2);
+        this.value = ScoreValue.of(score);  // The value carries the modifier based on the score
+        notifyModifierListeners();
     }
 
     // EFFECTS:  returns a string representation of the ability, including its type, score, and modifier
     public String displayAsString() {
-        return type + ": " + score + " (Modifier: " + modifier + ")";
+        return type + ": " + getScore() + " (Modifier: " + getModifier() + ")";
     }
 
     // Code influence by the JsonSerializationDemo
@@ -58,8 +63,8 @@ public class AbilityScore {
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
         json.put("type", type.toString());
-        json.put("score", score);
-        json.put("modifier", modifier);
+        json.put("score", getScore());
+        json.put("modifier", getModifier());
         return json;
     }
 
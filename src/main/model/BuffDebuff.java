@@ -5,11 +5,15 @@ import org.json.JSONObject;
 // Represents a specific buff or debuff that can be applied to a character.
 // Contains name, effect, and duration of the buff/debuff.
 
-public class BuffDebuff {
+public class BuffDebuff extends ModifierSource {
     private final String name;           // Name of the buff/debuff
     private AbilityType effectAbility;   // The ability affected by the buff/debuff
     private int effectMagnitude;         // The magnitude of the effect (e.g., +2 or -3)
-    private int duration;                // How many rounds the buff/debuff lasts
+    private int duration;                // How many rounds the buff/debuff lasts (as of anchorRound if scheduled)
+
+    private BuffDebuffScheduler scheduler;             // The scheduler counting down this effect, or null
+    private long anchorRound;                          // The scheduler round at which duration was last set
+    private BuffDebuffScheduler.Entry scheduledEntry;  // This effect's current expiry entry, or null
 
     // EFFECTS: constructs a buff or debuff with name, effect ability, magnitude, and duration.
     public BuffDebuff(String name, AbilityType effectAbility, int effectMagnitude, int duration) {
@@ -33,12 +37,16 @@ public class BuffDebuff {
         return this.effectMagnitude;
     }
 
+    // EFFECTS: returns the remaining duration; while scheduled, this counts down as the scheduler advances rounds
     public int getDuration() {
-        return this.duration;
+        if (scheduler == null) {
+            return this.duration;
+        }
+        return (int) Math.max(0, duration - (scheduler.getCurrentRound() - anchorRound));
     }
 
     public String getDescription() {
-        return name + " (" + effectAbility + ", " + effectMagnitude + ", Duration: " + duration + " rounds)";
+        return name + " (" + effectAbility + ", " + effectMagnitude + ", Duration: " + getDuration() + " rounds)";
     }
 
 
@@ -48,19 +56,24 @@ public class BuffDebuff {
     // EFFECTS: sets the ability affected by the buff/debuff
     public void setEffectAbility(AbilityType effectAbility) {
         this.effectAbility = effectAbility;
+        notifyModifierListeners();
     }
 
     // MODIFIES: this
     // EFFECTS: sets the magnitude of the effect of the buff/debuff
     public void setEffectMagnitude(int effectMagnitude) {
         this.effectMagnitude = effectMagnitude;
+        notifyModifierListeners();
     }
 
     // REQUIRES: duration to be a non-negative integer
     // MODIFIES: this
     // EFFECTS: sets the buff/debuff duration
     public void setDuration(int duration) {
+        syncDuration();
         this.duration = duration;
+        rescheduleIfScheduled();
+        notifyDurationListeners();
     }
 
     // Other
@@ -68,9 +81,12 @@ public class BuffDebuff {
     // MODIFIES: this
     // EFFECTS: Decreases the duration of this buff/debuff by 1 and returns the new duration
     public int decrementDuration() {
+        syncDuration();
         if (duration > 0) {
             duration--;
         }
+        rescheduleIfScheduled();
+        notifyDurationListeners();
         return duration;
     }
 
@@ -79,7 +95,56 @@ public class BuffDebuff {
     // MODIFIES: this
     // EFFECTS: increases the buff/debuff duration by the specified number of rounds
     public void incrementDuration(int rounds) {
+        syncDuration();
         this.duration += rounds;
+        rescheduleIfScheduled();
+        notifyDurationListeners();
+    }
+
+    // Scheduling
+
+    // MODIFIES: this
+    // EFFECTS: starts counting this effect's duration down with scheduler's rounds
+    void attachToScheduler(BuffDebuffScheduler scheduler) {
+        syncDuration();
+        this.scheduler = scheduler;
+        this.anchorRound = scheduler.getCurrentRound();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops counting this effect's duration down, keeping its current remaining duration
+    void detachFromScheduler() {
+        syncDuration();
+        if (scheduler != null && scheduledEntry != null) {
+            scheduler.cancel(scheduledEntry);
+        }
+        this.scheduler = null;
+        this.scheduledEntry = null;
+    }
+
+    BuffDebuffScheduler.Entry getScheduledEntry() {
+        return scheduledEntry;
+    }
+
+    void setScheduledEntry(BuffDebuffScheduler.Entry scheduledEntry) {
+        this.scheduledEntry = scheduledEntry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: folds the rounds elapsed on the scheduler into the stored duration
+    private void syncDuration() {
+        if (scheduler != null) {
+            this.duration = getDuration();
+            this.anchorRound = scheduler.getCurrentRound();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves this effect's expiry to match its new duration, if it is scheduled
+    private void rescheduleIfScheduled() {
+        if (scheduler != null && scheduledEntry != null) {
+            scheduler.reschedule(this, scheduledEntry);
+        }
     }
 
     // Code influence by the JsonSerializationDemo
@@ -90,7 +155,7 @@ public class BuffDebuff {
         json.put("name", name);
         json.put("effectAbility", effectAbility.toString());
         json.put("effectMagnitude", effectMagnitude);
-        json.put("duration", duration);
+        json.put("duration", getDuration());
         return json;
     }
 
@@ -0,0 +1,191 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Expires buffs and debuffs for any number of characters that advance rounds together, such as every
+// character in a campaign. Each scheduled buff/debuff is placed in a hashed timing wheel bucket keyed by the
+// round in which it expires, so advancing a round only visits the bucket for that round instead of every
+// active effect. Durations of scheduled buffs/debuffs are derived from the scheduler's round counter, so they
+// count down without being touched each round; each round, every registered character that still has
+// buffs/debuffs is told once that their durations changed. Each buff/debuff has at most one entry in the wheel:
+// changing its duration moves that entry, and removing it takes the entry out. Expiry follows the same rule as
+// GameCharacter.updateBuffsDebuffsDuration: an effect with duration d is removed after max(d, 1) rounds.
+
+public class BuffDebuffScheduler {
+    static final int WHEEL_SIZE = 64;                   // Number of buckets; must be a power of two
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final List<List<Entry>> wheel;              // wheel.get(r & MASK) holds entries expiring in round r
+    private final Set<GameCharacter> characters;        // The registered characters
+    private long currentRound;                          // Number of rounds advanced so far
+    private int scheduledCount;                         // Number of entries in the wheel
+
+    // EFFECTS: constructs a scheduler at round 0 with no scheduled effects
+    public BuffDebuffScheduler() {
+        this.wheel = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.characters = new LinkedHashSet<>();
+        this.currentRound = 0;
+    }
+
+    // Getters
+
+    public long getCurrentRound() {
+        return currentRound;
+    }
+
+    // EFFECTS: returns the number of buffs/debuffs currently scheduled to expire
+    public int getScheduledCount() {
+        return scheduledCount;
+    }
+
+    // Registration
+
+    // MODIFIES: this, character
+    // EFFECTS: makes character advance rounds with this scheduler: its current buffs/debuffs are scheduled
+    //          now and any it gains later are scheduled as they are added
+    public void register(GameCharacter character) {
+        character.setBuffDebuffScheduler(this);
+        characters.add(character);
+        for (BuffDebuff buffDebuff : character.getActiveBuffsDebuffs()) {
+            schedule(character, buffDebuff);
+        }
+    }
+
+    // MODIFIES: this, character
+    // EFFECTS: stops advancing character's buffs/debuffs; they keep the durations they have now
+    public void unregister(GameCharacter character) {
+        for (BuffDebuff buffDebuff : character.getActiveBuffsDebuffs()) {
+            buffDebuff.detachFromScheduler();
+        }
+        character.setBuffDebuffScheduler(null);
+        characters.remove(character);
+    }
+
+    // Rounds
+
+    // MODIFIES: this, every registered character
+    // EFFECTS: advances every registered character by one round, removing the buffs/debuffs that expire in it
+    //          and telling each character that still has buffs/debuffs that their durations changed; returns the
+    //          number of buffs/debuffs removed
+    public int advanceRound() {
+        currentRound++;
+        int expired = 0;
+        for (Entry entry : takeDue(wheel.get((int) (currentRound & MASK)))) {
+            entry.buffDebuff.detachFromScheduler();
+            expired += entry.character.expireBuffDebuff(entry.buffDebuff) ? 1 : 0;
+        }
+        for (GameCharacter character : characters) {
+            character.roundAdvanced();
+        }
+        return expired;
+    }
+
+    // MODIFIES: this, bucket
+    // EFFECTS: takes the entries expiring in the current round out of bucket and returns them
+    private List<Entry> takeDue(List<Entry> bucket) {
+        List<Entry> due = new ArrayList<>();
+        int kept = 0;
+        for (Entry entry : bucket) {
+            if (entry.expiryRound == currentRound) {
+                due.add(entry);
+                entry.slot = -1;
+            } else {
+                entry.slot = kept;
+                bucket.set(kept++, entry);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+        scheduledCount -= due.size();
+        return due;
+    }
+
+    // REQUIRES: rounds >= 0
+    // MODIFIES: this, every registered character
+    // EFFECTS: advances every registered character by the given number of rounds;
+    //          returns the number of buffs/debuffs removed
+    public int advanceRounds(int rounds) {
+        int expired = 0;
+        for (int i = 0; i < rounds; i++) {
+            expired += advanceRound();
+        }
+        return expired;
+    }
+
+    // Scheduling
+
+    // MODIFIES: this, buffDebuff
+    // EFFECTS: schedules buffDebuff, held by character, to expire when its remaining duration runs out,
+    //          replacing any earlier schedule for it
+    void schedule(GameCharacter character, BuffDebuff buffDebuff) {
+        buffDebuff.detachFromScheduler();
+        buffDebuff.attachToScheduler(this);
+        Entry entry = new Entry(character, buffDebuff);
+        buffDebuff.setScheduledEntry(entry);
+        add(entry);
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: moves entry, the schedule of buffDebuff, to the round in which buffDebuff's changed duration
+    //          runs out
+    void reschedule(BuffDebuff buffDebuff, Entry entry) {
+        long expiryRound = expiryRoundOf(buffDebuff);
+        if ((expiryRound & MASK) == (entry.expiryRound & MASK) && entry.slot >= 0) {
+            entry.expiryRound = expiryRound;
+        } else {
+            cancel(entry);
+            add(entry);
+        }
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: takes entry out of the wheel, if it is in it
+    void cancel(Entry entry) {
+        if (entry.slot < 0) {
+            return;
+        }
+        List<Entry> bucket = wheel.get((int) (entry.expiryRound & MASK));
+        Entry last = bucket.remove(bucket.size() - 1);
+        if (last != entry) {
+            bucket.set(entry.slot, last);
+            last.slot = entry.slot;
+        }
+        entry.slot = -1;
+        scheduledCount--;
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: puts entry in the bucket of the round in which its buff/debuff's duration runs out
+    private void add(Entry entry) {
+        entry.expiryRound = expiryRoundOf(entry.buffDebuff);
+        List<Entry> bucket = wheel.get((int) (entry.expiryRound & MASK));
+        entry.slot = bucket.size();
+        bucket.add(entry);
+        scheduledCount++;
+    }
+
+    // EFFECTS: returns the round in which buffDebuff's remaining duration runs out
+    private long expiryRoundOf(BuffDebuff buffDebuff) {
+        return currentRound + Math.max(buffDebuff.getDuration(), 1);
+    }
+
+    // The scheduled expiry of one buff/debuff held by one character, kept in the bucket of its expiry round at
+    // index slot, or out of the wheel (slot -1) once it has expired or been cancelled
+    static final class Entry {
+        private final GameCharacter character;
+        private final BuffDebuff buffDebuff;
+        private long expiryRound;
+        private int slot;
+
+        private Entry(GameCharacter character, BuffDebuff buffDebuff) {
+            this.character = character;
+            this.buffDebuff = buffDebuff;
+            this.slot = -1;
+        }
+    }
+}
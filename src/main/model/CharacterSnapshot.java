@@ -0,0 +1,240 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+// Represents an immutable view of a character's sheet (name, level, ability scores, skills, buffs/debuffs and
+// check modifiers) as it was at one moment. A character takes a snapshot when one is asked for and its sheet has
+// changed since the last, so editing a character never pays for snapshots nobody reads. Once a character is set
+// to share its snapshots, it publishes a new one after every change instead (or one per batch of changes, such as
+// a round of buff/debuff durations counting down), so other threads can read the latest snapshot without locking
+// while one thread keeps editing the character. Consecutive snapshots share structure: an entry that did not
+// change is the same object in both, and so is a whole list or modifier table in which nothing changed.
+// The remaining duration of a buff/debuff counted down by a BuffDebuffScheduler is recorded as it was when the
+// snapshot was taken.
+
+public final class CharacterSnapshot {
+    private final String name;
+    private final int level;
+    private final long modificationCount;               // Changes made to the character before this was taken
+    private final List<AbilityEntry> abilityScores;
+    private final List<SkillEntry> skills;
+    private final List<BuffDebuffEntry> activeBuffsDebuffs;
+    private final int[] abilityModifiers;               // Ability check modifier for each AbilityType ordinal
+    private final int[] skillModifiers;                 // Skill check modifier for each SkillType ordinal
+
+    // REQUIRES: called by the thread editing character
+    // EFFECTS: constructs a snapshot of character as it is now, reusing every unchanged part of previous (which
+    //          may be null)
+    CharacterSnapshot(GameCharacter character, long modificationCount, CharacterSnapshot previous) {
+        boolean first = previous == null;
+        this.name = character.getName();
+        this.level = character.getLevel();
+        this.modificationCount = modificationCount;
+        this.abilityScores = share(character.getAbilityScores(), first ? null : previous.abilityScores,
+                AbilityEntry::describes, AbilityEntry::new);
+        this.skills = share(character.getSkills(), first ? null : previous.skills,
+                SkillEntry::describes, SkillEntry::new);
+        this.activeBuffsDebuffs = share(character.getActiveBuffsDebuffs(), first ? null : previous.activeBuffsDebuffs,
+                BuffDebuffEntry::describes, BuffDebuffEntry::new);
+
+        int[] abilityTable = new int[AbilityType.values().length];
+        for (AbilityType type : AbilityType.values()) {
+            abilityTable[type.ordinal()] = character.calculateAbilityCheckModifier(type);
+        }
+        int[] skillTable = new int[SkillType.values().length];
+        for (SkillType type : SkillType.values()) {
+            skillTable[type.ordinal()] = character.calculateSkillCheckModifier(type);
+        }
+        this.abilityModifiers = !first && Arrays.equals(abilityTable, previous.abilityModifiers)
+                ? previous.abilityModifiers : abilityTable;
+        this.skillModifiers = !first && Arrays.equals(skillTable, previous.skillModifiers)
+                ? previous.skillModifiers : skillTable;
+    }
+
+    // EFFECTS: returns an unmodifiable list of entries describing sources, reusing the entry of previous at the
+    //          same index wherever it still describes that source, and previous itself if all of them do
+    private static <S, T> List<T> share(List<S> sources, List<T> previous, BiPredicate<T, S> describes,
+                                        Function<S, T> entryOf) {
+        boolean unchanged = previous != null && previous.size() == sources.size();
+        List<T> entries = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            S source = sources.get(i);
+            T entry = previous != null && i < previous.size() ? previous.get(i) : null;
+            if (entry == null || !describes.test(entry, source)) {
+                entry = entryOf.apply(source);
+                unchanged = false;
+            }
+            entries.add(entry);
+        }
+        return unchanged ? previous : Collections.unmodifiableList(entries);
+    }
+
+    // Getters
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    // EFFECTS: returns the number of changes made to the character's sheet before this snapshot was published;
+    //          a later snapshot with the same count describes the same sheet
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    public List<AbilityEntry> getAbilityScores() {
+        return abilityScores;
+    }
+
+    public List<SkillEntry> getSkills() {
+        return skills;
+    }
+
+    public List<BuffDebuffEntry> getActiveBuffsDebuffs() {
+        return activeBuffsDebuffs;
+    }
+
+    // EFFECTS: returns the proficiency bonus for the character's level
+    public int getProficiencyBonus() {
+        return 1 + (level + 3) / 4;
+    }
+
+    // EFFECTS: returns the first ability score entry of the given type, or null if the character had none
+    public AbilityEntry getAbilityScoreByType(AbilityType type) {
+        for (AbilityEntry ability : abilityScores) {
+            if (ability.getType() == type) {
+                return ability;
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns the total modifier the character applied to a check for the given skill
+    public int calculateSkillCheckModifier(SkillType skillType) {
+        return skillModifiers[skillType.ordinal()];
+    }
+
+    // EFFECTS: returns the total modifier the character applied to a check for the given ability
+    public int calculateAbilityCheckModifier(AbilityType abilityType) {
+        return abilityModifiers[abilityType.ordinal()];
+    }
+
+    // Represents one ability score of a snapshot
+    public static final class AbilityEntry {
+        private final AbilityType type;
+        private final ScoreValue value;
+
+        // EFFECTS: constructs an entry describing ability as it is now
+        private AbilityEntry(AbilityScore ability) {
+            this.type = ability.getType();
+            this.value = ability.getValue();
+        }
+
+        // EFFECTS: returns true if this entry describes ability as it is now
+        private boolean describes(AbilityScore ability) {
+            return type == ability.getType() && value.equals(ability.getValue());
+        }
+
+        public AbilityType getType() {
+            return type;
+        }
+
+        public ScoreValue getValue() {
+            return value;
+        }
+
+        public int getScore() {
+            return value.getScore();
+        }
+
+        public int getModifier() {
+            return value.getModifier();
+        }
+    }
+
+    // Represents one skill of a snapshot, with the ability score it was associated with
+    public static final class SkillEntry {
+        private final SkillType type;
+        private final boolean isProficient;
+        private final AbilityType associatedAbility;
+        private final ScoreValue associatedValue;
+
+        // EFFECTS: constructs an entry describing skill as it is now
+        private SkillEntry(Skill skill) {
+            this.type = skill.getType();
+            this.isProficient = skill.getIsProficient();
+            this.associatedAbility = skill.getAssociatedAbility().getType();
+            this.associatedValue = skill.getAssociatedAbility().getValue();
+        }
+
+        // EFFECTS: returns true if this entry describes skill as it is now
+        private boolean describes(Skill skill) {
+            return type == skill.getType() && isProficient == skill.getIsProficient()
+                    && associatedAbility == skill.getAssociatedAbility().getType()
+                    && associatedValue.equals(skill.getAssociatedAbility().getValue());
+        }
+
+        public SkillType getType() {
+            return type;
+        }
+
+        public boolean getIsProficient() {
+            return isProficient;
+        }
+
+        public AbilityType getAssociatedAbility() {
+            return associatedAbility;
+        }
+
+        public ScoreValue getAssociatedValue() {
+            return associatedValue;
+        }
+    }
+
+    // Represents one active buff/debuff of a snapshot
+    public static final class BuffDebuffEntry {
+        private final String name;
+        private final AbilityType effectAbility;
+        private final int effectMagnitude;
+        private final int duration;
+
+        // EFFECTS: constructs an entry describing buffDebuff as it is now
+        private BuffDebuffEntry(BuffDebuff buffDebuff) {
+            this.name = buffDebuff.getName();
+            this.effectAbility = buffDebuff.getEffectAbility();
+            this.effectMagnitude = buffDebuff.getEffectMagnitude();
+            this.duration = buffDebuff.getDuration();
+        }
+
+        // EFFECTS: returns true if this entry describes buffDebuff as it is now
+        private boolean describes(BuffDebuff buffDebuff) {
+            return Objects.equals(name, buffDebuff.getName()) && effectAbility == buffDebuff.getEffectAbility()
+                    && effectMagnitude == buffDebuff.getEffectMagnitude() && duration == buffDebuff.getDuration();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public AbilityType getEffectAbility() {
+            return effectAbility;
+        }
+
+        public int getEffectMagnitude() {
+            return effectMagnitude;
+        }
+
+        public int getDuration() {
+            return duration;
+        }
+    }
+}
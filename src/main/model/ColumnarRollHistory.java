@@ -0,0 +1,256 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Represents a roll history stored as parallel primitive columns instead of one Roll object per roll.
+// Each roll takes three ints: the RollType code of its type, its base result and its applied modifier; the
+// final outcome is derived from the other two. In ring-buffer mode the history keeps only the most recent
+// capacity rolls, overwriting the oldest, so its memory use is fixed no matter how long a session runs.
+// Roll objects are only created when a caller asks for one, so rolls returned by this history are copies:
+// changing them does not change the history. The running statistics cover the rolls currently held, so rolls
+// overwritten by a ring buffer are removed from them; overwriting does not count towards getRemovalCount.
+
+public class ColumnarRollHistory extends RollHistory {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean ring;                 // True if the oldest rolls are overwritten once capacity is reached
+    private int[] typeColumn;                   // Type code of each roll
+    private int[] baseColumn;                   // Base result of each roll
+    private int[] modifierColumn;               // Applied modifier of each roll
+    private int start;                          // Physical index of the oldest roll
+    private int count;                          // Number of rolls currently held
+
+    // EFFECTS: constructs an empty history that grows without bound
+    public ColumnarRollHistory() {
+        this(INITIAL_CAPACITY, false);
+    }
+
+    // REQUIRES: capacity > 0
+    // EFFECTS: constructs an empty history that keeps only the most recent capacity rolls
+    public ColumnarRollHistory(int capacity) {
+        this(capacity, true);
+    }
+
+    // EFFECTS: constructs an empty history with the given initial capacity and retention mode
+    private ColumnarRollHistory(int capacity, boolean ring) {
+        super(new RollStatistics());
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Roll history capacity must be positive.");
+        }
+        this.ring = ring;
+        this.typeColumn = new int[capacity];
+        this.baseColumn = new int[capacity];
+        this.modifierColumn = new int[capacity];
+    }
+
+    // Getters
+
+    // EFFECTS: returns true if this history overwrites its oldest rolls once full
+    public boolean isRingBuffer() {
+        return ring;
+    }
+
+    // EFFECTS: returns the number of rolls that can be held before growing or overwriting
+    public int getCapacity() {
+        return typeColumn.length;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    // REQUIRES: 0 <= index < size(), where index 0 is the oldest roll held
+    // EFFECTS: returns the RollType code of the roll at index
+    public int getTypeCode(int index) {
+        return typeColumn[physical(index)];
+    }
+
+    // REQUIRES: code is a registered RollType code
+    // EFFECTS: returns the name of the roll type with the given code
+    public String getTypeName(int code) {
+        return RollType.forCode(code).getName();
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the roll type of the roll at index
+    public RollType getRollType(int index) {
+        return RollType.forCode(typeColumn[physical(index)]);
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the base result of the roll at index
+    public int getBaseResult(int index) {
+        return baseColumn[physical(index)];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the applied modifier of the roll at index
+    public int getAppliedModifier(int index) {
+        return modifierColumn[physical(index)];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the final outcome of the roll at index
+    public int getFinalOutcome(int index) {
+        int i = physical(index);
+        return baseColumn[i] + modifierColumn[i];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns a new Roll with the values of the roll at index
+    public Roll getRoll(int index) {
+        int i = physical(index);
+        return new Roll(RollType.forCode(typeColumn[i]), baseColumn[i], modifierColumn[i]);
+    }
+
+    // EFFECTS: returns a read-only view of the rolls held, oldest first; each element is created when read
+    @Override
+    public List<Roll> getRollList() {
+        return new RollView();
+    }
+
+    // Other
+
+    // MODIFIES: this
+    // EFFECTS: adds the values of the given roll to the history
+    @Override
+    public void addRoll(Roll roll) {
+        addRoll(roll.getRollType(), roll.getBaseResult(), roll.getAppliedModifier());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a roll with the given type, base result and applied modifier to the history,
+    //          overwriting the oldest roll if this is a full ring buffer
+    public void addRoll(String type, int baseResult, int appliedModifier) {
+        addRoll(RollType.named(type), baseResult, appliedModifier);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a roll with the given type, base result and applied modifier to the history,
+    //          overwriting the oldest roll if this is a full ring buffer
+    public void addRoll(RollType type, int baseResult, int appliedModifier) {
+        int code = type.getCode();
+        if (count == typeColumn.length) {
+            if (ring) {
+                getStatistics().remove(RollType.forCode(typeColumn[start]), baseColumn[start],
+                        baseColumn[start] + modifierColumn[start]);
+                start = (start + 1) % typeColumn.length;
+                count--;
+            } else {
+                grow();
+            }
+        }
+        int i = physical(count);
+        typeColumn[i] = code;
+        baseColumn[i] = baseResult;
+        modifierColumn[i] = appliedModifier;
+        count++;
+        countRollAdded();
+        getStatistics().record(type, baseResult, baseResult + appliedModifier);
+    }
+
+    // EFFECTS: returns a copy of the most recent roll, or null if the history is empty
+    @Override
+    public Roll getLastRoll() {
+        return count == 0 ? null : getRoll(count - 1);
+    }
+
+    // EFFECTS: returns copies of up to count of the most recent rolls, most recent first
+    @Override
+    public List<Roll> getRecentRolls(int count) {
+        int n = Math.min(count, this.count);
+        List<Roll> recent = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            recent.add(getRoll(this.count - 1 - i));
+        }
+        return recent;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: clears the roll history
+    @Override
+    public void clearRollHistory() {
+        start = 0;
+        count = 0;
+        getStatistics().clear();
+        countRemoval();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the oldest roll with the same type, base result and modifier as roll, if there is one
+    @Override
+    public void removeRoll(Roll roll) {
+        int code = roll.getRollType().getCode();
+        for (int index = 0; index < count; index++) {
+            int i = physical(index);
+            if (typeColumn[i] == code && baseColumn[i] == roll.getBaseResult()
+                    && modifierColumn[i] == roll.getAppliedModifier()) {
+                removeAt(index);
+                getStatistics().remove(roll.getRollType(), roll.getBaseResult(), roll.getFinalOutcome());
+                countRemoval();
+                return;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the roll at logical index, shifting later rolls down by one
+    private void removeAt(int index) {
+        for (int j = index; j < count - 1; j++) {
+            int to = physical(j);
+            int from = physical(j + 1);
+            typeColumn[to] = typeColumn[from];
+            baseColumn[to] = baseColumn[from];
+            modifierColumn[to] = modifierColumn[from];
+        }
+        count--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the capacity of every column, moving the oldest roll to physical index 0
+    private void grow() {
+        int capacity = typeColumn.length * 2;
+        typeColumn = unwrap(typeColumn, capacity);
+        baseColumn = unwrap(baseColumn, capacity);
+        modifierColumn = unwrap(modifierColumn, capacity);
+        start = 0;
+    }
+
+    // EFFECTS: returns a copy of column with capacity elements whose first count elements are the rolls held
+    private int[] unwrap(int[] column, int capacity) {
+        int[] copy = Arrays.copyOf(column, capacity);
+        if (start != 0) {
+            int firstPart = column.length - start;
+            System.arraycopy(column, start, copy, 0, firstPart);
+            System.arraycopy(column, 0, copy, firstPart, start);
+        }
+        return copy;
+    }
+
+    // EFFECTS: returns the physical array index of the roll at logical index
+    private int physical(int index) {
+        int i = start + index;
+        return i < typeColumn.length ? i : i - typeColumn.length;
+    }
+
+    // A read-only list view of the rolls held by this history
+    private final class RollView extends AbstractList<Roll> implements RandomAccess {
+        @Override
+        public Roll get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+            }
+            return getRoll(index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
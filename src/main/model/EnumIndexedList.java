@@ -0,0 +1,58 @@
+package model;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// A list of modifier sources that each have an enum key (e.g. ability scores keyed by AbilityType), which also
+// keeps an enum map of the first element for each key and an ordinal-indexed count of the elements sharing
+// that key. The list can be read and modified like any other list, and the index is kept in step with every
+// change, so looking an element up by key is a single array read instead of a scan.
+
+final class EnumIndexedList<E extends ModifierSource, K extends Enum<K>> extends ModifierSourceList<E> {
+    private final Function<E, K> keyOf;         // Returns the key of an element
+    private final Map<K, E> firstByKey;         // firstByKey.get(k) is the first element with key k, or null
+    private final int[] countByKey;             // countByKey[k.ordinal()] is the number of elements with key k
+
+    // EFFECTS: constructs an empty list owned by the given listener, for keys of the given enum type
+    EnumIndexedList(ModifierListener owner, Function<E, K> keyOf, Class<K> keyType) {
+        super(owner);
+        this.keyOf = keyOf;
+        this.firstByKey = new EnumMap<>(keyType);
+        this.countByKey = new int[keyType.getEnumConstants().length];
+    }
+
+    // EFFECTS: returns the first element with the given key, or null if there is none
+    E first(K key) {
+        return firstByKey.get(key);
+    }
+
+    // EFFECTS: returns the number of elements with the given key
+    int count(K key) {
+        return countByKey[key.ordinal()];
+    }
+
+    @Override
+    void elementAdded(int index, E element) {
+        K key = keyOf.apply(element);
+        countByKey[key.ordinal()]++;
+        if (firstByKey.putIfAbsent(key, element) != null && index != size() - 1) {
+            elementsChanged();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rebuilds the key index from the elements
+    @Override
+    void elementsChanged() {
+        firstByKey.clear();
+        Arrays.fill(countByKey, 0);
+        for (E element : this) {
+            K key = keyOf.apply(element);
+            if (countByKey[key.ordinal()]++ == 0) {
+                firstByKey.put(key, element);
+            }
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package model;
 
 
-import java.util.Calendar;
 import java.util.Date;
 
 /**
  * Represents an alarm system event.
+ *
+ * An event stores the template it was logged with, its arguments and the
+ * time it was logged in epoch milliseconds. Its description is only built,
+ * and then kept, the first time it is asked for, so logging an event that is
+ * never read does no string formatting. Arguments should be immutable (names,
+ * enum constants) so the description is the same whenever it is built.
  */
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
+    private final long timestamp;
+    private final EventTemplate template;
+    private final Object first;
+    private final Object second;
+    private final Object third;
+    private final int firstNumber;
+    private final int secondNumber;
     private String description;
 
     /**
@@ -19,26 +30,140 @@ public class Event {
      * @param description a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
+        this(System.currentTimeMillis(), EventTemplate.TEXT, description, null, null, 0, 0);
         this.description = description;
     }
 
+    /**
+     * Creates an event of the given kind with one object argument and the
+     * current date/time stamp.
+     */
+    public Event(EventTemplate template, Object first) {
+        this(System.currentTimeMillis(), template, first, null, null, 0, 0);
+    }
+
+    /**
+     * Creates an event of the given kind with one object argument, one int
+     * argument and the current date/time stamp.
+     */
+    public Event(EventTemplate template, Object first, int firstNumber) {
+        this(System.currentTimeMillis(), template, first, null, null, firstNumber, 0);
+    }
+
+    /**
+     * Creates an event of the given kind with two object arguments and the
+     * current date/time stamp.
+     */
+    public Event(EventTemplate template, Object first, Object second) {
+        this(System.currentTimeMillis(), template, first, second, null, 0, 0);
+    }
+
+    /**
+     * Creates an event of the given kind with two object arguments, one int
+     * argument and the current date/time stamp.
+     */
+    public Event(EventTemplate template, Object first, Object second, int firstNumber) {
+        this(System.currentTimeMillis(), template, first, second, null, firstNumber, 0);
+    }
+
+    /**
+     * Creates an event with every field given, e.g. when reading a logged
+     * event back.
+     *
+     * @param timestamp the time the event was logged, in epoch milliseconds
+     * @param template the kind of event
+     * @param first the object argument for {0}, or null
+     * @param second the object argument for {1}, or null
+     * @param third the object argument for {2}, or null
+     * @param firstNumber the int argument for {#0}
+     * @param secondNumber the int argument for {#1}
+     */
+    public Event(long timestamp, EventTemplate template, Object first, Object second, Object third,
+                 int firstNumber, int secondNumber) {
+        this.timestamp = timestamp;
+        this.template = template;
+        this.first = first;
+        this.second = second;
+        this.third = third;
+        this.firstNumber = firstNumber;
+        this.secondNumber = secondNumber;
+    }
+
     /**
      * Gets the date of this event (includes time).
      *
      * @return the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(timestamp);
     }
 
     /**
-     * Gets the description of this event.
+     * Gets the time this event was logged.
+     *
+     * @return the time of the event in epoch milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the kind of this event.
+     *
+     * @return the template the description is built from
+     */
+    public EventTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets one of the object arguments of this event.
+     *
+     * @param index 0 to 2
+     * @return the argument, or null if it was not given
+     */
+    public Object getArgument(int index) {
+        switch (index) {
+            case 0:
+                return first;
+            case 1:
+                return second;
+            case 2:
+                return third;
+            default:
+                throw new IndexOutOfBoundsException("No object argument " + index);
+        }
+    }
+
+    /**
+     * Gets one of the int arguments of this event.
+     *
+     * @param index 0 or 1
+     * @return the argument, or 0 if it was not given
+     */
+    public int getNumber(int index) {
+        switch (index) {
+            case 0:
+                return firstNumber;
+            case 1:
+                return secondNumber;
+            default:
+                throw new IndexOutOfBoundsException("No int argument " + index);
+        }
+    }
+
+    /**
+     * Gets the description of this event, building it on first use.
      *
      * @return the description of the event
      */
     public String getDescription() {
-        return description;
+        String text = description;
+        if (text == null) {
+            text = template.format(this);
+            description = text;
+        }
+        return text;
     }
 
     @Override
@@ -53,19 +178,18 @@ public class Event {
 
         Event otherEvent = (Event) other;
 
-        return (this.dateLogged.equals(otherEvent.dateLogged)
+        return (this.timestamp == otherEvent.timestamp
                 &&
-                this.description.equals(otherEvent.description));
+                this.getDescription().equals(otherEvent.getDescription()));
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * Long.hashCode(timestamp) + getDescription().hashCode());
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
     }
 }
-
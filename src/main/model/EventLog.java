@@ -1,61 +1,358 @@
 package model;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Represents a log of alarm system events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ *
+ * Logging an event never takes a lock: events are placed in a bounded
+ * multi-producer, single-consumer ring buffer and a background drain thread
+ * moves them, in batches, into a bounded history of recent events and on to
+ * any registered EventSinks. What happens when the ring is full is set by
+ * the BackpressurePolicy.
  */
 public class EventLog implements Iterable<Event> {
+    /** number of events the ring buffer can hold before backpressure applies (a power of two) */
+    public static final int RING_CAPACITY = 1 << 13;
+    /** number of most recent events kept for iteration */
+    public static final int HISTORY_CAPACITY = 1 << 16;
+    /** largest number of events handed to the sinks at once */
+    public static final int BATCH_SIZE = 256;
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
     /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    private static final EventLog theLog = new EventLog();
+
+    /**
+     * What logEvent does when the ring buffer is full.
+     */
+    public enum BackpressurePolicy {
+        /** discard the new event */
+        DROP,
+        /** wait, draining the ring on the calling thread if possible, until there is room */
+        BLOCK,
+        /** once the ring is three quarters full keep only every sampleInterval-th event; drop when full */
+        SAMPLE
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<Event> slots;
+    private final AtomicLongArray sequences;    // sequences[i] - position tells producers/consumer if slot i is ready
+    private final AtomicLong tail;              // next position to be claimed by a producer
+    private volatile long head;                 // next position to be consumed; written only under consumerLock
+    private final ReentrantLock consumerLock;   // held by whichever thread is currently draining the ring
+    private final ArrayDeque<Event> history;    // most recent drained events, guarded by consumerLock
+    private final List<EventSink> sinks;
+    private final AtomicLong dropped;
+    private final AtomicLong sinkFailures;
+    private volatile Consumer<RuntimeException> sinkErrorHandler;   // told of each sink failure, or null
+    private final AtomicLong sampleCounter;
+    private volatile BackpressurePolicy policy;
+    private volatile int sampleInterval;
+    private final Thread drainer;
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<Event>();
+        mask = RING_CAPACITY - 1;
+        slots = new AtomicReferenceArray<>(RING_CAPACITY);
+        sequences = new AtomicLongArray(RING_CAPACITY);
+        for (int i = 0; i < RING_CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+        tail = new AtomicLong();
+        consumerLock = new ReentrantLock();
+        history = new ArrayDeque<>();
+        sinks = new CopyOnWriteArrayList<>();
+        dropped = new AtomicLong();
+        sinkFailures = new AtomicLong();
+        sampleCounter = new AtomicLong();
+        policy = BackpressurePolicy.BLOCK;
+        sampleInterval = 10;
+        drainer = new Thread(this::drainContinuously, "EventLog-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
     }
 
     /**
-     * Gets instance of EventLog - creates it
-     * if it doesn't already exist.
+     * Gets instance of EventLog, which is created when the class is loaded.
      * (Singleton Design Pattern)
      * @return  instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
-        }
-
         return theLog;
     }
 
     /**
-     * Adds an event to the event log.
+     * Adds an event to the event log. Safe to call from any thread.
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        BackpressurePolicy current = policy;
+        if (current == BackpressurePolicy.SAMPLE && tail.get() - head >= RING_CAPACITY - RING_CAPACITY / 4
+                && sampleCounter.getAndIncrement() % sampleInterval != 0) {
+            dropped.incrementAndGet();
+            return;
+        }
+        while (!offer(e)) {
+            if (current != BackpressurePolicy.BLOCK) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (!tryDrain()) {
+                Thread.yield();
+            }
+        }
     }
 
     /**
-     * Clears the event log and logs the event.
+     * Clears the event log and logs the event. Events logged before the
+     * call are still delivered to the sinks.
      */
     public void clear() {
-        events.clear();
-        logEvent(new Event("Event log cleared."));
+        consumerLock.lock();
+        try {
+            drainAll();
+            history.clear();
+        } finally {
+            consumerLock.unlock();
+        }
+        logEvent(new Event(EventTemplate.LOG_CLEARED, null));
+    }
+
+    /**
+     * Delivers every event logged before this call to the history and sinks,
+     * then asks each sink to flush.
+     */
+    public void flush() {
+        consumerLock.lock();
+        try {
+            drainAll();
+            for (EventSink sink : sinks) {
+                try {
+                    sink.flush();
+                } catch (RuntimeException e) {
+                    sinkFailed(e);
+                }
+            }
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    /**
+     * Registers a sink to receive every event drained from now on.
+     * @param sink the sink to add
+     */
+    public void addSink(EventSink sink) {
+        sinks.add(sink);
+    }
+
+    /**
+     * Stops delivering events to the given sink.
+     * @param sink the sink to remove
+     */
+    public void removeSink(EventSink sink) {
+        sinks.remove(sink);
+    }
+
+    /**
+     * Sets what happens when the ring buffer is full.
+     * @param policy the backpressure policy to use
+     */
+    public void setBackpressurePolicy(BackpressurePolicy policy) {
+        this.policy = policy;
+    }
+
+    public BackpressurePolicy getBackpressurePolicy() {
+        return policy;
+    }
+
+    /**
+     * Sets how many events are logged per event kept under the SAMPLE policy.
+     * @param sampleInterval keep one in this many events; must be positive
+     */
+    public void setSampleInterval(int sampleInterval) {
+        if (sampleInterval < 1) {
+            throw new IllegalArgumentException("Sample interval must be positive.");
+        }
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Gets the number of events discarded by backpressure since the program started.
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of times a sink has thrown while handling a batch or
+     * being flushed since the program started.
+     * @return the number of sink failures
+     */
+    public long getSinkFailureCount() {
+        return sinkFailures.get();
     }
 
+    /**
+     * Sets a handler told of every exception thrown by a sink. It is called
+     * on the thread that delivered the batch and must not throw itself.
+     * @param handler the handler, or null to only count failures
+     */
+    public void setSinkErrorHandler(Consumer<RuntimeException> handler) {
+        this.sinkErrorHandler = handler;
+    }
+
+    /**
+     * Iterates over the most recent events (up to HISTORY_CAPACITY), including
+     * every event logged before this call. The iterator is over a copy, so
+     * later events do not affect it.
+     */
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        consumerLock.lock();
+        try {
+            drainAll();
+            return Collections.unmodifiableList(new ArrayList<>(history)).iterator();
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    /**
+     * Claims the next ring position and publishes e there.
+     * @return false if the ring is full
+     */
+    private boolean offer(Event e) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, e);
+                    sequences.set(index, position + 1);
+                    if (position - head == RING_CAPACITY / 2) {
+                        LockSupport.unpark(drainer);
+                    }
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Drains the ring on the calling thread if no other thread is draining it.
+     * @return true if this thread drained the ring
+     */
+    private boolean tryDrain() {
+        if (!consumerLock.tryLock()) {
+            return false;
+        }
+        try {
+            drainAll();
+            return true;
+        } finally {
+            consumerLock.unlock();
+        }
+    }
+
+    /**
+     * Moves every published event into the history and sinks, one batch at a
+     * time. Must be called while holding consumerLock.
+     */
+    private void drainAll() {
+        List<Event> batch = new ArrayList<>(BATCH_SIZE);
+        while (pollBatch(batch) > 0) {
+            for (Event event : batch) {
+                if (history.size() == HISTORY_CAPACITY) {
+                    history.removeFirst();
+                }
+                history.addLast(event);
+            }
+            List<Event> view = Collections.unmodifiableList(batch);
+            for (EventSink sink : sinks) {
+                deliver(sink, view);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Takes up to BATCH_SIZE published events off the ring, in order, into batch.
+     * Must be called while holding consumerLock.
+     * @return the number of events taken
+     */
+    private int pollBatch(List<Event> batch) {
+        long position = head;
+        while (batch.size() < BATCH_SIZE) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            batch.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, position + RING_CAPACITY);
+            position++;
+        }
+        head = position;
+        return batch.size();
+    }
+
+    /**
+     * Hands a batch to one sink; a sink that throws does not stop the others.
+     */
+    private void deliver(EventSink sink, List<Event> batch) {
+        try {
+            sink.eventsLogged(batch);
+        } catch (RuntimeException e) {
+            sinkFailed(e);
+        }
+    }
+
+    /**
+     * Counts a sink failure and passes it to the sink error handler, if any.
+     */
+    private void sinkFailed(RuntimeException e) {
+        sinkFailures.incrementAndGet();
+        Consumer<RuntimeException> handler = sinkErrorHandler;
+        if (handler != null) {
+            handler.accept(e);
+        }
     }
-}
 
+    /**
+     * Body of the drain thread: drains the ring every few milliseconds, or
+     * sooner when it is half full.
+     */
+    private void drainContinuously() {
+        while (true) {
+            LockSupport.parkNanos(this, DRAIN_INTERVAL_NANOS);
+            tryDrain();
+        }
+    }
+}
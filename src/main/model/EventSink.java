@@ -0,0 +1,28 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Receives events from the EventLog in batches. Batches are usually
+ * delivered on the EventLog's drain thread, but may also be delivered on a
+ * thread that flushes, clears or iterates the log, and, under the BLOCK
+ * backpressure policy, on a thread whose logEvent call found the ring full
+ * and drained it itself. Batches arrive in the order the events were logged
+ * and are never delivered to one sink concurrently. An exception thrown by
+ * a sink is counted and passed to the log's sink error handler.
+ */
+public interface EventSink {
+    /**
+     * Handles a batch of logged events. Implementations should return
+     * quickly; the log cannot drain further events until they do.
+     * @param events the events, oldest first; the list must not be kept
+     */
+    void eventsLogged(List<Event> events);
+
+    /**
+     * Called after the log has been flushed so that buffered output can be
+     * written out. Does nothing by default.
+     */
+    default void flush() {
+    }
+}
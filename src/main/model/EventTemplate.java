@@ -0,0 +1,93 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The kinds of event the program logs, each with the pattern its
+ * description is built from. In a pattern, {0} to {2} stand for an event's
+ * object arguments and {#0} and {#1} for its int arguments. Patterns are
+ * split into literal text and argument slots once, when the class loads.
+ */
+public enum EventTemplate {
+    TEXT("{0}"),
+    CHARACTER_CREATED("GameCharacter created with name: {0} and level: {#0}"),
+    BUFF_DEBUFF_ADDED("Buff/Debuff added to {0}: {1} ({2}, {#0}, Duration: {#1} rounds)"),
+    BUFF_DEBUFF_REMOVED("Buff/Debuff removed from {0}: {1} ({2}, {#0}, Duration: {#1} rounds)"),
+    BUFF_DEBUFF_EXPIRED("Buff/Debuff expired for {0}: {1}"),
+    SKILL_ADDED("Skill added to {0}: {1}"),
+    SKILL_REMOVED("Skill removed from {0}: {1}"),
+    ROLL_ADDED("{0} roll added to {1}'s history: {#0}"),
+    SKILL_CHECK_ROLLED("Skill check rolled for {0}: {#0}"),
+    ABILITY_CHECK_ROLLED("{0} check rolled: {#0}"),
+    CHARACTER_SAVED("Character saved: {0}"),
+    SAVE_FAILED("Failed to save character: {0}"),
+    CHARACTER_LOADED("Character loaded: {0}"),
+    LOAD_FAILED("Failed to load character from file."),
+    LOG_CLEARED("Event log cleared."),
+    JOURNAL_FAILED("Event journal failed: {0}");
+
+    /** number of object arguments an event can carry */
+    public static final int OBJECT_ARGUMENTS = 3;
+    /** number of int arguments an event can carry */
+    public static final int INT_ARGUMENTS = 2;
+
+    private final String pattern;
+    private final String[] literals;    // literals[i] is the text before slots[i]; the last literal has no slot
+    private final int[] slots;          // 0 to 2 for object arguments, 3 and 4 for int arguments
+
+    EventTemplate(String pattern) {
+        this.pattern = pattern;
+        List<String> text = new ArrayList<>();
+        List<Integer> argumentSlots = new ArrayList<>();
+        int literalStart = 0;
+        int open = pattern.indexOf('{');
+        while (open >= 0) {
+            int close = pattern.indexOf('}', open);
+            text.add(pattern.substring(literalStart, open));
+            argumentSlots.add(parseSlot(pattern.substring(open + 1, close)));
+            literalStart = close + 1;
+            open = pattern.indexOf('{', literalStart);
+        }
+        text.add(pattern.substring(literalStart));
+        this.literals = text.toArray(new String[0]);
+        this.slots = argumentSlots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Gets the pattern descriptions of this kind of event are built from.
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Builds the description of an event of this kind from its arguments.
+     * @param event the event to describe
+     * @return the description
+     */
+    String format(Event event) {
+        StringBuilder description = new StringBuilder(pattern.length() + 32);
+        for (int i = 0; i < slots.length; i++) {
+            description.append(literals[i]);
+            int slot = slots[i];
+            if (slot < OBJECT_ARGUMENTS) {
+                description.append(event.getArgument(slot));
+            } else {
+                description.append(event.getNumber(slot - OBJECT_ARGUMENTS));
+            }
+        }
+        return description.append(literals[slots.length]).toString();
+    }
+
+    /**
+     * Converts the text between braces in a pattern to an argument slot.
+     */
+    private static int parseSlot(String placeholder) {
+        if (placeholder.startsWith("#")) {
+            return OBJECT_ARGUMENTS + Integer.parseInt(placeholder.substring(1));
+        }
+        return Integer.parseInt(placeholder);
+    }
+}
@@ -1,7 +1,8 @@
 package model;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -12,19 +13,66 @@ import org.json.JSONObject;
 public class GameCharacter {
     private final String name;
     private int level;
-    private final List<AbilityScore> abilityScores;       // A list of the six main ability scores.
-    private final List<BuffDebuff> activeBuffsDebuffs;    // A list of currently active buffs and debuffs.
-    private final List<Skill> skills;                     // A list of skills the character is proficient in.
-    private final RollHistory rollHistory;                // A record of all rolls made by the character.
+    private final EnumIndexedList<AbilityScore, AbilityType> abilityScores;   // The six main ability scores.
+    private final ModifierSourceList<BuffDebuff> activeBuffsDebuffs;    // Currently active buffs and debuffs.
+    private final EnumIndexedList<Skill, SkillType> skills;    // A list of skills the character is proficient in.
+    private volatile RollHistory rollHistory;             // A record of all rolls made, or null until loaded.
+    private Supplier<RollHistory> rollHistoryLoader;      // Builds the roll history when first needed, or null
+
+    private final int[] abilityModifierTable;             // Ability check modifier for each AbilityType ordinal
+    private final int[] skillModifierTable;               // Skill check modifier for each SkillType ordinal
+    private boolean modifierTablesValid;                  // False when the tables must be rebuilt before use
+    private BuffDebuffScheduler buffDebuffScheduler;      // Scheduler expiring buffs/debuffs, or null if none
+    private final AtomicLong modificationCount;           // Number of changes made, including to the roll history
+    private volatile CharacterSnapshot snapshot;          // Latest snapshot taken, or null if none has been
+    private boolean snapshotStale = true;                 // True when the sheet changed after the latest snapshot
+    private volatile boolean snapshotsShared;             // True once snapshots are published after every change
+    private boolean snapshotsDeferred;                    // True while changes are batched into one snapshot
 
     // EFFECTS: constructs a character with a name and initializes default lists for attributes.
     public GameCharacter(String name, int level) {
+        this(name, level, new RollHistory());
+    }
+
+    // EFFECTS: constructs a character with a name that records its rolls in the given roll history
+    //          (e.g. a ColumnarRollHistory) and initializes default lists for attributes.
+    public GameCharacter(String name, int level, RollHistory rollHistory) {
+        this(name, level, rollHistory, null);
+    }
+
+    // EFFECTS: constructs a character with a name whose roll history is built by rollHistoryLoader the first
+    //          time it is needed, e.g. from a region of a saved file left unparsed until then, and initializes
+    //          default lists for attributes.
+    public GameCharacter(String name, int level, Supplier<RollHistory> rollHistoryLoader) {
+        this(name, level, null, rollHistoryLoader);
+    }
+
+    // EFFECTS: constructs a character with either a roll history or a loader for it
+    private GameCharacter(String name, int level, RollHistory rollHistory, Supplier<RollHistory> rollHistoryLoader) {
+        this(name, level, rollHistory, rollHistoryLoader, true);
+    }
+
+    // EFFECTS: constructs a character with either a roll history or a loader for it; if created, the character
+    //          starts with default ability scores and its creation is logged, otherwise it starts with no
+    //          ability scores and nothing is logged (for copies)
+    private GameCharacter(String name, int level, RollHistory rollHistory, Supplier<RollHistory> rollHistoryLoader,
+                          boolean created) {
         this.name = name;
         this.level = level;
-        this.abilityScores = new ArrayList<>();
-        this.activeBuffsDebuffs = new ArrayList<>();
-        this.skills = new ArrayList<>();
-        this.rollHistory = new RollHistory();
+        this.modificationCount = new AtomicLong();
+        ModifierListener listener = new SourceListener();
+        this.abilityScores = new EnumIndexedList<>(listener, AbilityScore::getType, AbilityType.class);
+        this.activeBuffsDebuffs = new ModifierSourceList<>(listener);
+        this.skills = new EnumIndexedList<>(listener, Skill::getType, SkillType.class);
+        this.abilityModifierTable = new int[AbilityType.values().length];
+        this.skillModifierTable = new int[SkillType.values().length];
+        this.rollHistoryLoader = rollHistoryLoader;
+        if (rollHistory != null) {
+            setRollHistory(rollHistory);
+        }
+        if (!created) {
+            return;
+        }
 
         // Initialize all ability scores with default values (e.g., 10)
         for (AbilityType type : AbilityType.values()) {
@@ -33,8 +81,7 @@ public class GameCharacter {
 
         // For logging
 
-        EventLog.getInstance().logEvent(new Event("GameCharacter created with name: "
-                + this.name + " and level: " + this.level));
+        EventLog.getInstance().logEvent(new Event(EventTemplate.CHARACTER_CREATED, this.name, this.level));
     }
 
     // Getters
@@ -59,8 +106,51 @@ public class GameCharacter {
         return this.skills;
     }
 
+    // EFFECTS: returns the roll history, building it first if it has not been loaded yet
     public RollHistory getRollHistory() {
-        return this.rollHistory;
+        RollHistory history = this.rollHistory;
+        return history != null ? history : loadRollHistory();
+    }
+
+    // EFFECTS: returns the loader that will build the roll history when it is first needed, or null if the roll
+    //          history has been built; lets a writer save rolls that were never loaded without building them
+    public synchronized Supplier<RollHistory> getRollHistoryLoader() {
+        return this.rollHistoryLoader;
+    }
+
+    // EFFECTS: returns true if the roll history has been built
+    public boolean isRollHistoryLoaded() {
+        return this.rollHistory != null;
+    }
+
+    // REQUIRES: called by the thread editing the character, unless shareSnapshots has been called
+    // EFFECTS: returns an immutable snapshot of the character's sheet as of its latest change, taking a new one
+    //          (sharing what is unchanged with the last) only if the sheet changed since the last was taken
+    public CharacterSnapshot getSnapshot() {
+        if (!snapshotsShared && snapshotStale) {
+            publishSnapshot();
+        }
+        return this.snapshot;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: publishes a snapshot now and a new one after every change (or one per batch of changes) from now
+    //          on, so that any thread may call getSnapshot without locking while one thread edits the character;
+    //          call before the character is shared with the threads that read it
+    public void shareSnapshots() {
+        snapshotsShared = true;
+        publishSnapshot();
+    }
+
+
+    // Setters
+
+    // REQUIRES: level to be positive
+    // MODIFIES: this
+    // EFFECTS:  Sets the character's level, which changes its proficiency bonus.
+    public void setLevel(int level) {
+        this.level = level;
+        modifiersChanged();
     }
 
 
@@ -72,11 +162,9 @@ public class GameCharacter {
     // EFFECTS:  Updates the specified ability score to the new value
     //           and returns true if the update was successful; false otherwise.
     public void updateAbilityScore(AbilityType abilityType, int newScore) {
-        for (AbilityScore ability : abilityScores) {
-            if (ability.getType() == abilityType) {
-                ability.setScore(newScore);
-                break;
-            }
+        AbilityScore ability = abilityScores.first(abilityType);
+        if (ability != null) {
+            ability.setScore(newScore);
         }
     }
 
@@ -84,12 +172,7 @@ public class GameCharacter {
     // EFFECTS: Returns the AbilityScore object corresponding to the given AbilityType.
     //          Returns null if no such AbilityScore exists for the character.
     public AbilityScore getAbilityScoreByType(AbilityType type) {
-        for (AbilityScore score : abilityScores) {
-            if (score.getType() == type) {
-                return score;
-            }
-        }
-        return null;
+        return abilityScores.first(type);
     }
 
     // Buffs and Debuffs
@@ -99,8 +182,10 @@ public class GameCharacter {
     // EFFECTS:  Adds the provided buff or debuff to the character's active list.
     public void addBuffDebuff(BuffDebuff buffOrDebuff) {
         activeBuffsDebuffs.add(buffOrDebuff);
-        EventLog.getInstance().logEvent(new Event("Buff/Debuff added to "
-                + this.name + ": " + buffOrDebuff.getDescription()));
+        if (buffDebuffScheduler != null) {
+            buffDebuffScheduler.schedule(this, buffOrDebuff);
+        }
+        logBuffDebuffEvent(EventTemplate.BUFF_DEBUFF_ADDED, buffOrDebuff);
     }
 
     // REQUIRES: buffOrDebuff to be in the activeBuffsDebuffs list
@@ -108,39 +193,80 @@ public class GameCharacter {
     // EFFECTS:  Removes the specified buff or debuff from the character's active list.
     public void removeBuffDebuff(BuffDebuff buffOrDebuff) {
         activeBuffsDebuffs.remove(buffOrDebuff);
-        EventLog.getInstance().logEvent(new Event("Buff/Debuff removed from "
-                + this.name + ": " + buffOrDebuff.getDescription()));
+        buffOrDebuff.detachFromScheduler();
+        logBuffDebuffEvent(EventTemplate.BUFF_DEBUFF_REMOVED, buffOrDebuff);
     }
 
     // MODIFIES: this
     // EFFECTS:  Clears all active buffs and debuffs from the character.
     public void clearBuffsDebuffs() {
+        for (BuffDebuff buffDebuff : activeBuffsDebuffs) {
+            buffDebuff.detachFromScheduler();
+        }
         activeBuffsDebuffs.clear();
     }
 
     // MODIFIES: this
-    // EFFECTS: Decreases the duration of each active buff/debuff by 1 and removes it if its duration is 0
+    // EFFECTS: Decreases the duration of each active buff/debuff by 1 and removes it if its duration is 0,
+    //          publishing at most one snapshot for the whole update
     public void updateBuffsDebuffsDuration() {
-        List<BuffDebuff> toRemove = new ArrayList<>();
-
-        // Decrease the duration and collect buffs/debuffs that need to be removed
-        for (BuffDebuff buffDebuff : activeBuffsDebuffs) {
-            buffDebuff.decrementDuration();
-            if (buffDebuff.getDuration() <= 0) {
-                toRemove.add(buffDebuff);
+        // Decrease every duration and remove expired buffs/debuffs in a single pass over the list
+        snapshotsDeferred = true;
+        try {
+            activeBuffsDebuffs.removeIf(buffDebuff -> {
+                if (buffDebuff.decrementDuration() > 0) {
+                    return false;
+                }
+                buffDebuff.detachFromScheduler();
+                logBuffDebuffExpired(buffDebuff);
+                return true;
+            });
+        } finally {
+            snapshotsDeferred = false;
+            if (snapshotsShared && snapshotStale) {
+                publishSnapshot();
             }
         }
+    }
 
-        // Remove buffs/debuffs with zero or negative duration
-        for (BuffDebuff buffDebuff : toRemove) {
-
-            activeBuffsDebuffs.remove(buffDebuff);
+    // MODIFIES: this
+    // EFFECTS: Removes buffDebuff because its duration ran out under a BuffDebuffScheduler;
+    //          returns true if the character still had it
+    boolean expireBuffDebuff(BuffDebuff buffDebuff) {
+        if (!activeBuffsDebuffs.remove(buffDebuff)) {
+            return false;
+        }
+        logBuffDebuffExpired(buffDebuff);
+        return true;
+    }
 
-            EventLog.getInstance().logEvent(new Event("Buff/Debuff expired for "
-                    + this.getName() + ": " + buffDebuff.getName()));
+    // MODIFIES: this
+    // EFFECTS: Counts the scheduler advancing a round as one change to the remaining durations of all the
+    //          character's buffs/debuffs, if it has any
+    void roundAdvanced() {
+        if (!activeBuffsDebuffs.isEmpty()) {
+            durationChanged();
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: Sets the scheduler that expires this character's buffs/debuffs, or null for none
+    void setBuffDebuffScheduler(BuffDebuffScheduler scheduler) {
+        this.buffDebuffScheduler = scheduler;
+    }
+
+    // EFFECTS: Logs that buffDebuff expired for this character
+    private void logBuffDebuffExpired(BuffDebuff buffDebuff) {
+        EventLog.getInstance().logEvent(new Event(EventTemplate.BUFF_DEBUFF_EXPIRED, this.name, buffDebuff.getName()));
+    }
+
+    // EFFECTS: Logs an event of the given kind describing buffDebuff as it is now
+    private void logBuffDebuffEvent(EventTemplate template, BuffDebuff buffDebuff) {
+        EventLog.getInstance().logEvent(new Event(System.currentTimeMillis(), template, this.name,
+                buffDebuff.getName(), buffDebuff.getEffectAbility(), buffDebuff.getEffectMagnitude(),
+                buffDebuff.getDuration()));
+    }
+
 
 
 
@@ -151,8 +277,7 @@ public class GameCharacter {
     // EFFECTS:  Adds the provided skill to the character's list of skills.
     public void addSkill(Skill skill) {
         skills.add(skill);
-        EventLog.getInstance().logEvent(new Event("Skill added to "
-                + this.name + ": " + skill.getType()));
+        EventLog.getInstance().logEvent(new Event(EventTemplate.SKILL_ADDED, this.name, skill.getType()));
     }
 
     // REQUIRES: skill to be in the skills list
@@ -160,13 +285,16 @@ public class GameCharacter {
     // EFFECTS:  Removes the specified skill from the character's list.
     public void removeSkill(Skill skill) {
         skills.remove(skill);
-        EventLog.getInstance().logEvent(new Event("Skill removed from "
-                + this.name + ": " + skill.getType()));
+        EventLog.getInstance().logEvent(new Event(EventTemplate.SKILL_REMOVED, this.name, skill.getType()));
     }
 
     // REQUIRES: skillName to correspond to a known skill
     // EFFECTS:  Returns true if the character is proficient in the specified skill, false otherwise.
     public boolean isProficientInSkill(SkillType skillType) {
+        int count = skills.count(skillType);
+        if (count <= 1) {
+            return count == 1 && skills.first(skillType).getIsProficient();
+        }
         for (Skill skill : skills) {
             if (skill.getType() == skillType && skill.getIsProficient()) {
                 return true;
@@ -182,10 +310,10 @@ public class GameCharacter {
     // MODIFIES: this
     // EFFECTS:  Adds the provided roll to the character's roll history.
     public void addRoll(Roll roll) {
-        rollHistory.addRoll(roll);
+        getRollHistory().addRoll(roll);
 
-        EventLog.getInstance().logEvent(new Event(roll.getType() + " roll added to "
-                + this.name + "'s history: " + roll.getFinalOutcome()));
+        EventLog.getInstance().logEvent(new Event(EventTemplate.ROLL_ADDED, roll.getType(), this.name,
+                roll.getFinalOutcome()));
     }
 
 
@@ -194,28 +322,203 @@ public class GameCharacter {
     // EFFECTS:  Calculates and returns the total modifier for the specified skill,
     //           considering ability scores, buffs, debuffs, and proficiencies.
     public int calculateTotalModifierForSkill(SkillType skillType) {
-        for (Skill skill : skills) {
-            if (skill.getType() == skillType) {
-                // If the character doesn't have the associated ability score,
-                // return 0 regardless of proficiency status
-                if (!this.hasAbility(skill.getAssociatedAbility().getType())) {
-                    return 0;
-                }
+        Skill skill = skills.first(skillType);
+        // If the character doesn't have the skill or the associated ability score,
+        // return 0 regardless of proficiency status
+        if (skill == null || !this.hasAbility(skill.getAssociatedAbility().getType())) {
+            return 0;
+        }
+        return skill.getTotalSkillModifier();
+    }
 
-                return skill.getTotalSkillModifier();
+    // EFFECTS:  Returns the proficiency bonus for this character's level.
+    public int getProficiencyBonus() {
+        return 1 + (level + 3) / 4;
+    }
+
+    // EFFECTS:  Returns the total modifier applied to a check for the given skill: the associated ability's
+    //           modifier, the proficiency bonus if the character is proficient, and any active buffs/debuffs
+    //           on the associated ability.
+    public int calculateSkillCheckModifier(SkillType skillType) {
+        if (!modifierTablesValid) {
+            rebuildModifierTables();
+        }
+        return skillModifierTable[skillType.ordinal()];
+    }
+
+    // EFFECTS:  Returns the total modifier applied to a check for the given ability: its modifier
+    //           (0 if the character does not have it) plus any active buffs/debuffs on it.
+    public int calculateAbilityCheckModifier(AbilityType abilityType) {
+        if (!modifierTablesValid) {
+            rebuildModifierTables();
+        }
+        return abilityModifierTable[abilityType.ordinal()];
+    }
+
+    // EFFECTS:  Returns the cumulative modifier for the given ability from active buffs and debuffs.
+    public int calculateBuffDebuffModifier(AbilityType abilityType) {
+        int totalModifier = 0;
+        for (BuffDebuff buffDebuff : activeBuffsDebuffs) {
+            if (buffDebuff.getEffectAbility() == abilityType) {
+                totalModifier += buffDebuff.getEffectMagnitude();
             }
         }
-        return 0;
+        return totalModifier;
     }
 
-    // EFFECTS: Checks if the character has the given ability
-    public boolean hasAbility(AbilityType abilityType) {
+    // EFFECTS:  Returns a number that grows whenever the character changes: its level, ability scores, skills,
+    //           buffs/debuffs (including their remaining durations) or roll history. If two calls return the
+    //           same number, the character did not change in between, so it does not need saving again.
+    //           Every change increments one atomic counter, so this is a plain read that any thread may make.
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  Builds the roll history with the loader if no other thread has yet, and returns it.
+    private synchronized RollHistory loadRollHistory() {
+        if (rollHistory == null) {
+            setRollHistory(rollHistoryLoader.get());
+            rollHistoryLoader = null;
+        }
+        return rollHistory;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  Sets the roll history, counting only changes made to it from now on as changes to the character.
+    private void setRollHistory(RollHistory history) {
+        history.setChangeCounter(modificationCount);
+        rollHistory = history;
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  Counts a change to something the character saves and marks the cached modifier tables and the
+    //           snapshot as stale; called whenever anything they depend on changes.
+    private void modifiersChanged() {
+        modifierTablesValid = false;
+        durationChanged();
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  Counts a change to a buff/debuff's remaining duration, which is saved with the character but
+    //           does not affect the cached modifier tables, and marks the snapshot as stale; publishes a new one
+    //           right away only if snapshots are shared and not deferred.
+    private void durationChanged() {
+        modificationCount.incrementAndGet();
+        snapshotStale = true;
+        if (snapshotsShared && !snapshotsDeferred) {
+            publishSnapshot();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  Publishes a snapshot of the character as it is now, sharing what is unchanged with the last one.
+    private void publishSnapshot() {
+        snapshotStale = false;
+        snapshot = new CharacterSnapshot(this, modificationCount.get(), snapshot);
+    }
+
+    // MODIFIES: this
+    // EFFECTS:  Recomputes the ability and skill check modifier tables from the current ability scores,
+    //           buffs/debuffs, skill proficiencies and level.
+    private void rebuildModifierTables() {
+        for (AbilityType type : AbilityType.values()) {
+            AbilityScore ability = abilityScores.first(type);
+            abilityModifierTable[type.ordinal()] = ability == null ? 0 : ability.getModifier();
+        }
+        for (BuffDebuff buffDebuff : activeBuffsDebuffs) {
+            abilityModifierTable[buffDebuff.getEffectAbility().ordinal()] += buffDebuff.getEffectMagnitude();
+        }
+        int proficiencyBonus = getProficiencyBonus();
+        for (SkillType type : SkillType.values()) {
+            int abilityModifier = abilityModifierTable[type.getAssociatedAbility().ordinal()];
+            skillModifierTable[type.ordinal()] = abilityModifier + (isProficientInSkill(type) ? proficiencyBonus : 0);
+        }
+        modifierTablesValid = true;
+    }
+
+    // EFFECTS: Returns a copy of this character with the same name, level, ability scores, skills and
+    //          buffs/debuffs (with their remaining durations), and an empty roll history. The copy shares no
+    //          mutable state with this character, but its skills are associated with its own ability scores
+    //          just as this character's are; its buffs/debuffs are not attached to any scheduler. Copying does
+    //          not log an event, and reuses this character's modifier tables if they are up to date.
+    public GameCharacter copy() {
+        GameCharacter copy = new GameCharacter(name, level, new RollHistory(), null, false);
         for (AbilityScore ability : abilityScores) {
-            if (ability.getType() == abilityType) {
-                return true;
+            copy.abilityScores.add(new AbilityScore(ability.getType(), ability.getValue()));
+        }
+        for (Skill skill : skills) {
+            copy.skills.add(new Skill(skill.getType(), copy.copyOfAbility(this, skill.getAssociatedAbility()),
+                    skill.getIsProficient()));
+        }
+        for (BuffDebuff buffDebuff : activeBuffsDebuffs) {
+            copy.activeBuffsDebuffs.add(new BuffDebuff(buffDebuff.getName(), buffDebuff.getEffectAbility(),
+                    buffDebuff.getEffectMagnitude(), buffDebuff.getDuration()));
+        }
+        if (modifierTablesValid) {
+            System.arraycopy(abilityModifierTable, 0, copy.abilityModifierTable, 0, abilityModifierTable.length);
+            System.arraycopy(skillModifierTable, 0, copy.skillModifierTable, 0, skillModifierTable.length);
+            copy.modifierTablesValid = true;
+        }
+        return copy;
+    }
+
+    // EFFECTS: Returns this copy's counterpart of original's ability score ability, or a new copy of ability if
+    //          it is not one of original's ability scores
+    private AbilityScore copyOfAbility(GameCharacter original, AbilityScore ability) {
+        for (int i = 0; i < original.abilityScores.size(); i++) {
+            if (original.abilityScores.get(i) == ability) {
+                return abilityScores.get(i);
             }
         }
-        return false;
+        return new AbilityScore(ability.getType(), ability.getValue());
+    }
+
+    // EFFECTS: Returns true if other has the same name, level, ability scores, skills and buffs/debuffs (with
+    //          the same remaining durations) as this character, in the same order; roll histories are not compared
+    public boolean hasSameSheet(GameCharacter other) {
+        if (!name.equals(other.name) || level != other.level || abilityScores.size() != other.abilityScores.size()
+                || skills.size() != other.skills.size()
+                || activeBuffsDebuffs.size() != other.activeBuffsDebuffs.size()) {
+            return false;
+        }
+        for (int i = 0; i < abilityScores.size(); i++) {
+            AbilityScore ability = abilityScores.get(i);
+            AbilityScore otherAbility = other.abilityScores.get(i);
+            if (ability.getType() != otherAbility.getType() || !ability.getValue().equals(otherAbility.getValue())) {
+                return false;
+            }
+        }
+        for (int i = 0; i < skills.size(); i++) {
+            if (!sameSkill(skills.get(i), other.skills.get(i))) {
+                return false;
+            }
+        }
+        for (int i = 0; i < activeBuffsDebuffs.size(); i++) {
+            if (!sameBuffDebuff(activeBuffsDebuffs.get(i), other.activeBuffsDebuffs.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: Returns true if both skills have the same type, proficiency and associated ability score
+    private static boolean sameSkill(Skill skill, Skill other) {
+        return skill.getType() == other.getType() && skill.getIsProficient() == other.getIsProficient()
+                && skill.getAssociatedAbility().getType() == other.getAssociatedAbility().getType()
+                && skill.getAssociatedAbility().getValue().equals(other.getAssociatedAbility().getValue());
+    }
+
+    // EFFECTS: Returns true if both buffs/debuffs have the same name, effect and remaining duration
+    private static boolean sameBuffDebuff(BuffDebuff buffDebuff, BuffDebuff other) {
+        return buffDebuff.getName().equals(other.getName()) && buffDebuff.getEffectAbility() == other.getEffectAbility()
+                && buffDebuff.getEffectMagnitude() == other.getEffectMagnitude()
+                && buffDebuff.getDuration() == other.getDuration();
+    }
+
+    // EFFECTS: Checks if the character has the given ability
+    public boolean hasAbility(AbilityType abilityType) {
+        return abilityScores.count(abilityType) > 0;
     }
 
     // Code influence by the JsonSerializationDemo
@@ -229,7 +532,7 @@ public class GameCharacter {
         json.put("abilityScores", abilityScoresToJson());
         json.put("activeBuffsDebuffs", buffsDebuffsToJson());
         json.put("skills", skillsToJson());
-        json.put("rollHistory", rollHistory.toJson()); // Assuming rollHistory also has a toJson method
+        json.put("rollHistory", getRollHistory().toJson()); // Assuming rollHistory also has a toJson method
         return json;
     }
 
@@ -257,6 +560,16 @@ public class GameCharacter {
         return jsonArray;
     }
 
+    // Listens to the modifier sources held by this character
+    private final class SourceListener implements ModifierListener {
+        @Override
+        public void modifiersChanged() {
+            GameCharacter.this.modifiersChanged();
+        }
 
+        @Override
+        public void durationChanged() {
+            GameCharacter.this.durationChanged();
+        }
+    }
 }
-
@@ -0,0 +1,16 @@
+package model;
+
+// Receives a notification whenever something that feeds into a character's check modifiers changes,
+// such as an ability score, a skill's proficiency, or a buff/debuff's effect. A buff/debuff's duration does not
+// affect any modifier, but is saved with the character, so changes to it are reported separately.
+
+interface ModifierListener {
+
+    // EFFECTS: reacts to a change in a value that modifiers are calculated from
+    void modifiersChanged();
+
+    // EFFECTS: reacts to a change in a buff/debuff's remaining duration; by default, treats it like any change
+    default void durationChanged() {
+        modifiersChanged();
+    }
+}
@@ -0,0 +1,48 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents a value that check modifiers are calculated from (an ability score, a skill or a buff/debuff).
+// Keeps the listeners of every character that currently holds it and notifies them when it changes.
+// Listeners are kept in a small array since a source almost always belongs to exactly one character.
+
+abstract class ModifierSource {
+    private static final ModifierListener[] NONE = new ModifierListener[0];
+
+    private ModifierListener[] listeners = NONE;    // Listeners notified when this source changes
+
+    // MODIFIES: this
+    // EFFECTS: registers listener to be notified when this source changes
+    void addModifierListener(ModifierListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unregisters one registration of listener, if present
+    void removeModifierListener(ModifierListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                ModifierListener[] remaining = new ModifierListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining.length == 0 ? NONE : remaining;
+                return;
+            }
+        }
+    }
+
+    // EFFECTS: notifies every registered listener that this source has changed
+    void notifyModifierListeners() {
+        for (ModifierListener listener : listeners) {
+            listener.modifiersChanged();
+        }
+    }
+
+    // EFFECTS: notifies every registered listener that this source's remaining duration has changed
+    void notifyDurationListeners() {
+        for (ModifierListener listener : listeners) {
+            listener.durationChanged();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+// A list of modifier sources held by a character. The character's listener is registered with each element
+// while it is in the list and is notified of every change to the list, so the character's cached modifiers
+// stay correct however the list is modified, including through the list returned by its getters.
+
+class ModifierSourceList<E extends ModifierSource> extends AbstractList<E> implements RandomAccess {
+    private final List<E> elements;                // The elements, in insertion order
+    private final ModifierListener owner;          // The listener of the character holding this list
+
+    // EFFECTS: constructs an empty list owned by the character with the given listener
+    ModifierSourceList(ModifierListener owner) {
+        this.elements = new ArrayList<>();
+        this.owner = owner;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public void add(int index, E element) {
+        elements.add(index, element);
+        modCount++;
+        element.addModifierListener(owner);
+        elementAdded(index, element);
+        owner.modifiersChanged();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E previous = elements.set(index, element);
+        previous.removeModifierListener(owner);
+        element.addModifierListener(owner);
+        elementsChanged();
+        owner.modifiersChanged();
+        return previous;
+    }
+
+    @Override
+    public E remove(int index) {
+        E removed = elements.remove(index);
+        modCount++;
+        removed.removeModifierListener(owner);
+        elementsChanged();
+        owner.modifiersChanged();
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        for (E element : elements) {
+            element.removeModifierListener(owner);
+        }
+        elements.clear();
+        modCount++;
+        elementsChanged();
+        owner.modifiersChanged();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every element matching filter in a single pass; returns true if any were removed
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        boolean removed = elements.removeIf(element -> {
+            if (!filter.test(element)) {
+                return false;
+            }
+            element.removeModifierListener(owner);
+            return true;
+        });
+        if (removed) {
+            modCount++;
+            elementsChanged();
+            owner.modifiersChanged();
+        }
+        return removed;
+    }
+
+    // EFFECTS: called after element is inserted at index; does nothing unless overridden
+    void elementAdded(int index, E element) {
+    }
+
+    // EFFECTS: called after elements are removed or replaced; does nothing unless overridden
+    void elementsChanged() {
+    }
+}
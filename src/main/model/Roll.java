@@ -8,7 +8,7 @@ import org.json.JSONObject;
 
 public class Roll {
 
-    private final String type;               // The type of roll (e.g., "Strength check", "Stealth check")
+    private final RollType type;             // The type of roll (e.g., "STRENGTH check", "STEALTH check")
     private int baseResult;                  // The result of the dice roll before any modifiers
     private int appliedModifier;             // The total modifier applied to the roll
     private int finalOutcome;                // The result after applying the modifier
@@ -16,6 +16,11 @@ public class Roll {
     // EFFECTS: constructs a roll with type, base result, applied modifier, and final outcome
 
     public Roll(String type, int baseResult, int appliedModifier) {
+        this(RollType.named(type), baseResult, appliedModifier);
+    }
+
+    // EFFECTS: constructs a roll of a registered roll type with base result, applied modifier, and final outcome
+    public Roll(RollType type, int baseResult, int appliedModifier) {
         this.type = type;
         this.baseResult = baseResult;
         this.appliedModifier = appliedModifier;
@@ -25,6 +30,10 @@ public class Roll {
     // Getters
 
     public String getType() {
+        return this.type.getName();
+    }
+
+    public RollType getRollType() {
         return this.type;
     }
 
@@ -77,7 +86,7 @@ public class Roll {
 
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
-        json.put("type", type);
+        json.put("type", type.getName());
         json.put("baseResult", baseResult);
         json.put("appliedModifier", appliedModifier);
         json.put("finalOutcome", finalOutcome);
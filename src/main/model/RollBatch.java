@@ -0,0 +1,69 @@
+package model;
+
+import model.dice.DiceRandomSource;
+
+import java.util.Arrays;
+
+// Rolls many d20 checks for a character in one call, writing the raw results, applied modifiers and final
+// outcomes into caller-supplied int arrays instead of creating a Roll (and its description) per check.
+// Every check in a batch is made against the character as it is when the batch starts; buff/debuff durations
+// are not advanced between checks. For the same random source state, a batch produces exactly the results that
+// rolling a d20 once per check and applying the same modifier would.
+
+public final class RollBatch {
+    public static final int DIE_SIDES = 20;
+
+    // EFFECTS: prevents construction; this class only has static methods
+    private RollBatch() {
+    }
+
+    // REQUIRES: count >= 0; each non-null array has at least offset + count elements
+    // MODIFIES: random, baseResults, modifiers, totals
+    // EFFECTS: rolls count checks for the given skill, writing each check to index offset + i of the arrays;
+    //          any of modifiers or totals may be null if the caller does not need them
+    public static void rollSkillChecks(GameCharacter character, SkillType skill, DiceRandomSource random,
+                                       int[] baseResults, int[] modifiers, int[] totals, int offset, int count) {
+        int modifier = character.calculateSkillCheckModifier(skill);
+        rollChecks(modifier, random, baseResults, modifiers, totals, offset, count);
+    }
+
+    // REQUIRES: count >= 0; each non-null array has at least offset + count elements
+    // MODIFIES: random, baseResults, modifiers, totals
+    // EFFECTS: rolls count checks for the given ability, writing each check to index offset + i of the arrays;
+    //          any of modifiers or totals may be null if the caller does not need them
+    public static void rollAbilityChecks(GameCharacter character, AbilityType ability, DiceRandomSource random,
+                                         int[] baseResults, int[] modifiers, int[] totals, int offset, int count) {
+        int modifier = character.calculateAbilityCheckModifier(ability);
+        rollChecks(modifier, random, baseResults, modifiers, totals, offset, count);
+    }
+
+    // REQUIRES: count >= 0; each non-null array has at least offset + count elements
+    // MODIFIES: random, baseResults, modifiers, totals
+    // EFFECTS: rolls count d20s with a fixed modifier into the given arrays
+    public static void rollChecks(int modifier, DiceRandomSource random,
+                                  int[] baseResults, int[] modifiers, int[] totals, int offset, int count) {
+        checkBounds(baseResults, offset, count);
+        checkBounds(modifiers, offset, count);
+        checkBounds(totals, offset, count);
+        int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            baseResults[i] = random.roll(DIE_SIDES);
+        }
+        if (modifiers != null) {
+            Arrays.fill(modifiers, offset, end, modifier);
+        }
+        if (totals != null) {
+            for (int i = offset; i < end; i++) {
+                totals[i] = baseResults[i] + modifier;
+            }
+        }
+    }
+
+    // EFFECTS: throws IndexOutOfBoundsException if array is non-null and cannot hold count elements from offset
+    private static void checkBounds(int[] array, int offset, int count) {
+        if (array != null && (offset < 0 || count < 0 || offset + count > array.length)) {
+            throw new IndexOutOfBoundsException("Cannot write " + count + " rolls at offset " + offset
+                    + " into an array of length " + array.length);
+        }
+    }
+}
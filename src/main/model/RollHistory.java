@@ -2,24 +2,43 @@ package model;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 // Represents a collection of rolls made during the game.
-// Can add, remove, and view roll history.
+// Can add, remove, and view roll history. Running statistics over the rolls are kept up to date as rolls are
+// added and removed through this class, so they can be read without rescanning the roll list.
 
 public class RollHistory {
 
-    private final List<Roll> rolls;            // A list of all rolls made.
+    private final List<Roll> rolls;            // A list of all rolls made, or null if a subclass stores them.
+    private final RollStatistics statistics;   // Running statistics over the rolls in this history.
+    private long totalRollsAdded;              // Number of rolls ever added, including removed ones.
+    private long removalCount;                 // Number of times rolls were removed or cleared.
+    private AtomicLong changeCounter;          // Counter of the character holding this history, or null.
 
     // EFFECTS: constructs an empty list of rolls made
     public RollHistory() {
         this.rolls = new ArrayList<>();
+        this.statistics = new RollStatistics();
     }
 
     // EFFECTS: constructs a list of rolls made with the provided rolls
     public RollHistory(List<Roll> rolls) {
         this.rolls = rolls;
+        this.statistics = new RollStatistics();
+        for (Roll roll : rolls) {
+            recordStatistics(roll);
+        }
+        this.totalRollsAdded = rolls.size();
+    }
+
+    // EFFECTS: constructs an empty history, with the given running statistics, for a subclass that stores its
+    //          rolls itself and overrides every method that reads or changes them; no roll list is allocated
+    protected RollHistory(RollStatistics statistics) {
+        this.rolls = null;
+        this.statistics = statistics;
     }
 
 
@@ -29,6 +48,28 @@ public class RollHistory {
         return this.rolls;
     }
 
+    // EFFECTS: returns the running statistics over the rolls in this history; these do not see rolls added to or
+    //          removed from getRollList() directly
+    public RollStatistics getStatistics() {
+        return statistics;
+    }
+
+    // EFFECTS: returns the number of rolls ever added to this history, including any since removed
+    public long getTotalRollsAdded() {
+        return totalRollsAdded;
+    }
+
+    // EFFECTS: returns the number of times rolls have been removed from or cleared out of this history; while
+    //          this is unchanged, the history has only had rolls added to it
+    public long getRemovalCount() {
+        return removalCount;
+    }
+
+    // EFFECTS: returns the number of rolls in the roll history
+    public int size() {
+        return rolls.size();
+    }
+
 
     // Other
 
@@ -36,6 +77,8 @@ public class RollHistory {
     // EFFECTS: adds the given roll to the roll history
     public void addRoll(Roll roll) {
         rolls.add(roll);
+        recordStatistics(roll);
+        countRollAdded();
     }
 
     // EFFECTS: returns the last roll from the roll history; returns null if the roll history is empty
@@ -46,37 +89,102 @@ public class RollHistory {
         return null;
     }
 
+    // EFFECTS: returns up to count of the most recent rolls, most recent first
+    public List<Roll> getRecentRolls(int count) {
+        List<Roll> recent = new ArrayList<>(Math.min(count, rolls.size()));
+        for (int i = rolls.size() - 1; i >= Math.max(0, rolls.size() - count); i--) {
+            recent.add(rolls.get(i));
+        }
+        return recent;
+    }
+
     // MODIFIES: this
     // EFFECTS: clears the roll history
     public void clearRollHistory() {
         rolls.clear();
+        statistics.clear();
+        countRemoval();
     }
 
     // REQUIRES: roll to be in the roll history
     // MODIFIES: this
     // EFFECTS: removes the given roll from the roll history
     public void removeRoll(Roll roll) {
-        rolls.remove(roll);
+        if (rolls.remove(roll)) {
+            statistics.remove(roll.getRollType(), roll.getBaseResult(), roll.getFinalOutcome());
+            countRemoval();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts one more roll as added to this history
+    void countRollAdded() {
+        totalRollsAdded++;
+        countChange();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts one more removal from this history
+    void countRemoval() {
+        removalCount++;
+        countChange();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the counter that every later change to this history increments, e.g. the modification count
+    //          of the character holding it, or null for none
+    void setChangeCounter(AtomicLong changeCounter) {
+        this.changeCounter = changeCounter;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: increments the change counter, if there is one
+    private void countChange() {
+        AtomicLong counter = changeCounter;
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the given roll to the running statistics
+    private void recordStatistics(Roll roll) {
+        statistics.record(roll.getRollType(), roll.getBaseResult(), roll.getFinalOutcome());
     }
 
     // Code influence by the JsonSerializationDemo
     // https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo.git
 
     public JSONObject toJson() {
+        RollTypeTable rollTypes = RollTypeTable.of(this);
         JSONObject json = new JSONObject();
-        json.put("rolls", rollsToJson());
+        json.put("rollTypes", rollTypesToJson(rollTypes));
+        json.put("rolls", rollsToJson(rollTypes));
         return json;
     }
 
-    // EFFECTS: returns rolls in this history as a JSON array
-    private JSONArray rollsToJson() {
+    // EFFECTS: returns the names of the roll types in the table as a JSON array
+    private JSONArray rollTypesToJson(RollTypeTable rollTypes) {
         JSONArray jsonArray = new JSONArray();
 
-        for (Roll r : rolls) {
-            jsonArray.put(r.toJson());
+        for (RollType type : rollTypes.getTypes()) {
+            jsonArray.put(type.getName());
         }
 
         return jsonArray;
     }
-}
 
+    // MODIFIES: rollTypes
+    // EFFECTS: returns rolls in this history as a JSON array, each referring to its type by index in rollTypes
+    private JSONArray rollsToJson(RollTypeTable rollTypes) {
+        JSONArray jsonArray = new JSONArray();
+
+        for (Roll r : getRollList()) {
+            JSONObject json = r.toJson();
+            json.put("type", rollTypes.indexOf(r.getRollType()));
+            jsonArray.put(json);
+        }
+
+        return jsonArray;
+    }
+}
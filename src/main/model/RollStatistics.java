@@ -0,0 +1,202 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// Running statistics over the rolls in a roll history, updated as rolls are added and removed so that every
+// query takes constant time no matter how many rolls have been made. Keeps the mean and variance of final
+// outcomes (Welford's method), the number of rolls of each type (indexed by RollType code for checks, and kept
+// in a map of the custom types this history has rolls of), a histogram of d20 base results and a fixed-width
+// histogram of final outcomes that percentiles are read from. Outcomes outside [MIN_TRACKED_OUTCOME,
+// MAX_TRACKED_OUTCOME] are counted in the nearest end bucket, so percentiles are exact for every outcome a d20
+// check can normally reach and clamped beyond that.
+
+public class RollStatistics {
+    public static final int MIN_TRACKED_OUTCOME = -30;
+    public static final int MAX_TRACKED_OUTCOME = 70;
+    private static final int D20_SIDES = 20;
+
+    private long count;                         // Number of rolls recorded
+    private double mean;                        // Mean of the recorded final outcomes
+    private double sumOfSquares;                // Sum of squared differences from the mean
+    private final long[] baseHistogram;         // baseHistogram[b] is the number of rolls with base result b
+    private long otherBaseResults;              // Number of rolls with a base result outside 1 to 20
+    private final long[] outcomeHistogram;      // Number of rolls per final outcome, offset by MIN_TRACKED_OUTCOME
+    private final long[] checkCounts;           // checkCounts[c] is the number of rolls of the check with code c
+    private final Map<RollType, long[]> customCounts;   // Number of rolls of each custom type used, as {count}
+
+    // EFFECTS: constructs statistics for an empty roll history
+    public RollStatistics() {
+        this.baseHistogram = new long[D20_SIDES + 1];
+        this.outcomeHistogram = new long[MAX_TRACKED_OUTCOME - MIN_TRACKED_OUTCOME + 1];
+        this.checkCounts = new long[RollType.CHECK_CODES];
+        this.customCounts = new HashMap<>();
+    }
+
+    // Getters
+
+    // EFFECTS: returns the number of rolls recorded
+    public long getCount() {
+        return count;
+    }
+
+    // EFFECTS: returns the mean final outcome, or 0 if no rolls have been recorded
+    public double getMean() {
+        return mean;
+    }
+
+    // EFFECTS: returns the population variance of the final outcomes, or 0 if fewer than two rolls were recorded
+    public double getVariance() {
+        return count < 2 ? 0 : Math.max(0, sumOfSquares / count);
+    }
+
+    // EFFECTS: returns the population standard deviation of the final outcomes
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    // EFFECTS: returns the number of recorded rolls of the given type
+    public long getCountForType(String type) {
+        RollType rollType = RollType.find(type);
+        return rollType == null ? 0 : getCountForType(rollType);
+    }
+
+    // EFFECTS: returns the number of recorded rolls of the given type
+    public long getCountForType(RollType type) {
+        if (type.getCode() < checkCounts.length) {
+            return checkCounts[type.getCode()];
+        }
+        long[] custom = customCounts.get(type);
+        return custom == null ? 0 : custom[0];
+    }
+
+    // EFFECTS: returns an unmodifiable map from the name of each type with recorded rolls to its number of rolls
+    public Map<String, Long> getTypeCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (int code = 0; code < checkCounts.length; code++) {
+            if (checkCounts[code] != 0) {
+                counts.put(RollType.forCode(code).getName(), checkCounts[code]);
+            }
+        }
+        for (Map.Entry<RollType, long[]> custom : customCounts.entrySet()) {
+            counts.put(custom.getKey().getName(), custom.getValue()[0]);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    // EFFECTS: returns the number of recorded rolls with the given base result; base results outside 1 to 20
+    //          (e.g. from custom dice expressions) are only counted together, so this returns 0 for them
+    public long getBaseResultCount(int baseResult) {
+        return baseResult >= 1 && baseResult <= D20_SIDES ? baseHistogram[baseResult] : 0;
+    }
+
+    // EFFECTS: returns the number of recorded rolls whose base result is outside 1 to 20
+    public long getOtherBaseResultCount() {
+        return otherBaseResults;
+    }
+
+    // EFFECTS: returns the number of recorded rolls whose final outcome falls in the given outcome's bucket
+    public long getOutcomeCount(int finalOutcome) {
+        return outcomeHistogram[bucketOf(finalOutcome)];
+    }
+
+    // EFFECTS: returns the fraction of recorded rolls with a natural 20, or 0 if no rolls have been recorded
+    public double getNatural20Rate() {
+        return count == 0 ? 0 : (double) baseHistogram[D20_SIDES] / count;
+    }
+
+    // EFFECTS: returns the fraction of recorded rolls with a natural 1, or 0 if no rolls have been recorded
+    public double getNatural1Rate() {
+        return count == 0 ? 0 : (double) baseHistogram[1] / count;
+    }
+
+    // REQUIRES: 0 <= fraction <= 1 and at least one roll has been recorded
+    // EFFECTS: returns the smallest tracked final outcome such that at least fraction of the recorded rolls
+    //          have that outcome or lower (e.g. 0.5 for the median)
+    public int getPercentile(double fraction) {
+        if (count == 0 || fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Percentile requires recorded rolls and a fraction in [0, 1].");
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < outcomeHistogram.length; i++) {
+            seen += outcomeHistogram[i];
+            if (seen >= target) {
+                return i + MIN_TRACKED_OUTCOME;
+            }
+        }
+        return MAX_TRACKED_OUTCOME;
+    }
+
+    // EFFECTS: returns the median final outcome; see getPercentile
+    public int getMedian() {
+        return getPercentile(0.5);
+    }
+
+    // Other
+
+    // MODIFIES: this
+    // EFFECTS: adds the given roll to the statistics
+    void record(RollType type, int baseResult, int finalOutcome) {
+        count++;
+        double delta = finalOutcome - mean;
+        mean += delta / count;
+        sumOfSquares += delta * (finalOutcome - mean);
+        addToHistograms(type, baseResult, finalOutcome, 1);
+    }
+
+    // REQUIRES: a roll with these values was previously recorded and not yet removed
+    // MODIFIES: this
+    // EFFECTS: removes the given roll from the statistics
+    void remove(RollType type, int baseResult, int finalOutcome) {
+        if (count == 1) {
+            clear();
+            return;
+        }
+        count--;
+        double delta = finalOutcome - mean;
+        mean -= delta / count;
+        sumOfSquares -= delta * (finalOutcome - mean);
+        addToHistograms(type, baseResult, finalOutcome, -1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: resets the statistics to those of an empty roll history
+    void clear() {
+        count = 0;
+        mean = 0;
+        sumOfSquares = 0;
+        otherBaseResults = 0;
+        Arrays.fill(baseHistogram, 0);
+        Arrays.fill(outcomeHistogram, 0);
+        Arrays.fill(checkCounts, 0);
+        customCounts.clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds delta to the type count and histogram buckets of the given roll
+    private void addToHistograms(RollType type, int baseResult, int finalOutcome, int delta) {
+        if (baseResult >= 1 && baseResult <= D20_SIDES) {
+            baseHistogram[baseResult] += delta;
+        } else {
+            otherBaseResults += delta;
+        }
+        outcomeHistogram[bucketOf(finalOutcome)] += delta;
+        if (type.getCode() < checkCounts.length) {
+            checkCounts[type.getCode()] += delta;
+        } else {
+            long[] custom = customCounts.computeIfAbsent(type, t -> new long[1]);
+            custom[0] += delta;
+            if (custom[0] == 0) {
+                customCounts.remove(type);
+            }
+        }
+    }
+
+    // EFFECTS: returns the outcome histogram index for the given final outcome, clamped to the tracked range
+    private static int bucketOf(int finalOutcome) {
+        return Math.max(MIN_TRACKED_OUTCOME, Math.min(MAX_TRACKED_OUTCOME, finalOutcome)) - MIN_TRACKED_OUTCOME;
+    }
+}
@@ -0,0 +1,150 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Represents a kind of roll, such as a Stealth skill check, a Strength ability check or a custom kind named by
+// the player, identified by a small integer code. Each kind is registered once, so rolls of the same kind share
+// one RollType instead of each carrying its own copy of the type string, and rolls are grouped by comparing
+// codes. Skill checks and ability checks have fixed codes (every SkillType in order, then every AbilityType),
+// and display names built from the enum ("STEALTH check"), matching the type strings rolls had before. Custom
+// kinds get the next free code the first time they are named, so their codes depend on the order a program run
+// meets them; saved files therefore store the names of the kinds they use, once per file (see RollTypeTable),
+// and refer to them by position. Custom kinds stay registered for the rest of the run, as columnar histories
+// store rolls by code, so code-indexed tables should only be sized by the CHECK_CODES fixed codes and keep
+// custom kinds in a map of the ones they actually use.
+
+public final class RollType {
+    private static final String CHECK_SUFFIX = " check";
+    private static final SkillType[] SKILLS = SkillType.values();
+    private static final AbilityType[] ABILITIES = AbilityType.values();
+    static final int CHECK_CODES = SkillType.values().length + AbilityType.values().length;   // Codes of checks
+    private static final Map<String, RollType> BY_NAME = new ConcurrentHashMap<>();
+    private static volatile RollType[] byCode = new RollType[CHECK_CODES];
+    private static volatile int registered;  // Number of codes in use
+
+    static {
+        for (SkillType skill : SKILLS) {
+            register(new RollType(skill.ordinal(), skill, null, null));
+        }
+        for (AbilityType ability : ABILITIES) {
+            register(new RollType(SKILLS.length + ability.ordinal(), null, ability, null));
+        }
+    }
+
+    private final int code;
+    private final SkillType skill;          // The skill checked, or null
+    private final AbilityType ability;      // The ability checked, or null
+    private final String name;              // The display name
+
+    // EFFECTS: constructs the roll type with the given code for a skill check, ability check or custom name
+    private RollType(int code, SkillType skill, AbilityType ability, String name) {
+        this.code = code;
+        this.skill = skill;
+        this.ability = ability;
+        if (skill != null) {
+            this.name = skill.name() + CHECK_SUFFIX;
+        } else if (ability != null) {
+            this.name = ability.name() + CHECK_SUFFIX;
+        } else {
+            this.name = name;
+        }
+    }
+
+    // EFFECTS: returns the roll type of a check of the given skill
+    public static RollType skillCheck(SkillType skill) {
+        return byCode[skill.ordinal()];
+    }
+
+    // EFFECTS: returns the roll type of a check of the given ability
+    public static RollType abilityCheck(AbilityType ability) {
+        return byCode[SKILLS.length + ability.ordinal()];
+    }
+
+    // MODIFIES: the registry of roll types
+    // EFFECTS: returns the roll type with the given display name, registering a custom roll type for it if there
+    //          is none yet; the names of skill and ability checks return those checks. Throws
+    //          IllegalArgumentException if name is null
+    public static RollType named(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Roll type name cannot be null.");
+        }
+        RollType type = BY_NAME.get(name);
+        return type != null ? type : registerCustom(name);
+    }
+
+    // EFFECTS: returns the roll type with the given display name, or null if none has been registered
+    public static RollType find(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+
+    // EFFECTS: returns the roll type with the given code; throws IllegalArgumentException if no roll type has it
+    public static RollType forCode(int code) {
+        RollType[] types = byCode;
+        if (code < 0 || code >= types.length || types[code] == null) {
+            throw new IllegalArgumentException("Unknown roll type code " + code);
+        }
+        return types[code];
+    }
+
+    // EFFECTS: returns the number of roll types registered so far; every code is less than this
+    public static int getCodeLimit() {
+        return registered;
+    }
+
+    // Getters
+
+    public int getCode() {
+        return code;
+    }
+
+    // EFFECTS: returns the skill this is a check of, or null if it is not a skill check
+    public SkillType getSkill() {
+        return skill;
+    }
+
+    // EFFECTS: returns the ability this is a check of, or null if it is not an ability check
+    public AbilityType getAbility() {
+        return ability;
+    }
+
+    // EFFECTS: returns true if this is a custom roll type rather than a skill or ability check
+    public boolean isCustom() {
+        return skill == null && ability == null;
+    }
+
+    // EFFECTS: returns the display name of this roll type, e.g. "STEALTH check"
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    // MODIFIES: the registry of roll types
+    // EFFECTS: registers a custom roll type named name with the next free code, unless another thread just did
+    private static synchronized RollType registerCustom(String name) {
+        RollType type = BY_NAME.get(name);
+        if (type == null) {
+            type = new RollType(registered, null, null, name);
+            register(type);
+        }
+        return type;
+    }
+
+    // MODIFIES: the registry of roll types
+    // EFFECTS: adds type to the registry under its code and name
+    private static synchronized void register(RollType type) {
+        RollType[] types = byCode;
+        if (type.code >= types.length) {
+            types = Arrays.copyOf(types, Math.max(type.code + 1, types.length * 2));
+        }
+        types[type.code] = type;
+        byCode = types;
+        registered = type.code + 1;
+        BY_NAME.put(type.name, type);
+    }
+}
@@ -0,0 +1,63 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Numbers the distinct roll types used by a file in the order they are first added, so a file can write each
+// type's name once and refer to it by index from every roll. Indexes are local to the table; they are not the
+// registry codes, which can differ between program runs for custom roll types.
+
+public final class RollTypeTable {
+    private final List<RollType> types = new ArrayList<>();
+    private final int[] checkIndexes = new int[RollType.CHECK_CODES];   // Index plus one of each check, or 0
+    private final Map<RollType, Integer> customIndexes = new HashMap<>();  // Index of each custom type
+
+    // EFFECTS: returns a table of the roll types used by history, in order of first use
+    public static RollTypeTable of(RollHistory history) {
+        RollTypeTable table = new RollTypeTable();
+        if (history instanceof ColumnarRollHistory) {
+            ColumnarRollHistory columns = (ColumnarRollHistory) history;
+            for (int i = 0; i < columns.size(); i++) {
+                table.indexOf(columns.getRollType(i));
+            }
+        } else {
+            for (Roll roll : history.getRollList()) {
+                table.indexOf(roll.getRollType());
+            }
+        }
+        return table;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the index of type in this table, adding it at the end if it is not in the table yet
+    public int indexOf(RollType type) {
+        int code = type.getCode();
+        if (code >= checkIndexes.length) {
+            Integer index = customIndexes.get(type);
+            if (index == null) {
+                index = types.size();
+                types.add(type);
+                customIndexes.put(type, index);
+            }
+            return index;
+        }
+        if (checkIndexes[code] == 0) {
+            types.add(type);
+            checkIndexes[code] = types.size();
+        }
+        return checkIndexes[code] - 1;
+    }
+
+    // EFFECTS: returns the roll types in this table, in index order
+    public List<RollType> getTypes() {
+        return Collections.unmodifiableList(types);
+    }
+
+    // EFFECTS: returns the number of roll types in this table
+    public int size() {
+        return types.size();
+    }
+}
@@ -0,0 +1,65 @@
+package model;
+
+// Represents an ability score's value together with the modifier it gives, as an immutable value. Every score
+// in the usual range MIN_SCORE..MAX_SCORE is a single shared instance that stores its modifier, so holding,
+// copying or comparing a score never creates a new object or recomputes the modifier. Scores outside the range
+// (which the game does not normally allow) still work, but get a new instance each time and are compared with
+// equals.
+
+public final class ScoreValue {
+    public static final int MIN_SCORE = 1;
+    public static final int MAX_SCORE = 30;
+
+    private static final ScoreValue[] VALUES = new ScoreValue[MAX_SCORE + 1];     // VALUES[s] is the instance of s
+
+    static {
+        for (int score = MIN_SCORE; score <= MAX_SCORE; score++) {
+            VALUES[score] = new ScoreValue(score);
+        }
+    }
+
+    private final int score;
+    private final int modifier;
+
+    // EFFECTS: constructs the value of the given score
+    private ScoreValue(int score) {
+        this.score = score;
+        this.modifier = Math.floorDiv(score - 10, 2);
+    }
+
+    // EFFECTS: returns the value of the given score, which is the shared instance if score is in
+    //          MIN_SCORE..MAX_SCORE
+    public static ScoreValue of(int score) {
+        return score >= MIN_SCORE && score <= MAX_SCORE ? VALUES[score] : new ScoreValue(score);
+    }
+
+    // EFFECTS: returns the modifier for the given score using the standard D&D 5E formula, floor((score - 10) / 2)
+    public static int modifierOf(int score) {
+        return score >= MIN_SCORE && score <= MAX_SCORE ? VALUES[score].modifier : Math.floorDiv(score - 10, 2);
+    }
+
+    // Getters
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getModifier() {
+        return modifier;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof ScoreValue && ((ScoreValue) o).score == score);
+    }
+
+    @Override
+    public int hashCode() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return Integer.toString(score);
+    }
+}
@@ -5,7 +5,7 @@ import org.json.JSONObject;
 // Represents a specific skill in the D&D 5E universe.
 // Contains skill's type, associated ability, and character's proficiency in that skill.
 
-public class Skill {
+public class Skill extends ModifierSource {
 
     private final SkillType type;                       // Name of skill (eg. Stealth)
     private final AbilityScore associatedAbility;       // The associated ability score (e.g., Dexterity for Stealth)
@@ -42,6 +42,7 @@ public class Skill {
     // EFFECTS: sets the proficiency status for this skill
     public void setProficiency(boolean proficiency) {
         this.isProficient = proficiency;
+        notifyModifierListeners();
     }
 
 
@@ -0,0 +1,208 @@
+package model.dice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Parses dice expressions into compiled DiceExpression objects and caches them by expression string.
+// Supported syntax is a sum of terms separated by + or -, where each term is either a flat number
+// or a dice term NdM with optional suffixes:
+//   !      exploding: a die showing its maximum face is rolled again and added
+//   khK    keep the highest K dice (k alone is shorthand for kh)
+//   klK    keep the lowest K dice
+// For example: "d20+5", "4d6kh3+2", "2d20kl1", "8d6!", "1d8+2d6-1".
+
+public final class DiceCompiler {
+    public static final int MAX_DICE = 1000;          // Largest number of dice allowed in one term
+    public static final int MAX_SIDES = 1000;         // Largest number of sides allowed on a die
+    public static final int MAX_CACHED = 4096;        // Cache is cleared once it holds this many expressions
+
+    private static final Map<String, DiceExpression> CACHE = new ConcurrentHashMap<>();
+
+    private final String source;    // The expression being parsed
+    private int pos;                // Index of the next character to read
+
+    // EFFECTS: constructs a parser positioned at the start of source
+    private DiceCompiler(String source) {
+        this.source = source;
+        this.pos = 0;
+    }
+
+    // EFFECTS: returns the compiled form of expression, compiling and caching it if it has not been seen before;
+    //          throws IllegalArgumentException if expression is null or not a valid dice expression
+    public static DiceExpression compile(String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Dice expression cannot be null.");
+        }
+        DiceExpression cached = CACHE.get(expression);
+        if (cached != null) {
+            return cached;
+        }
+        DiceExpression compiled = new DiceCompiler(expression).parse();
+        if (CACHE.size() >= MAX_CACHED) {
+            CACHE.clear();
+        }
+        DiceExpression previous = CACHE.putIfAbsent(expression, compiled);
+        return previous == null ? compiled : previous;
+    }
+
+    // EFFECTS: returns the number of compiled expressions currently cached
+    public static int cacheSize() {
+        return CACHE.size();
+    }
+
+    // EFFECTS: removes every cached expression
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    // Parsing
+
+    // MODIFIES: this
+    // EFFECTS: parses the whole source and returns the compiled expression
+    private DiceExpression parse() {
+        List<DiceTerm> terms = new ArrayList<>();
+        int constant = 0;
+        int sign = parseLeadingSign();
+        do {
+            skipWhitespace();
+            if (peekIsDie() || Character.isDigit(peek()) && isDiceTermAhead()) {
+                terms.add(parseDiceTerm(sign));
+            } else {
+                constant += sign * parseNumber("a number or dice term");
+            }
+            skipWhitespace();
+            sign = parseOperator();
+        } while (sign != 0);
+
+        if (pos != source.length()) {
+            throw error("unexpected '" + source.charAt(pos) + "'");
+        }
+        return new DiceExpression(source, terms.toArray(new DiceTerm[0]), constant);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes an optional leading sign and returns -1 for "-", otherwise 1
+    private int parseLeadingSign() {
+        skipWhitespace();
+        if (peek() == '-' || peek() == '+') {
+            return source.charAt(pos++) == '-' ? -1 : 1;
+        }
+        return 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes a "+" or "-" operator and returns its sign, or returns 0 at the end of input
+    private int parseOperator() {
+        if (pos == source.length()) {
+            return 0;
+        }
+        char c = source.charAt(pos);
+        if (c != '+' && c != '-') {
+            throw error("expected '+' or '-' but found '" + c + "'");
+        }
+        pos++;
+        return c == '-' ? -1 : 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: parses a term of the form [N]dM[!][kh K | kl K | k K]
+    private DiceTerm parseDiceTerm(int sign) {
+        int count = Character.isDigit(peek()) ? parseNumber("a dice count") : 1;
+        pos++; // the 'd'
+        int sides = parseNumber("a number of sides");
+        boolean exploding = consume('!');
+        int keep = 0;
+        boolean keepHighest = true;
+        if (Character.toLowerCase(peek()) == 'k') {
+            pos++;
+            keepHighest = !consume('l');
+            if (keepHighest) {
+                consume('h');
+            }
+            keep = parseNumber("a number of dice to keep");
+            if (keep < 1) {
+                throw error("at least one die must be kept");
+            }
+        }
+        return validate(count, sides, keep, keepHighest, exploding, sign);
+    }
+
+    // EFFECTS: returns a dice term built from the given parts; throws IllegalArgumentException if they are out of range
+    private DiceTerm validate(int count, int sides, int keep, boolean keepHighest, boolean exploding, int sign) {
+        if (count < 1 || count > MAX_DICE) {
+            throw error("dice count must be between 1 and " + MAX_DICE);
+        }
+        if (sides < 1 || sides > MAX_SIDES) {
+            throw error("number of sides must be between 1 and " + MAX_SIDES);
+        }
+        if (exploding && sides < 2) {
+            throw error("exploding dice need at least 2 sides");
+        }
+        if (keep > count) {
+            throw error("number of dice kept must be between 1 and " + count);
+        }
+        return new DiceTerm(count, sides, keep, keepHighest, exploding, sign);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: parses a non-negative decimal number; throws IllegalArgumentException describing what was expected
+    private int parseNumber(String expected) {
+        int start = pos;
+        long value = 0;
+        while (Character.isDigit(peek())) {
+            value = value * 10 + (source.charAt(pos++) - '0');
+            if (value > Integer.MAX_VALUE / 2) {
+                throw error("number too large");
+            }
+        }
+        if (pos == start) {
+            throw error("expected " + expected);
+        }
+        return (int) value;
+    }
+
+    // EFFECTS: returns true if the digits starting at the current position are followed by a 'd'
+    private boolean isDiceTermAhead() {
+        int i = pos;
+        while (i < source.length() && Character.isDigit(source.charAt(i))) {
+            i++;
+        }
+        return i < source.length() && Character.toLowerCase(source.charAt(i)) == 'd';
+    }
+
+    // EFFECTS: returns true if the current character is a 'd'
+    private boolean peekIsDie() {
+        return Character.toLowerCase(peek()) == 'd';
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes c (ignoring case) if it is the current character and returns true; otherwise returns false
+    private boolean consume(char c) {
+        if (Character.toLowerCase(peek()) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the current character, or '\0' at the end of input
+    private char peek() {
+        return pos < source.length() ? source.charAt(pos) : '\0';
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances past any whitespace
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    // EFFECTS: returns an exception describing a parse error at the current position
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid dice expression \"" + source + "\" at position "
+                + pos + ": " + message + ".");
+    }
+}
@@ -0,0 +1,95 @@
+package model.dice;
+
+// Represents a compiled dice expression such as "d20+5", "4d6kh3+2", "2d20kl1" or "8d6!".
+// A compiled expression is immutable and thread-safe. It is parsed once by DiceCompiler and can then be
+// rolled any number of times; rolling does not allocate, since keep-highest/lowest terms reuse a
+// per-thread scratch buffer.
+
+public final class DiceExpression {
+    private final String source;                  // The expression text this was compiled from
+    private final DiceTerm[] terms;               // The dice terms, in the order they appear
+    private final int constant;                   // The sum of all flat modifiers in the expression
+    private final ThreadLocal<int[]> scratch;     // Per-thread buffer for keep terms, or null if none are present
+
+    // REQUIRES: terms is not modified after construction
+    // EFFECTS: constructs a compiled expression from its terms and flat modifier
+    DiceExpression(String source, DiceTerm[] terms, int constant) {
+        this.source = source;
+        this.terms = terms;
+        this.constant = constant;
+
+        int scratchSize = 0;
+        for (DiceTerm term : terms) {
+            if (term.needsScratch()) {
+                scratchSize = Math.max(scratchSize, term.getCount());
+            }
+        }
+        final int size = scratchSize;
+        this.scratch = size == 0 ? null : ThreadLocal.withInitial(() -> new int[size]);
+    }
+
+    // EFFECTS: returns the compiled form of expression, reusing a cached one if it was compiled before;
+    //          throws IllegalArgumentException if expression is not a valid dice expression
+    public static DiceExpression compile(String expression) {
+        return DiceCompiler.compile(expression);
+    }
+
+    // Getters
+
+    public String getSource() {
+        return source;
+    }
+
+    public int getConstant() {
+        return constant;
+    }
+
+    // EFFECTS: returns the number of dice terms in this expression
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    DiceTerm getTerm(int index) {
+        return terms[index];
+    }
+
+    // EFFECTS: returns the smallest total this expression can roll
+    public int getMinimum() {
+        int min = constant;
+        for (DiceTerm term : terms) {
+            min += term.minimum();
+        }
+        return min;
+    }
+
+    // EFFECTS: returns the largest total this expression can roll
+    public int getMaximum() {
+        int max = constant;
+        for (DiceTerm term : terms) {
+            max += term.maximum();
+        }
+        return max;
+    }
+
+    // Rolling
+
+    // EFFECTS: rolls this expression using the calling thread's random number generator
+    public int roll() {
+        return roll(DiceRandomSource.threadLocal());
+    }
+
+    // EFFECTS: rolls this expression using random and returns the total
+    public int roll(DiceRandomSource random) {
+        int[] buffer = scratch == null ? null : scratch.get();
+        int total = constant;
+        for (DiceTerm term : terms) {
+            total += term.roll(random, buffer);
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
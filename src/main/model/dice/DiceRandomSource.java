@@ -0,0 +1,79 @@
+package model.dice;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Represents a source of random numbers used to roll dice.
+// Sources are not shared between threads: each thread or session uses its own stream, either the
+// calling thread's ThreadLocalRandom or a SplittableRandom that can be seeded for deterministic replay
+// and split into independent child streams for parallel work.
+// All bounded integers are generated without modulo bias.
+
+public interface DiceRandomSource {
+
+    // REQUIRES: bound > 0
+    // EFFECTS: returns a uniformly distributed integer in [0, bound)
+    int nextInt(int bound);
+
+    // EFFECTS: returns a new, statistically independent source derived from this one
+    DiceRandomSource split();
+
+    // REQUIRES: sides > 0
+    // EFFECTS: returns the result of rolling a die with the given number of sides, in [1, sides]
+    default int roll(int sides) {
+        return nextInt(sides) + 1;
+    }
+
+    // EFFECTS: returns a source that always uses the calling thread's ThreadLocalRandom, so that any number
+    //          of threads can roll through it without contention
+    static DiceRandomSource threadLocal() {
+        return ThreadLocalSource.INSTANCE;
+    }
+
+    // EFFECTS: returns a new source that produces the same sequence every time it is created with seed
+    static DiceRandomSource seeded(long seed) {
+        return new SplittableSource(new SplittableRandom(seed));
+    }
+
+    // EFFECTS: returns a new, independently seeded source for a single thread or session
+    static DiceRandomSource newStream() {
+        return new SplittableSource(new SplittableRandom(ThreadLocalRandom.current().nextLong()));
+    }
+
+    // A source backed by a SplittableRandom; must only be used by one thread at a time
+    final class SplittableSource implements DiceRandomSource {
+        private final SplittableRandom random;
+
+        private SplittableSource(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return random.nextInt(bound);
+        }
+
+        @Override
+        public DiceRandomSource split() {
+            return new SplittableSource(random.split());
+        }
+    }
+
+    // A source that delegates to the calling thread's ThreadLocalRandom
+    final class ThreadLocalSource implements DiceRandomSource {
+        private static final ThreadLocalSource INSTANCE = new ThreadLocalSource();
+
+        private ThreadLocalSource() {
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return ThreadLocalRandom.current().nextInt(bound);
+        }
+
+        @Override
+        public DiceRandomSource split() {
+            return newStream();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package model.dice;
+
+// Represents one compiled dice term of a dice expression, e.g. "4d6kh3", "2d20kl1" or "8d6!".
+// A term rolls count dice with the given number of sides, optionally exploding on the maximum face
+// and optionally keeping only the highest or lowest few dice.
+
+final class DiceTerm {
+    static final int MAX_EXPLOSIONS = 20;   // Maximum number of extra rolls a single exploding die may add
+
+    private final int count;                // Number of dice rolled
+    private final int sides;                // Number of sides on each die
+    private final int keep;                 // Number of dice kept, or 0 to keep every die
+    private final boolean keepHighest;      // True to keep the highest dice, false to keep the lowest
+    private final boolean exploding;        // True if a die showing its maximum face is rolled again and added
+    private final int sign;                 // +1 or -1 depending on how the term appears in the expression
+
+    // REQUIRES: count >= 1, sides >= 1, 0 <= keep <= count, sides >= 2 if exploding, sign is 1 or -1
+    // EFFECTS: constructs a dice term
+    DiceTerm(int count, int sides, int keep, boolean keepHighest, boolean exploding, int sign) {
+        this.count = count;
+        this.sides = sides;
+        this.keep = keep;
+        this.keepHighest = keepHighest;
+        this.exploding = exploding;
+        this.sign = sign;
+    }
+
+    // Getters
+
+    int getCount() {
+        return count;
+    }
+
+    int getSides() {
+        return sides;
+    }
+
+    int getKeep() {
+        return keep;
+    }
+
+    boolean isKeepHighest() {
+        return keepHighest;
+    }
+
+    boolean isExploding() {
+        return exploding;
+    }
+
+    int getSign() {
+        return sign;
+    }
+
+    // EFFECTS: returns true if this term needs a scratch buffer to select the kept dice
+    boolean needsScratch() {
+        return keep != 0 && keep != count;
+    }
+
+    // EFFECTS: returns the number of dice that contribute to the total of this term
+    int keptDice() {
+        return keep == 0 ? count : keep;
+    }
+
+    // EFFECTS: returns the smallest total this term can contribute, including its sign
+    int minimum() {
+        int unsigned = keptDice();
+        return sign > 0 ? unsigned : -maxUnsigned();
+    }
+
+    // EFFECTS: returns the largest total this term can contribute, including its sign
+    int maximum() {
+        return sign > 0 ? maxUnsigned() : -keptDice();
+    }
+
+    // EFFECTS: returns the largest unsigned total of this term
+    private int maxUnsigned() {
+        int perDie = exploding ? sides * (MAX_EXPLOSIONS + 1) : sides;
+        return keptDice() * perDie;
+    }
+
+    // REQUIRES: scratch.length >= count if needsScratch()
+    // MODIFIES: scratch
+    // EFFECTS: rolls this term using random and returns its signed total
+    int roll(DiceRandomSource random, int[] scratch) {
+        if (!needsScratch()) {
+            int total = 0;
+            for (int i = 0; i < count; i++) {
+                total += rollDie(random);
+            }
+            return sign * total;
+        }
+        for (int i = 0; i < count; i++) {
+            scratch[i] = rollDie(random);
+        }
+        return sign * sumKept(scratch);
+    }
+
+    // EFFECTS: rolls a single die, rolling again and adding while an exploding die shows its maximum face
+    int rollDie(DiceRandomSource random) {
+        int face = random.roll(sides);
+        if (!exploding) {
+            return face;
+        }
+        int total = face;
+        for (int explosions = 0; face == sides && explosions < MAX_EXPLOSIONS; explosions++) {
+            face = random.roll(sides);
+            total += face;
+        }
+        return total;
+    }
+
+    // MODIFIES: dice
+    // EFFECTS: partially sorts the first count entries of dice and returns the sum of the kept ones
+    private int sumKept(int[] dice) {
+        int total = 0;
+        for (int k = 0; k < keep; k++) {
+            int best = k;
+            for (int i = k + 1; i < count; i++) {
+                if (keepHighest ? dice[i] > dice[best] : dice[i] < dice[best]) {
+                    best = i;
+                }
+            }
+            int chosen = dice[best];
+            dice[best] = dice[k];
+            dice[k] = chosen;
+            total += chosen;
+        }
+        return total;
+    }
+}
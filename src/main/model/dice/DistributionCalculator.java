@@ -0,0 +1,156 @@
+package model.dice;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Computes exact outcome distributions of dice expressions by convolving per-term distributions,
+// rather than by sampling. Keep-highest/lowest terms (including advantage "2d20kh1" and disadvantage
+// "2d20kl1") are solved exactly by a dynamic program over the order statistics of the dice, and exploding
+// dice are modelled with the same explosion limit used when rolling.
+// Distributions are cached per (expression, modifier), so repeated queries cost a map lookup.
+
+public final class DistributionCalculator {
+    public static final int MAX_SUPPORT = 1 << 16;     // Largest number of distinct totals an expression may have
+    public static final int MAX_CACHED = 4096;         // Cache is cleared once it holds this many expressions
+
+    private static final Map<String, Map<Integer, RollDistribution>> CACHE = new ConcurrentHashMap<>();
+
+    // EFFECTS: prevents construction; this class only has static methods
+    private DistributionCalculator() {
+    }
+
+    // EFFECTS: returns the exact distribution of expression plus modifier, computing and caching it if needed;
+    //          throws IllegalArgumentException if expression is invalid or its distribution is too large to compute
+    public static RollDistribution distributionOf(String expression, int modifier) {
+        Map<Integer, RollDistribution> byModifier = CACHE.get(expression);
+        if (byModifier == null) {
+            if (CACHE.size() >= MAX_CACHED) {
+                CACHE.clear();
+            }
+            byModifier = CACHE.computeIfAbsent(expression, e -> new ConcurrentHashMap<>());
+        }
+        RollDistribution distribution = byModifier.get(modifier);
+        if (distribution == null) {
+            RollDistribution base = modifier == 0 ? compute(DiceExpression.compile(expression))
+                    : distributionOf(expression, 0);
+            distribution = base.shift(modifier);
+            byModifier.putIfAbsent(modifier, distribution);
+        }
+        return distribution;
+    }
+
+    // EFFECTS: returns the exact distribution of expression;
+    //          throws IllegalArgumentException if expression is invalid or its distribution is too large to compute
+    public static RollDistribution distributionOf(String expression) {
+        return distributionOf(expression, 0);
+    }
+
+    // EFFECTS: returns the chance that expression plus modifier meets or beats difficultyClass
+    public static double chanceToBeat(String expression, int modifier, int difficultyClass) {
+        return distributionOf(expression, modifier).chanceToBeat(difficultyClass);
+    }
+
+    // EFFECTS: removes every cached distribution
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    // Computation
+
+    // EFFECTS: returns the exact distribution of a compiled expression
+    static RollDistribution compute(DiceExpression expression) {
+        double[] pmf = {1.0};
+        int minimum = expression.getConstant();
+        for (int i = 0; i < expression.getTermCount(); i++) {
+            DiceTerm term = expression.getTerm(i);
+            double[] termPmf = termDistribution(term);
+            if (term.getSign() < 0) {
+                reverse(termPmf);
+            }
+            checkSupport(pmf.length + termPmf.length - 1);
+            pmf = convolve(pmf, termPmf);
+            minimum += term.minimum();
+        }
+        return new RollDistribution(pmf, minimum);
+    }
+
+    // EFFECTS: returns the unsigned distribution of a term, indexed from its smallest total
+    private static double[] termDistribution(DiceTerm term) {
+        double[] die = dieDistribution(term);
+        if (!term.needsScratch()) {
+            return power(die, term.getCount());
+        }
+        return KeepDistribution.of(die, term.getCount(), term.getKeep(), term.isKeepHighest());
+    }
+
+    // EFFECTS: returns the distribution of a single die of term, indexed from 1
+    static double[] dieDistribution(DiceTerm term) {
+        int sides = term.getSides();
+        if (!term.isExploding()) {
+            double[] pmf = new double[sides];
+            Arrays.fill(pmf, 1.0 / sides);
+            return pmf;
+        }
+        int limit = DiceTerm.MAX_EXPLOSIONS;
+        double[] pmf = new double[sides * (limit + 1)];
+        double reach = 1.0;     // Probability that the die explodes j times in a row
+        for (int j = 0; j <= limit; j++) {
+            reach /= sides;
+            int faces = j == limit ? sides : sides - 1;
+            for (int face = 1; face <= faces; face++) {
+                pmf[j * sides + face - 1] = reach;
+            }
+        }
+        return pmf;
+    }
+
+    // EFFECTS: returns the distribution of the sum of count independent copies of pmf, by repeated squaring
+    private static double[] power(double[] pmf, int count) {
+        checkSupport((long) count * (pmf.length - 1) + 1);
+        double[] result = {1.0};
+        double[] base = pmf;
+        for (int n = count; n > 0; n >>= 1) {
+            if ((n & 1) == 1) {
+                result = convolve(result, base);
+            }
+            if (n > 1) {
+                base = convolve(base, base);
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns the convolution (polynomial product) of a and b
+    static double[] convolve(double[] a, double[] b) {
+        double[] result = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            double ai = a[i];
+            if (ai == 0.0) {
+                continue;
+            }
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] += ai * b[j];
+            }
+        }
+        return result;
+    }
+
+    // MODIFIES: pmf
+    // EFFECTS: reverses pmf in place
+    private static void reverse(double[] pmf) {
+        for (int i = 0, j = pmf.length - 1; i < j; i++, j--) {
+            double temp = pmf[i];
+            pmf[i] = pmf[j];
+            pmf[j] = temp;
+        }
+    }
+
+    // EFFECTS: throws IllegalArgumentException if a distribution with size totals is too large to compute
+    static void checkSupport(long size) {
+        if (size > MAX_SUPPORT) {
+            throw new IllegalArgumentException("Dice expression has too many possible totals ("
+                    + size + ") for an exact distribution.");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package model.dice;
+
+// Computes the exact distribution of the sum of the highest (or lowest) few dice out of a pool of
+// identical dice, e.g. "4d6kh3" or advantage "2d20kh1".
+// The dice are assigned to faces one face at a time, starting from the best face, so the first dice
+// assigned are exactly the kept ones. The dynamic program tracks how many dice have been assigned and
+// the sum of the kept dice so far, weighting each step by the binomial probability of the assignment.
+
+final class KeepDistribution {
+    static final long MAX_WORK = 200_000_000L;    // Upper bound on dynamic program steps for one term
+
+    // EFFECTS: prevents construction; this class only has static methods
+    private KeepDistribution() {
+    }
+
+    // REQUIRES: die[v - 1] is the probability of rolling v on one die, 1 <= keep <= count
+    // EFFECTS: returns the distribution of the sum of the kept dice, indexed from keep (all kept dice showing 1);
+    //          throws IllegalArgumentException if the computation would be too large
+    static double[] of(double[] die, int count, int keep, boolean highest) {
+        int faces = die.length;
+        int maxSum = keep * faces;
+        DistributionCalculator.checkSupport(maxSum - keep + 1);
+        if ((long) faces * count * count * (maxSum + 1) > MAX_WORK) {
+            throw new IllegalArgumentException("Too many dice kept from too large a pool for an exact distribution.");
+        }
+        double[][] dp = new double[count + 1][maxSum + 1];
+        dp[0][0] = 1.0;
+        for (int step = 0; step < faces; step++) {
+            int value = highest ? faces - step : step + 1;
+            double p = die[value - 1];
+            if (p != 0.0) {
+                dp = assignFace(dp, count, keep, value, p);
+            }
+        }
+        double[] result = new double[maxSum - keep + 1];
+        System.arraycopy(dp[count], keep, result, 0, result.length);
+        return result;
+    }
+
+    // EFFECTS: returns the table after choosing, for every state, how many of the unassigned dice show value
+    private static double[][] assignFace(double[][] dp, int count, int keep, int value, double p) {
+        double[][] next = new double[count + 1][dp[0].length];
+        for (int j = 0; j <= count; j++) {
+            double weight = 1.0;   // C(count - j, c) * p^c, updated incrementally as c grows
+            for (int c = 0; j + c <= count; c++) {
+                if (c > 0) {
+                    weight = weight * (count - j - c + 1) / c * p;
+                }
+                int added = value * Math.max(0, Math.min(c, keep - j));
+                addShifted(dp[j], next[j + c], added, weight);
+            }
+        }
+        return next;
+    }
+
+    // MODIFIES: target
+    // EFFECTS: adds source, shifted right by shift and scaled by weight, into target
+    private static void addShifted(double[] source, double[] target, int shift, double weight) {
+        for (int s = 0; s + shift < target.length; s++) {
+            if (source[s] != 0.0) {
+                target[s + shift] += source[s] * weight;
+            }
+        }
+    }
+}
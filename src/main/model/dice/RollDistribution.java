@@ -0,0 +1,86 @@
+package model.dice;
+
+// Represents the exact probability distribution of the total of a roll.
+// The probability mass function is stored as a primitive array indexed from the smallest possible total,
+// together with precomputed cumulative probabilities so that every query is a constant-time array read.
+// Distributions are immutable; shifting by a modifier shares the underlying arrays.
+
+public final class RollDistribution {
+    private final double[] pmf;        // pmf[i] is the probability that the total equals minimum + i
+    private final double[] atLeast;    // atLeast[i] is the probability that the total is at least minimum + i
+    private final int minimum;         // The smallest total with a stored probability
+
+    // REQUIRES: pmf is non-empty and its entries sum to (approximately) 1
+    // EFFECTS: constructs a distribution whose smallest total is minimum
+    RollDistribution(double[] pmf, int minimum) {
+        this.pmf = pmf;
+        this.minimum = minimum;
+        this.atLeast = new double[pmf.length + 1];
+        for (int i = pmf.length - 1; i >= 0; i--) {
+            atLeast[i] = atLeast[i + 1] + pmf[i];
+        }
+    }
+
+    // EFFECTS: constructs a distribution sharing the arrays of other but offset by shift
+    private RollDistribution(RollDistribution other, int shift) {
+        this.pmf = other.pmf;
+        this.atLeast = other.atLeast;
+        this.minimum = other.minimum + shift;
+    }
+
+    // Getters
+
+    public int getMinimum() {
+        return minimum;
+    }
+
+    public int getMaximum() {
+        return minimum + pmf.length - 1;
+    }
+
+    // Queries
+
+    // EFFECTS: returns the probability that the total equals total
+    public double probabilityOf(int total) {
+        int index = total - minimum;
+        return index < 0 || index >= pmf.length ? 0.0 : pmf[index];
+    }
+
+    // EFFECTS: returns the probability that the total is at least total
+    public double probabilityAtLeast(int total) {
+        int index = total - minimum;
+        if (index <= 0) {
+            return atLeast[0];
+        }
+        return index >= pmf.length ? 0.0 : atLeast[index];
+    }
+
+    // EFFECTS: returns the probability that the total is at most total
+    public double probabilityAtMost(int total) {
+        return atLeast[0] - probabilityAtLeast(total + 1);
+    }
+
+    // EFFECTS: returns the chance that a roll meets or beats the given difficulty class
+    public double chanceToBeat(int difficultyClass) {
+        return probabilityAtLeast(difficultyClass);
+    }
+
+    // EFFECTS: returns the expected total
+    public double mean() {
+        double mean = 0.0;
+        for (int i = 0; i < pmf.length; i++) {
+            mean += pmf[i] * (minimum + i);
+        }
+        return mean;
+    }
+
+    // EFFECTS: returns a copy of the probability mass function, indexed from getMinimum()
+    public double[] toArray() {
+        return pmf.clone();
+    }
+
+    // EFFECTS: returns this distribution with every total increased by modifier
+    public RollDistribution shift(int modifier) {
+        return modifier == 0 ? this : new RollDistribution(this, modifier);
+    }
+}
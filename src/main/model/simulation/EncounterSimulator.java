@@ -0,0 +1,117 @@
+package model.simulation;
+
+import model.AbilityType;
+import model.BuffDebuff;
+import model.GameCharacter;
+import model.SkillType;
+import model.dice.DiceRandomSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Simulates many encounters in which every member of a party makes the same skill check against a DC each
+// round, without any user interface. Each member's modifier for every round (including buffs/debuffs that
+// expire partway through the encounter) is precomputed once, so the simulation only reads primitive arrays.
+// Work is split across a ForkJoinPool; every task rolls from its own split random stream and keeps its own
+// histograms, which are summed as the tasks are joined, so no locks or shared counters are involved.
+// For a given seed the result is the same no matter how many threads run the simulation.
+
+public final class EncounterSimulator {
+    public static final int DIE_SIDES = 20;
+    static final long LEAF_ENCOUNTERS = 2048;     // Encounters simulated by a task without splitting further
+
+    private final int[][] modifiers;              // modifiers[m][r] is member m's check modifier in round r
+    private final int difficultyClass;            // Checks with totals at least this high succeed
+    private final int rounds;                     // Rounds per encounter
+    private final int minimumTotal;               // Lowest possible check total
+    private final int maximumTotal;               // Highest possible check total
+
+    // REQUIRES: party is non-empty and rounds >= 1
+    // EFFECTS: constructs a simulator in which each member of party rolls skill checks against difficultyClass
+    //          for the given number of rounds per encounter, using the party as it is now;
+    //          throws IllegalArgumentException if party is empty or rounds < 1
+    public EncounterSimulator(List<GameCharacter> party, SkillType skill, int difficultyClass, int rounds) {
+        if (party.isEmpty() || rounds < 1) {
+            throw new IllegalArgumentException("A simulation needs at least one character and one round.");
+        }
+        this.difficultyClass = difficultyClass;
+        this.rounds = rounds;
+        this.modifiers = new int[party.size()][];
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int m = 0; m < party.size(); m++) {
+            modifiers[m] = modifiersByRound(party.get(m), skill, rounds);
+            for (int modifier : modifiers[m]) {
+                min = Math.min(min, modifier);
+                max = Math.max(max, modifier);
+            }
+        }
+        this.minimumTotal = min + 1;
+        this.maximumTotal = max + DIE_SIDES;
+    }
+
+    // EFFECTS: returns character's modifier for a check of skill in each of the first rounds rounds,
+    //          counting a buff/debuff as active until its duration runs out
+    static int[] modifiersByRound(GameCharacter character, SkillType skill, int rounds) {
+        AbilityType ability = skill.getAssociatedAbility();
+        int withoutBuffs = character.calculateSkillCheckModifier(skill)
+                - character.calculateBuffDebuffModifier(ability);
+        int[] byRound = new int[rounds];
+        Arrays.fill(byRound, withoutBuffs);
+        for (BuffDebuff buffDebuff : character.getActiveBuffsDebuffs()) {
+            if (buffDebuff.getEffectAbility() == ability) {
+                int activeRounds = Math.min(rounds, Math.max(buffDebuff.getDuration(), 1));
+                for (int r = 0; r < activeRounds; r++) {
+                    byRound[r] += buffDebuff.getEffectMagnitude();
+                }
+            }
+        }
+        return byRound;
+    }
+
+    // EFFECTS: simulates the given number of encounters on the common ForkJoinPool using a stream seeded by seed
+    public SimulationResult simulate(long encounters, long seed) {
+        return simulate(encounters, seed, ForkJoinPool.commonPool());
+    }
+
+    // EFFECTS: simulates the given number of encounters on pool using a stream seeded by seed;
+    //          throws IllegalArgumentException if encounters is negative
+    public SimulationResult simulate(long encounters, long seed, ForkJoinPool pool) {
+        if (encounters < 0) {
+            throw new IllegalArgumentException("Number of encounters cannot be negative.");
+        }
+        long start = System.nanoTime();
+        SimulationResult result = pool.invoke(new SimulationTask(this, encounters, DiceRandomSource.seeded(seed)));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    // MODIFIES: random
+    // EFFECTS: simulates encounters sequentially with random and returns their histograms
+    SimulationResult simulateSequentially(long encounters, DiceRandomSource random) {
+        SimulationResult result = newResult();
+        int partySize = modifiers.length;
+        for (long e = 0; e < encounters; e++) {
+            int groupSuccesses = 0;
+            for (int r = 0; r < rounds; r++) {
+                int successes = 0;
+                for (int m = 0; m < partySize; m++) {
+                    int total = random.roll(DIE_SIDES) + modifiers[m][r];
+                    boolean success = total >= difficultyClass;
+                    result.recordCheck(m, total, success);
+                    successes += success ? 1 : 0;
+                }
+                result.recordRound(successes);
+                groupSuccesses += 2 * successes >= partySize ? 1 : 0;
+            }
+            result.recordEncounter(groupSuccesses);
+        }
+        return result;
+    }
+
+    // EFFECTS: returns an empty result sized for this simulation
+    SimulationResult newResult() {
+        return new SimulationResult(modifiers.length, rounds, minimumTotal, maximumTotal);
+    }
+}
@@ -0,0 +1,135 @@
+package model.simulation;
+
+// Represents the merged outcome of simulating many encounters in which every party member makes the same
+// check each round. Holds histograms of check totals, of how many members succeeded in a round, and of how
+// many rounds each encounter's party succeeded as a group (at least half the party succeeding),
+// along with timing information for throughput reporting.
+
+public final class SimulationResult {
+    private final int minimumTotal;               // The check total stored at index 0 of totalHistogram
+    private final long[] totalHistogram;          // totalHistogram[i] counts checks whose total was minimumTotal + i
+    private final long[] memberSuccesses;         // memberSuccesses[m] counts successful checks by party member m
+    private final long[] partySuccessHistogram;   // partySuccessHistogram[k] counts rounds where k members succeeded
+    private final long[] groupSuccessHistogram;   // groupSuccessHistogram[r] counts encounters with r group successes
+    private long encounters;                      // Number of encounters simulated
+    private long elapsedNanos;                    // Wall-clock time taken by the simulation
+
+    // EFFECTS: constructs an empty result for a party of the given size, rounds per encounter and total range
+    SimulationResult(int partySize, int rounds, int minimumTotal, int maximumTotal) {
+        this.minimumTotal = minimumTotal;
+        this.totalHistogram = new long[maximumTotal - minimumTotal + 1];
+        this.memberSuccesses = new long[partySize];
+        this.partySuccessHistogram = new long[partySize + 1];
+        this.groupSuccessHistogram = new long[rounds + 1];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records one check with the given total by party member m
+    void recordCheck(int member, int total, boolean success) {
+        totalHistogram[total - minimumTotal]++;
+        if (success) {
+            memberSuccesses[member]++;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a round in which successes members succeeded
+    void recordRound(int successes) {
+        partySuccessHistogram[successes]++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records an encounter in which the party succeeded as a group in groupSuccesses rounds
+    void recordEncounter(int groupSuccesses) {
+        groupSuccessHistogram[groupSuccesses]++;
+        encounters++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds every count in other to this result and returns this
+    SimulationResult merge(SimulationResult other) {
+        addInto(totalHistogram, other.totalHistogram);
+        addInto(memberSuccesses, other.memberSuccesses);
+        addInto(partySuccessHistogram, other.partySuccessHistogram);
+        addInto(groupSuccessHistogram, other.groupSuccessHistogram);
+        encounters += other.encounters;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the wall-clock time the simulation took
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Getters
+
+    public long getEncounters() {
+        return encounters;
+    }
+
+    public int getRoundsPerEncounter() {
+        return groupSuccessHistogram.length - 1;
+    }
+
+    public int getPartySize() {
+        return memberSuccesses.length;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // EFFECTS: returns the total number of checks rolled
+    public long getTotalChecks() {
+        return encounters * getRoundsPerEncounter() * getPartySize();
+    }
+
+    // EFFECTS: returns the number of checks rolled per second of wall-clock time
+    public double getRollsPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : getTotalChecks() * 1e9 / elapsedNanos;
+    }
+
+    // EFFECTS: returns the number of checks whose total was exactly total
+    public long getTotalCount(int total) {
+        int index = total - minimumTotal;
+        return index < 0 || index >= totalHistogram.length ? 0 : totalHistogram[index];
+    }
+
+    // EFFECTS: returns the fraction of party member m's checks that succeeded
+    public double getSuccessRate(int member) {
+        long checks = encounters * getRoundsPerEncounter();
+        return checks == 0 ? 0.0 : (double) memberSuccesses[member] / checks;
+    }
+
+    // EFFECTS: returns the number of rounds in which exactly successes party members succeeded
+    public long getRoundsWithSuccesses(int successes) {
+        return partySuccessHistogram[successes];
+    }
+
+    // EFFECTS: returns the number of encounters in which the party succeeded as a group in exactly rounds rounds
+    public long getEncountersWithGroupSuccesses(int rounds) {
+        return groupSuccessHistogram[rounds];
+    }
+
+    // EFFECTS: returns a short human-readable summary of this result
+    public String summarize() {
+        StringBuilder text = new StringBuilder();
+        text.append(encounters).append(" encounters, ").append(getTotalChecks()).append(" checks in ")
+                .append(elapsedNanos / 1_000_000).append(" ms (")
+                .append(Math.round(getRollsPerSecond())).append(" rolls/sec)\n");
+        for (int m = 0; m < memberSuccesses.length; m++) {
+            text.append("Member ").append(m).append(" success rate: ")
+                    .append(String.format("%.4f", getSuccessRate(m))).append("\n");
+        }
+        return text.toString();
+    }
+
+    // MODIFIES: target
+    // EFFECTS: adds each element of source to the corresponding element of target
+    private static void addInto(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package model.simulation;
+
+import model.dice.DiceRandomSource;
+
+import java.util.concurrent.RecursiveTask;
+
+// A fork/join task that simulates a range of encounters, splitting the range in half (and its random stream
+// into two independent streams) until the range is small enough to simulate directly.
+
+final class SimulationTask extends RecursiveTask<SimulationResult> {
+    private static final long serialVersionUID = 1L;
+
+    private final EncounterSimulator simulator;    // The simulation being run
+    private final long encounters;                 // Number of encounters this task is responsible for
+    private final DiceRandomSource random;         // The random stream owned by this task
+
+    // EFFECTS: constructs a task simulating encounters encounters with its own random stream
+    SimulationTask(EncounterSimulator simulator, long encounters, DiceRandomSource random) {
+        this.simulator = simulator;
+        this.encounters = encounters;
+        this.random = random;
+    }
+
+    @Override
+    protected SimulationResult compute() {
+        if (encounters <= EncounterSimulator.LEAF_ENCOUNTERS) {
+            return simulator.simulateSequentially(encounters, random);
+        }
+        long half = encounters / 2;
+        SimulationTask left = new SimulationTask(simulator, half, random.split());
+        SimulationTask right = new SimulationTask(simulator, encounters - half, random);
+        left.fork();
+        SimulationResult rightResult = right.compute();
+        return left.join().merge(rightResult);
+    }
+}
@@ -0,0 +1,289 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+import model.GameCharacter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Represents a service that saves characters in the background at most once per interval, however many times
+// they change in between. Every interval, the service compares each tracked character's modification count with
+// the count it last saved, so characters that have not changed are never rewritten.
+//
+// Saving happens in two steps. The saver first captures what to write on the capture executor, which should be
+// the thread that modifies the character (e.g. SwingUtilities::invokeLater for a character edited on the Swing
+// event thread); this step should be quick, e.g. rendering the character to a string. The write it returns then
+// runs on the service's own thread, so slow file writes and forces never block the thread that owns the
+// character. Captures of one character, whether for an autosave or for saveSoon, take turns and never capture the
+// same modification count twice, and writes run one at a time in the order they were captured, so one
+// character's saves always land in the order its states occurred and an unchanged state is never rewritten.
+
+public class AutosaveService implements Closeable {
+    private final ScheduledExecutorService executor;
+    private final Executor captureExecutor;
+    private final Map<GameCharacter, Tracked> tracked;
+    private final AtomicLong saveCount;
+    private volatile Consumer<IOException> errorHandler;
+
+    // Captures the state of a character to save, on the thread that modifies it
+    @FunctionalInterface
+    public interface CharacterSaver {
+        // EFFECTS: reads what must be saved from character and returns the write that saves it; throws
+        //          IOException if the state cannot be captured
+        SaveAction capture(GameCharacter character) throws IOException;
+    }
+
+    // Writes a captured state of a character, on the service's thread
+    @FunctionalInterface
+    public interface SaveAction {
+        // EFFECTS: writes the captured state; throws IOException if it cannot be written
+        void save() throws IOException;
+    }
+
+    // EFFECTS: constructs a service that checks its characters every intervalMillis milliseconds and captures
+    //          their state on the thread that finds them changed; only for characters that are safe to read
+    //          from the service's thread
+    public AutosaveService(long intervalMillis) {
+        this(intervalMillis, Runnable::run);
+    }
+
+    // EFFECTS: constructs a service that checks its characters every intervalMillis milliseconds and captures
+    //          the state of changed characters on captureExecutor
+    public AutosaveService(long intervalMillis, Executor captureExecutor) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Autosave interval must be positive.");
+        }
+        ScheduledThreadPoolExecutor thread = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread autosave = new Thread(runnable, "autosave");
+            autosave.setDaemon(true);
+            return autosave;
+        });
+        thread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = thread;
+        this.captureExecutor = captureExecutor;
+        this.tracked = new ConcurrentHashMap<>();
+        this.saveCount = new AtomicLong();
+        this.errorHandler = e -> EventLog.getInstance().logEvent(new Event("Autosave failed: " + e.getMessage()));
+        executor.scheduleWithFixedDelay(this::checkAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets what is done with an IOException thrown while autosaving (by default it is logged to the
+    //          EventLog); the character is tried again at the next interval
+    public void setErrorHandler(Consumer<IOException> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: autosaves character with saver, starting at the next interval even if it does not change
+    public void track(GameCharacter character, CharacterSaver saver) {
+        tracked.put(character, new Tracked(character, saver, -1));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: autosaves character with saver once it changes, treating its current state as already saved
+    //          (e.g. because it was just loaded)
+    public void trackSaved(GameCharacter character, CharacterSaver saver) {
+        tracked.put(character, new Tracked(character, saver, character.getModificationCount()));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops autosaving character; a write already captured still runs
+    public void untrack(GameCharacter character) {
+        tracked.remove(character);
+    }
+
+    // EFFECTS: returns the number of writes completed so far
+    public long getSaveCount() {
+        return saveCount.get();
+    }
+
+    // REQUIRES: called on the thread that modifies character, which is not the service's thread
+    // MODIFIES: this, the file system
+    // EFFECTS: saves character now if its current state has not been captured for saving yet, then waits for
+    //          every write captured so far, including an autosave of the same state; returns true if this call
+    //          captured a new state. Throws IllegalArgumentException if character is not tracked, or IOException
+    //          if it cannot be saved.
+    public boolean saveNow(GameCharacter character) throws IOException {
+        return waitFor(saveSoon(character), character);
+    }
+
+    // REQUIRES: called on the thread that modifies character
+    // MODIFIES: this, the file system
+    // EFFECTS: captures the current state of character for saving if it has not been captured yet and returns
+    //          without waiting for the write; the result completes once every write captured so far has
+    //          finished, with true if this call captured a new state, or exceptionally with the IOException or
+    //          RuntimeException the write threw. Throws IllegalArgumentException if character is not tracked, or
+    //          IOException if its state cannot be captured.
+    public CompletableFuture<Boolean> saveSoon(GameCharacter character) throws IOException {
+        Tracked entry = tracked.get(character);
+        if (entry == null) {
+            throw new IllegalArgumentException("Character is not autosaved.");
+        }
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        synchronized (entry) {
+            long count = character.getModificationCount();
+            boolean captured = count != entry.capturedCount;
+            SaveAction action = captured ? entry.saver.capture(character) : null;
+            entry.capturedCount = count;
+            executor.execute(() -> {
+                try {
+                    if (captured) {
+                        writeOrThrow(entry, action, count);
+                    }
+                    done.complete(captured);
+                } catch (IOException | RuntimeException e) {
+                    done.completeExceptionally(e);
+                }
+            });
+        }
+        return done;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops autosaving and waits for the writes already captured to finish
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for the last writes
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // EFFECTS: waits for the write of character to finish and returns its result; throws IOException if it
+    //          failed or was interrupted
+    private static <T> T waitFor(Future<T> write, GameCharacter character) throws IOException {
+        try {
+            return write.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Unable to save " + character.getName(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while saving " + character.getName(), e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: asks for each changed character to be captured, unless a capture of it is already under way
+    private void checkAll() {
+        for (Tracked entry : tracked.values()) {
+            long count = entry.character.getModificationCount();
+            if (count != entry.capturedCount && entry.busy.compareAndSet(false, true)) {
+                try {
+                    captureExecutor.execute(() -> capture(entry));
+                } catch (RejectedExecutionException e) {
+                    entry.busy.set(false);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: captures the state of a changed character and queues its write; runs on the capture executor
+    private void capture(Tracked entry) {
+        boolean queued = false;
+        try {
+            synchronized (entry) {
+                long count = entry.character.getModificationCount();
+                if (count != entry.capturedCount && tracked.get(entry.character) == entry) {
+                    SaveAction action = entry.saver.capture(entry.character);
+                    executor.execute(() -> write(entry, action, count));
+                    entry.capturedCount = count;
+                    queued = true;
+                }
+            }
+        } catch (IOException e) {
+            errorHandler.accept(e);
+        } catch (RejectedExecutionException e) {
+            // the service was closed after the capture was asked for
+        } finally {
+            if (!queued) {
+                entry.busy.set(false);
+            }
+        }
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: performs a captured autosave of the character's state at the given modification count
+    private void write(Tracked entry, SaveAction action, long count) {
+        try {
+            writeOrThrow(entry, action, count);
+        } catch (IOException e) {
+            errorHandler.accept(e);
+        } finally {
+            entry.busy.set(false);
+        }
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: performs a captured write of the character's state at the given modification count, unless that
+    //          state has already been written; if the write fails, the state is captured again later
+    private Void writeOrThrow(Tracked entry, SaveAction action, long count) throws IOException {
+        if (count == entry.savedCount) {
+            return null;
+        }
+        try {
+            action.save();
+        } catch (IOException | RuntimeException e) {
+            entry.failed(count);
+            throw e;
+        }
+        entry.saved(count);
+        return null;
+    }
+
+    // A tracked character: its saver, the modification counts last captured and last saved, and whether an
+    // autosave is under way. Captures synchronize on the entry.
+    private final class Tracked {
+        private final GameCharacter character;
+        private final CharacterSaver saver;
+        private final AtomicBoolean busy;
+        private volatile long capturedCount;    // Count of the latest state captured for writing; set holding this
+        private volatile long savedCount;
+
+        Tracked(GameCharacter character, CharacterSaver saver, long savedCount) {
+            this.character = character;
+            this.saver = saver;
+            this.busy = new AtomicBoolean();
+            this.capturedCount = savedCount;
+            this.savedCount = savedCount;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: records that writing the character's state at count failed, so that, unless a later state has
+        //          been captured since, the next check captures it again
+        synchronized void failed(long count) {
+            if (capturedCount == count) {
+                capturedCount = savedCount;
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: records that the character's state at count has been written
+        void saved(long count) {
+            savedCount = count;
+            saveCount.incrementAndGet();
+        }
+    }
+}
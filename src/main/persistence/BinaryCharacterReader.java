@@ -0,0 +1,230 @@
+package persistence;
+
+import model.*;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+
+// Represents a reader that reads a GameCharacter from a binary snapshot written by BinaryCharacterWriter.
+// Enum constants are looked up by ordinal in cached arrays rather than by name. Snapshots of any version up to
+// BinaryCharacterWriter.VERSION are accepted; each older version is read by its own method and migrated to
+// the current model, and a snapshot from a newer version is rejected rather than misread. In lazy mode the
+// roll section is checked and copied but not decoded until the character's getRollHistory() is first called.
+
+public class BinaryCharacterReader {
+    private static final AbilityType[] ABILITY_TYPES = AbilityType.values();
+    private static final SkillType[] SKILL_TYPES = SkillType.values();
+
+    private final String source;
+    private boolean lazyRollHistory;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryCharacterReader(String source) {
+        this.source = source;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets whether characters are read with their rolls left undecoded until they are first used
+    public void setLazyRollHistory(boolean lazyRollHistory) {
+        this.lazyRollHistory = lazyRollHistory;
+    }
+
+    // EFFECTS: reads the snapshot in the source file and returns the GameCharacter it holds; throws IOException
+    //          if the file cannot be read or is not a valid snapshot
+    public GameCharacter read() throws IOException {
+        return decode(ByteBuffer.wrap(Files.readAllBytes(Paths.get(source))), lazyRollHistory);
+    }
+
+    // MODIFIES: snapshot
+    // EFFECTS: returns the GameCharacter held in the snapshot starting at the buffer's position, leaving the
+    //          position after it; throws IOException if it is not a valid snapshot
+    public static GameCharacter decode(ByteBuffer snapshot) throws IOException {
+        return decode(snapshot, false);
+    }
+
+    // MODIFIES: snapshot
+    // EFFECTS: returns the GameCharacter held in the snapshot starting at the buffer's position, leaving the
+    //          position after it and its rolls undecoded until they are first used if lazyRollHistory; throws
+    //          IOException if it is not a valid snapshot
+    public static GameCharacter decode(ByteBuffer snapshot, boolean lazyRollHistory) throws IOException {
+        try {
+            if (snapshot.remaining() < 5 || snapshot.getInt() != BinaryCharacterWriter.MAGIC) {
+                throw new IOException("Not a character snapshot");
+            }
+            int version = snapshot.get();
+            switch (version) {
+                case 1:
+                    return readVersion1(snapshot, lazyRollHistory);
+                default:
+                    throw new IOException("Unsupported character snapshot version " + version
+                            + "; this program reads versions up to " + BinaryCharacterWriter.VERSION);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated character snapshot", e);
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the body of a version 1 snapshot
+    private static GameCharacter readVersion1(ByteBuffer in, boolean lazyRollHistory) throws IOException {
+        String name = readString(in);
+        int level = (int) Varint.get(in);
+        RollHistory rollHistory = new RollHistory();
+        RollSection rollSection = new RollSection();
+        GameCharacter character = lazyRollHistory ? new GameCharacter(name, level, rollSection)
+                : new GameCharacter(name, level, rollHistory);
+        int abilityCount = count(in);
+        for (int i = 0; i < abilityCount; i++) {
+            AbilityType type = ability(in.get());
+            character.updateAbilityScore(type, readSignedInt(in));
+        }
+        readSkills(in, character);
+        readBuffsDebuffs(in, character);
+        if (lazyRollHistory) {
+            rollSection.bytes = copyRolls(in);
+        } else {
+            readRolls(in, rollHistory);
+        }
+        return character;
+    }
+
+    // MODIFIES: in, character
+    // EFFECTS: reads the skills and adds them to character
+    private static void readSkills(ByteBuffer in, GameCharacter character) throws IOException {
+        int skillCount = count(in);
+        for (int i = 0; i < skillCount; i++) {
+            SkillType type = skill(in.get());
+            AbilityScore associatedAbility = character.getAbilityScoreByType(ability(in.get()));
+            boolean proficient = (in.get() & BinaryCharacterWriter.PROFICIENT_FLAG) != 0;
+            character.addSkill(new Skill(type, associatedAbility, proficient));
+        }
+    }
+
+    // MODIFIES: in, character
+    // EFFECTS: reads the active buffs/debuffs and adds them to character
+    private static void readBuffsDebuffs(ByteBuffer in, GameCharacter character) throws IOException {
+        int buffDebuffCount = count(in);
+        for (int i = 0; i < buffDebuffCount; i++) {
+            String name = readString(in);
+            AbilityType effectAbility = ability(in.get());
+            int magnitude = readSignedInt(in);
+            character.addBuffDebuff(new BuffDebuff(name, effectAbility, magnitude, readSignedInt(in)));
+        }
+    }
+
+    // MODIFIES: in, rollHistory
+    // EFFECTS: reads the roll type table and rolls into rollHistory
+    private static void readRolls(ByteBuffer in, RollHistory rollHistory) throws IOException {
+        RollType[] types = new RollType[count(in)];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = RollType.named(readString(in));
+        }
+        int rollCount = count(in);
+        for (int i = 0; i < rollCount; i++) {
+            int typeIndex = (int) Varint.get(in);
+            if (typeIndex >= types.length) {
+                throw new IOException("Undefined roll type " + typeIndex + " in character snapshot");
+            }
+            int baseResult = readSignedInt(in);
+            rollHistory.addRoll(new Roll(types[typeIndex], baseResult, readSignedInt(in)));
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: checks the roll type table and rolls without decoding them, and returns a copy of their bytes
+    private static byte[] copyRolls(ByteBuffer in) throws IOException {
+        int start = in.position();
+        int typeCount = count(in);
+        for (int i = 0; i < typeCount; i++) {
+            int length = count(in);
+            in.position(in.position() + length);
+        }
+        int rollCount = count(in);
+        for (int i = 0; i < rollCount; i++) {
+            if (Varint.get(in) >= typeCount) {
+                throw new IOException("Undefined roll type in character snapshot");
+            }
+            Varint.get(in);
+            Varint.get(in);
+        }
+        byte[] bytes = new byte[in.position() - start];
+        in.duplicate().position(start).get(bytes);
+        return bytes;
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a count, rejecting one larger than the bytes left could hold
+    private static int count(ByteBuffer in) throws IOException {
+        long count = Varint.get(in);
+        if (count > in.remaining()) {
+            throw new IOException("Invalid count " + count + " in character snapshot");
+        }
+        return (int) count;
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a zigzag-encoded int
+    private static int readSignedInt(ByteBuffer in) throws IOException {
+        return (int) Varint.unZigZag(Varint.get(in));
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads a length-prefixed UTF-8 string, straight from the backing array when there is one
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = count(in);
+        if (in.hasArray()) {
+            String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: returns the AbilityType with the given ordinal
+    private static AbilityType ability(byte ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= ABILITY_TYPES.length) {
+            throw new IOException("Invalid ability ordinal " + ordinal + " in character snapshot");
+        }
+        return ABILITY_TYPES[ordinal];
+    }
+
+    // EFFECTS: returns the SkillType with the given ordinal
+    private static SkillType skill(byte ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= SKILL_TYPES.length) {
+            throw new IOException("Invalid skill ordinal " + ordinal + " in character snapshot");
+        }
+        return SKILL_TYPES[ordinal];
+    }
+
+    // The roll section of a snapshot read in lazy mode, decoded into a roll history when it is first needed, or
+    // copied into a new snapshot as it is if it never was. Its bytes were checked by copyRolls when they were
+    // read, so decoding them does not fail.
+    static final class RollSection implements Supplier<RollHistory> {
+        private byte[] bytes;
+
+        // EFFECTS: returns the encoded roll type table and rolls
+        byte[] getBytes() {
+            return bytes;
+        }
+
+        // EFFECTS: returns the roll history the section holds; throws IllegalStateException if it does not hold
+        //          one after all
+        @Override
+        public RollHistory get() {
+            RollHistory rollHistory = new RollHistory();
+            try {
+                readRolls(ByteBuffer.wrap(bytes), rollHistory);
+            } catch (IOException | BufferUnderflowException e) {
+                throw new IllegalStateException("Unable to read roll history: " + e.getMessage(), e);
+            }
+            return rollHistory;
+        }
+    }
+}
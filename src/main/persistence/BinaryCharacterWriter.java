@@ -0,0 +1,162 @@
+package persistence;
+
+import model.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Represents a writer that writes a GameCharacter to file as a compact, versioned binary snapshot.
+//
+// A snapshot starts with MAGIC and a one-byte schema VERSION, followed by, in order:
+//   name                       length-prefixed UTF-8
+//   level                      varint
+//   ability scores             varint count, then per score: AbilityType ordinal byte, score (zigzag varint)
+//   skills                     varint count, then per skill: SkillType ordinal byte, associated AbilityType
+//                              ordinal byte, flags byte (bit 0: proficient)
+//   active buffs/debuffs       varint count, then per buff/debuff: name, AbilityType ordinal byte, magnitude
+//                              and duration (zigzag varints)
+//   roll types                 varint count, then each distinct roll type as a length-prefixed UTF-8 string
+//   rolls                      varint count, then per roll: roll type index (varint), base result and
+//                              modifier (zigzag varints)
+// Lengths and counts are varints. Enum constants are stored by ordinal, so changing the order of AbilityType
+// or SkillType (or adding fields) requires a new VERSION, with BinaryCharacterReader migrating older versions.
+
+public class BinaryCharacterWriter {
+    public static final int MAGIC = 0x444E4443;         // "DNDC"
+    public static final byte VERSION = 1;
+    static final int PROFICIENT_FLAG = 1;
+
+    private final String destination;
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryCharacterWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // MODIFIES: the file system
+    // EFFECTS: writes the snapshot of character to the destination file, replacing its contents only once the
+    //          whole snapshot has been written and forced to disk; throws IOException and leaves the destination
+    //          untouched if the file cannot be written
+    public void write(GameCharacter character) throws IOException {
+        SaveBatch batch = new SaveBatch();
+        try {
+            batch.write(destination, encode(character));
+            batch.commit();
+        } finally {
+            batch.abort();
+        }
+    }
+
+    // EFFECTS: returns the snapshot of character, from position 0 to the limit of the returned buffer; rolls read
+    //          lazily from a snapshot and never used are copied over as they were, without being decoded
+    public static ByteBuffer encode(GameCharacter character) {
+        Output out = new Output();
+        out.buffer.putInt(MAGIC).put(VERSION);
+        out.putString(character.getName());
+        out.putVarint(character.getLevel());
+        out.putVarint(character.getAbilityScores().size());
+        for (AbilityScore score : character.getAbilityScores()) {
+            out.putByte(score.getType().ordinal());
+            out.putVarint(Varint.zigZag(score.getScore()));
+        }
+        out.putVarint(character.getSkills().size());
+        for (Skill skill : character.getSkills()) {
+            out.putByte(skill.getType().ordinal());
+            out.putByte(skill.getAssociatedAbility().getType().ordinal());
+            out.putByte(skill.getIsProficient() ? PROFICIENT_FLAG : 0);
+        }
+        encodeBuffsDebuffs(out, character.getActiveBuffsDebuffs());
+        encodeRolls(out, character);
+        out.buffer.flip();
+        return out.buffer;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the active buffs/debuffs
+    private static void encodeBuffsDebuffs(Output out, List<BuffDebuff> buffsDebuffs) {
+        out.putVarint(buffsDebuffs.size());
+        for (BuffDebuff buffDebuff : buffsDebuffs) {
+            out.putString(buffDebuff.getName());
+            out.putByte(buffDebuff.getEffectAbility().ordinal());
+            out.putVarint(Varint.zigZag(buffDebuff.getEffectMagnitude()));
+            out.putVarint(Varint.zigZag(buffDebuff.getDuration()));
+        }
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the roll type table and rolls of character, copying the roll section it was read from if
+    //          its rolls have not been loaded since
+    private static void encodeRolls(Output out, GameCharacter character) {
+        Supplier<RollHistory> loader = character.getRollHistoryLoader();
+        if (loader instanceof BinaryCharacterReader.RollSection) {
+            out.putBytes(((BinaryCharacterReader.RollSection) loader).getBytes());
+        } else {
+            encodeRolls(out, character.getRollHistory());
+        }
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the roll type table and the rolls of history
+    private static void encodeRolls(Output out, RollHistory history) {
+        List<Roll> rolls = history.getRollList();
+        RollTypeTable rollTypes = RollTypeTable.of(history);
+        out.putVarint(rollTypes.size());
+        for (RollType type : rollTypes.getTypes()) {
+            out.putString(type.getName());
+        }
+        out.putVarint(rolls.size());
+        for (Roll roll : rolls) {
+            out.putVarint(rollTypes.indexOf(roll.getRollType()));
+            out.putVarint(Varint.zigZag(roll.getBaseResult()));
+            out.putVarint(Varint.zigZag(roll.getAppliedModifier()));
+        }
+    }
+
+    // A growable buffer that snapshots are encoded into
+    private static final class Output {
+        private ByteBuffer buffer = ByteBuffer.allocate(512);
+
+        // MODIFIES: this
+        // EFFECTS: appends the low byte of value
+        void putByte(int value) {
+            ensure(1);
+            buffer.put((byte) value);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: appends value as an unsigned varint
+        void putVarint(long value) {
+            ensure(Varint.MAX_BYTES);
+            Varint.put(buffer, value);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: appends value as a varint byte length followed by its UTF-8 bytes
+        void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: appends bytes as they are
+        void putBytes(byte[] bytes) {
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: grows the buffer so that at least bytes more bytes fit
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                buffer = larger.put(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package persistence;
+
+import model.GameCharacter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Represents a store of many characters in a single file, each kept as a binary snapshot (see
+// BinaryCharacterWriter) and found by name through an index, so one character, or a few, can be loaded without
+// reading the others.
+//
+// The file starts with a fixed header giving the position and length of the current index region. The index
+// holds the number of entries, a table of fixed-width offsets to the entries sorted by name, and the entries
+// themselves (UTF-8 name, snapshot position and length). It is read into memory and searched in place by binary
+// search over the offset table. Saving appends the new snapshots and a new index to the end of the file, forces
+// them to disk and only then points the header at the new index, so a crash during a save leaves the previous
+// state readable. Replaced snapshots and old indexes stay in the file as garbage until compact() rewrites it.
+
+public class CampaignStore implements Closeable {
+    public static final int MAGIC = 0x444E4453;         // "DNDS"
+    public static final byte VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    private static final int INDEX_POSITION_OFFSET = 8;
+    private static final int ENTRY_FIXED_BYTES = 2 + 8 + 4;
+
+    private final Path file;
+    private FileChannel channel;
+    private ByteBuffer index;           // the current index region
+    private int count;                  // number of entries in the index
+    private long liveBytes;             // bytes of snapshots the index refers to
+    private volatile boolean lazyRollHistory;
+
+    // MODIFIES: the file system
+    // EFFECTS: opens the store in file, creating an empty store if the file does not exist; throws IOException
+    //          if it cannot be opened or is not a campaign store
+    public CampaignStore(Path file) throws IOException {
+        this.file = file;
+        openChannel();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets whether characters are loaded with their rolls left undecoded until they are first used
+    public void setLazyRollHistory(boolean lazyRollHistory) {
+        this.lazyRollHistory = lazyRollHistory;
+    }
+
+    // EFFECTS: returns the number of characters in the store
+    public synchronized int size() {
+        return count;
+    }
+
+    // EFFECTS: returns true if the store has a character with the given name
+    public synchronized boolean contains(String name) {
+        return find(name.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    // EFFECTS: returns the names of the characters in the store, in order of their UTF-8 bytes
+    public synchronized List<String> getNames() {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(new String(nameBytes(i), StandardCharsets.UTF_8));
+        }
+        return names;
+    }
+
+    // EFFECTS: returns the size of the store file in bytes
+    public synchronized long getFileSize() throws IOException {
+        return channel.size();
+    }
+
+    // EFFECTS: returns the bytes of the file taken up by the header, current snapshots and index; the rest is
+    //          garbage that compact() would reclaim
+    public synchronized long getLiveBytes() {
+        return HEADER_BYTES + liveBytes + index.capacity();
+    }
+
+    // EFFECTS: returns the character with the given name, reading only its snapshot, or null if the store has
+    //          no such character; throws IOException if it cannot be read
+    public synchronized GameCharacter load(String name) throws IOException {
+        int entry = find(name.getBytes(StandardCharsets.UTF_8));
+        if (entry < 0) {
+            return null;
+        }
+        int position = entryPosition(entry);
+        int nameLength = Short.toUnsignedInt(index.getShort(position));
+        long offset = index.getLong(position + 2 + nameLength);
+        int length = index.getInt(position + 2 + nameLength + 8);
+        ByteBuffer snapshot = ByteBuffer.allocate(length);
+        while (snapshot.hasRemaining()) {
+            if (channel.read(snapshot, offset + snapshot.position()) < 0) {
+                throw new IOException("Campaign store is truncated");
+            }
+        }
+        snapshot.flip();
+        return BinaryCharacterReader.decode(snapshot, lazyRollHistory);
+    }
+
+    // EFFECTS: returns the characters with the given names that are in the store, keyed by name in the order
+    //          the names were given; names not in the store are left out
+    public synchronized Map<String, GameCharacter> loadAll(Collection<String> names) throws IOException {
+        Map<String, GameCharacter> characters = new LinkedHashMap<>();
+        for (String name : names) {
+            GameCharacter character = load(name);
+            if (character != null) {
+                characters.put(name, character);
+            }
+        }
+        return characters;
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: saves character under its name, replacing any character with the same name
+    public synchronized void save(GameCharacter character) throws IOException {
+        saveAll(Collections.singletonList(character));
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: saves all the characters with one index update and two forces to disk, replacing characters with
+    //          the same names; if two have the same name, the later one is kept
+    public synchronized void saveAll(Collection<GameCharacter> characters) throws IOException {
+        TreeMap<byte[], long[]> entries = readEntries();
+        long position = channel.size();
+        for (GameCharacter character : characters) {
+            ByteBuffer snapshot = BinaryCharacterWriter.encode(character);
+            long[] location = {position, snapshot.remaining()};
+            writeFully(snapshot, position);
+            position += location[1];
+            entries.put(checkedName(character.getName()), location);
+        }
+        commit(entries, position);
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: removes the character with the given name; returns false if there was none
+    public synchronized boolean remove(String name) throws IOException {
+        TreeMap<byte[], long[]> entries = readEntries();
+        if (entries.remove(name.getBytes(StandardCharsets.UTF_8)) == null) {
+            return false;
+        }
+        commit(entries, channel.size());
+        return true;
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: rewrites the store without garbage through a SaveBatch, so the file is only replaced once the new
+    //          one is complete and the replacement is durable once this returns
+    public synchronized void compact() throws IOException {
+        TreeMap<byte[], long[]> entries = readEntries();
+        SaveBatch batch = new SaveBatch();
+        try {
+            FileChannel out = batch.openChannel(file.toString());
+            long position = HEADER_BYTES;
+            for (long[] location : entries.values()) {
+                channel.transferTo(location[0], location[1], out.position(position));
+                location[0] = position;
+                position += location[1];
+            }
+            writeIndexAndHeader(out, entries, position);
+            close();
+            try {
+                batch.commit();
+            } finally {
+                openChannel();
+            }
+        } finally {
+            batch.abort();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the store file
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            index = null;
+        }
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: opens the file, writing an empty store if it is new, and reads its current index
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            writeIndexAndHeader(channel, new TreeMap<>(Arrays::compareUnsigned), HEADER_BYTES);
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // keep reading until the header is full
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.get() != VERSION) {
+            close();
+            throw new IOException("Not a campaign store: " + file);
+        }
+        readIndex(header.getLong(INDEX_POSITION_OFFSET), header.getLong(INDEX_POSITION_OFFSET + 8));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the index region at the given position into memory, with its entry count and live byte
+    //          total; throws IOException if it is not within the file
+    private void readIndex(long position, long length) throws IOException {
+        if (position < HEADER_BYTES || length < 4 || position + length > channel.size()
+                || length > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt campaign store index: " + file);
+        }
+        ByteBuffer region = ByteBuffer.allocate((int) length);
+        while (region.hasRemaining()) {
+            if (channel.read(region, position + region.position()) < 0) {
+                throw new IOException("Campaign store is truncated");
+            }
+        }
+        index = region;
+        count = index.getInt(0);
+        liveBytes = 0;
+        for (int i = 0; i < count; i++) {
+            int entry = entryPosition(i);
+            liveBytes += index.getInt(entry + 2 + Short.toUnsignedInt(index.getShort(entry)) + 8);
+        }
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: forces the snapshots written so far, then writes the index for entries at position and points
+    //          the header at it
+    private void commit(TreeMap<byte[], long[]> entries, long position) throws IOException {
+        channel.force(false);
+        long[] region = writeIndexAndHeader(channel, entries, position);
+        readIndex(region[0], region[1]);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the index for entries at position, forces it, then writes and forces the header pointing
+    //          at it; returns the index position and length
+    private static long[] writeIndexAndHeader(FileChannel out, TreeMap<byte[], long[]> entries, long position)
+            throws IOException {
+        ByteBuffer region = encodeIndex(entries);
+        long length = region.remaining();
+        writeFully(out, region, position);
+        out.force(false);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).put(VERSION);
+        header.putLong(INDEX_POSITION_OFFSET, position).putLong(INDEX_POSITION_OFFSET + 8, length);
+        header.clear();
+        writeFully(out, header, 0);
+        out.force(false);
+        return new long[] {position, length};
+    }
+
+    // EFFECTS: returns the index region for entries: count, offset table, then the entries in name order
+    private static ByteBuffer encodeIndex(TreeMap<byte[], long[]> entries) {
+        int tableBytes = 4 + 4 * entries.size();
+        int size = tableBytes;
+        for (byte[] name : entries.keySet()) {
+            size += ENTRY_FIXED_BYTES + name.length;
+        }
+        ByteBuffer region = ByteBuffer.allocate(size);
+        region.putInt(entries.size());
+        int entryPosition = tableBytes;
+        for (Map.Entry<byte[], long[]> entry : entries.entrySet()) {
+            region.putInt(entryPosition);
+            entryPosition += ENTRY_FIXED_BYTES + entry.getKey().length;
+        }
+        for (Map.Entry<byte[], long[]> entry : entries.entrySet()) {
+            region.putShort((short) entry.getKey().length).put(entry.getKey());
+            region.putLong(entry.getValue()[0]).putInt((int) entry.getValue()[1]);
+        }
+        region.flip();
+        return region;
+    }
+
+    // EFFECTS: returns the current index as a sorted map from UTF-8 name to {position, length}
+    private TreeMap<byte[], long[]> readEntries() {
+        TreeMap<byte[], long[]> entries = new TreeMap<>(Arrays::compareUnsigned);
+        for (int i = 0; i < count; i++) {
+            byte[] name = nameBytes(i);
+            int position = entryPosition(i) + 2 + name.length;
+            entries.put(name, new long[] {index.getLong(position), index.getInt(position + 8)});
+        }
+        return entries;
+    }
+
+    // EFFECTS: returns the number of the entry whose name has the given UTF-8 bytes, or -1 if there is none
+    private int find(byte[] name) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareName(middle, name);
+            if (comparison == 0) {
+                return middle;
+            } else if (comparison < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: compares the name of the given entry with name, byte by byte as unsigned values, in place
+    private int compareName(int entry, byte[] name) {
+        int position = entryPosition(entry);
+        int length = Short.toUnsignedInt(index.getShort(position));
+        for (int i = 0; i < Math.min(length, name.length); i++) {
+            int difference = Byte.toUnsignedInt(index.get(position + 2 + i)) - Byte.toUnsignedInt(name[i]);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - name.length;
+    }
+
+    // EFFECTS: returns the UTF-8 bytes of the name of the given entry
+    private byte[] nameBytes(int entry) {
+        int position = entryPosition(entry);
+        byte[] name = new byte[Short.toUnsignedInt(index.getShort(position))];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = index.get(position + 2 + i);
+        }
+        return name;
+    }
+
+    // EFFECTS: returns the position in the index region of the given entry
+    private int entryPosition(int entry) {
+        return index.getInt(4 + 4 * entry);
+    }
+
+    // EFFECTS: returns the UTF-8 bytes of name; throws IllegalArgumentException if it is too long to index
+    private static byte[] checkedName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Character name is too long to store.");
+        }
+        return bytes;
+    }
+
+    // MODIFIES: the file system
+    // EFFECTS: writes all of buffer to the store file at position
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        writeFully(channel, buffer, position);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes all of buffer to out at position
+    private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += out.write(buffer, position);
+        }
+    }
+}
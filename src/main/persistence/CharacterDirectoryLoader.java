@@ -0,0 +1,154 @@
+package persistence;
+
+import model.GameCharacter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Represents a loader that reads every character JSON file under a data directory, including its
+// subdirectories, in parallel on a bounded pool of threads. Each file is read in one call and parsed with
+// StreamingJsonReader, and its roll history log (see RollHistoryLog) is replayed if it has one, just as
+// ModifierManagerApp loads a single character. A file that cannot be read or parsed does not stop the others:
+// its error is reported in the result alongside the characters that loaded.
+
+public class CharacterDirectoryLoader {
+    private static final String EXTENSION = ".json";
+
+    private final Path directory;
+    private final int threads;
+    private volatile ProgressListener progressListener;
+
+    // Receives progress while a directory is loaded
+    @FunctionalInterface
+    public interface ProgressListener {
+        // EFFECTS: reacts to file having been loaded, or having failed to load; completed of total files are
+        //          now done. Called on the loading threads, possibly at the same time for different files.
+        void fileDone(Path file, int completed, int total);
+    }
+
+    // EFFECTS: constructs a loader for directory that uses one thread per available processor
+    public CharacterDirectoryLoader(Path directory) {
+        this(directory, Runtime.getRuntime().availableProcessors());
+    }
+
+    // EFFECTS: constructs a loader for directory that uses at most threads threads; throws
+    //          IllegalArgumentException if threads is not positive
+    public CharacterDirectoryLoader(Path directory, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Loader needs at least one thread.");
+        }
+        this.directory = directory;
+        this.threads = threads;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the listener told about each file as it is done, or null for none
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    // EFFECTS: returns the character JSON files under the directory, in path order; throws IOException if the
+    //          directory cannot be listed
+    public List<Path> findFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // EFFECTS: loads every character file under the directory and returns the characters that loaded and the
+    //          errors of those that did not; throws IOException if the directory cannot be listed, or
+    //          InterruptedIOException if the calling thread is interrupted while waiting
+    public Result load() throws IOException {
+        List<Path> files = findFiles();
+        Map<Path, GameCharacter> characters = new ConcurrentHashMap<>();
+        Map<Path, Exception> failures = new ConcurrentHashMap<>();
+        AtomicInteger completed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, files.size())),
+                runnable -> {
+                    Thread loader = new Thread(runnable, "character-loader");
+                    loader.setDaemon(true);
+                    return loader;
+                });
+        for (Path file : files) {
+            pool.execute(() -> {
+                try {
+                    characters.put(file, loadFile(file));
+                } catch (IOException | RuntimeException e) {
+                    failures.put(file, e);
+                }
+                reportProgress(file, completed.incrementAndGet(), files.size());
+            });
+        }
+        awaitAll(pool);
+        return new Result(characters, failures);
+    }
+
+    // EFFECTS: reads the character in file and replays its roll history log, if any
+    public static GameCharacter loadFile(Path file) throws IOException {
+        GameCharacter character = StreamingJsonReader.parse(ByteBuffer.wrap(Files.readAllBytes(file)));
+        new RollHistoryLog(file.toString()).replay(character.getRollHistory());
+        return character;
+    }
+
+    // EFFECTS: tells the progress listener, if any, that file is done
+    private void reportProgress(Path file, int completed, int total) {
+        ProgressListener listener = progressListener;
+        if (listener != null) {
+            listener.fileDone(file, completed, total);
+        }
+    }
+
+    // MODIFIES: pool
+    // EFFECTS: shuts pool down and waits for its tasks to finish; if interrupted, stops the remaining tasks and
+    //          throws InterruptedIOException
+    private static void awaitAll(ExecutorService pool) throws InterruptedIOException {
+        pool.shutdown();
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for the last files
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading characters");
+        }
+    }
+
+    // The outcome of loading a directory: the characters that loaded and the errors of the files that did not,
+    // each keyed by file in path order
+    public static final class Result {
+        private final SortedMap<Path, GameCharacter> characters;
+        private final SortedMap<Path, Exception> failures;
+
+        private Result(Map<Path, GameCharacter> characters, Map<Path, Exception> failures) {
+            this.characters = Collections.unmodifiableSortedMap(new TreeMap<>(characters));
+            this.failures = Collections.unmodifiableSortedMap(new TreeMap<>(failures));
+        }
+
+        public SortedMap<Path, GameCharacter> getCharacters() {
+            return characters;
+        }
+
+        public SortedMap<Path, Exception> getFailures() {
+            return failures;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package persistence;
+
+import model.Event;
+import model.EventSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents an append-only binary journal of logged events, split into numbered segment files in a directory.
+// Added to the EventLog as a sink, it receives every event as it is drained, so a crash loses at most the
+// events that had not yet been drained instead of the whole session.
+//
+// Each segment starts with a header (MAGIC, VERSION) followed by length-prefixed records. Strings (template
+// names and arguments) are interned per segment: the first use of a string writes a STRING record giving it an
+// id, and EVENT records refer to it by that id. Timestamps are written as the difference from the previous
+// event in the segment. Lengths, ids and numbers are varints, so a typical event takes a handful of bytes.
+// Segments never refer to each other, so old ones can be deleted, and a segment is rotated once it reaches
+// the maximum size. Records are encoded into a direct buffer that is written through a FileChannel at the
+// end of each batch, or sooner when the buffer fills.
+
+public class EventJournal implements EventSink, Closeable {
+    public static final int MAGIC = 0x444E444A;                 // "DNDJ"
+    public static final byte VERSION = 1;
+    public static final int HEADER_BYTES = 5;
+    public static final String SEGMENT_PREFIX = "events-";
+    public static final String SEGMENT_SUFFIX = ".journal";
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 4L << 20;
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    static final byte STRING_RECORD = 1;
+    static final byte EVENT_RECORD = 2;
+    static final int NULL_ARGUMENT = 0;         // argument tags; a string argument is written as id + 1
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int maxSegments;
+    private final ByteBuffer output;            // direct buffer of encoded records not yet written
+    private final Map<String, Integer> strings; // ids of the strings interned in the current segment
+    private ByteBuffer record;                  // scratch buffer for the record being encoded
+    private FileChannel channel;
+    private int segmentNumber;
+    private long segmentBytes;                  // bytes in the current segment, including output
+    private long lastTimestamp;
+
+    // EFFECTS: opens a journal in directory with the default segment size and count; see the full constructor
+    public EventJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS);
+    }
+
+    // REQUIRES: maxSegmentBytes > HEADER_BYTES, maxSegments >= 1
+    // MODIFIES: the file system
+    // EFFECTS: creates directory if needed and starts a new segment after any existing ones; once there are
+    //          more than maxSegments segments the oldest are deleted. Throws IOException if the segment cannot
+    //          be created.
+    public EventJournal(Path directory, long maxSegmentBytes, int maxSegments) throws IOException {
+        if (maxSegmentBytes <= HEADER_BYTES || maxSegments < 1) {
+            throw new IllegalArgumentException("Invalid journal segment limits.");
+        }
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.maxSegments = maxSegments;
+        this.output = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        this.strings = new HashMap<>();
+        this.record = ByteBuffer.allocate(256);
+        Files.createDirectories(directory);
+        List<Path> existing = EventJournalReader.segments(directory);
+        segmentNumber = existing.isEmpty() ? 0 : EventJournalReader.segmentNumber(existing.get(existing.size() - 1));
+        openNextSegment();
+    }
+
+    // EFFECTS: returns the file name of the segment with the given number
+    static String segmentName(int number) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+    // EFFECTS: returns the number of the segment currently being written
+    public int getSegmentNumber() {
+        return segmentNumber;
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: appends the events to the journal; throws UncheckedIOException if they cannot be written and
+    //          IllegalStateException if the journal has been closed
+    @Override
+    public synchronized void eventsLogged(List<Event> events) {
+        if (channel == null) {
+            throw new IllegalStateException("Event journal is closed.");
+        }
+        try {
+            for (Event event : events) {
+                append(event);
+            }
+            writeOutput();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: writes any buffered records and forces them to the storage device
+    @Override
+    public synchronized void flush() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            writeOutput();
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: writes any buffered records and closes the current segment
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            writeOutput();
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes event, preceded by STRING records for any strings this segment has not seen yet
+    private void append(Event event) throws IOException {
+        Object[] arguments = {event.getArgument(0), event.getArgument(1), event.getArgument(2)};
+        String template = event.getTemplate().name();
+        if (segmentBytes + output.position() >= maxSegmentBytes) {
+            rotate();
+        }
+        int templateId = intern(template);
+        int[] argumentTags = new int[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            argumentTags[i] = arguments[i] == null ? NULL_ARGUMENT : intern(arguments[i].toString()) + 1;
+        }
+        record.clear();
+        putByte(EVENT_RECORD);
+        putVarLong(Varint.zigZag(event.getTimestamp() - lastTimestamp));
+        putVarLong(templateId);
+        for (int tag : argumentTags) {
+            putVarLong(tag);
+        }
+        putVarLong(Varint.zigZag(event.getNumber(0)));
+        putVarLong(Varint.zigZag(event.getNumber(1)));
+        writeRecord();
+        lastTimestamp = event.getTimestamp();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the id of value in this segment, writing a STRING record for it if it is new
+    private int intern(String value) throws IOException {
+        Integer id = strings.get(value);
+        if (id == null) {
+            id = strings.size();
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            record.clear();
+            putByte(STRING_RECORD);
+            putVarLong(id);
+            putVarLong(bytes.length);
+            ensureRecordSpace(bytes.length);
+            record.put(bytes);
+            writeRecord();
+            strings.put(value, id);
+        }
+        return id;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the encoded record, preceded by its length, into the output buffer
+    private void writeRecord() throws IOException {
+        record.flip();
+        int length = record.remaining();
+        if (output.remaining() < length + Varint.MAX_BYTES) {
+            writeOutput();
+        }
+        if (output.remaining() < length + Varint.MAX_BYTES) {
+            ByteBuffer prefix = ByteBuffer.allocate(Varint.MAX_BYTES);
+            Varint.put(prefix, length);
+            prefix.flip();
+            writeFully(prefix);
+            writeFully(record);
+            segmentBytes += prefix.limit() + length;
+            return;
+        }
+        Varint.put(output, length);
+        output.put(record);
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: writes the output buffer to the current segment and empties it
+    private void writeOutput() throws IOException {
+        output.flip();
+        segmentBytes += output.remaining();
+        writeFully(output);
+        output.clear();
+    }
+
+    // MODIFIES: the file system
+    // EFFECTS: writes all remaining bytes of buffer to the current segment
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: closes the current segment and starts the next one
+    private void rotate() throws IOException {
+        close();
+        openNextSegment();
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: creates the next segment, writes and forces its header and deletes segments beyond maxSegments
+    private void openNextSegment() throws IOException {
+        segmentNumber++;
+        channel = FileChannel.open(directory.resolve(segmentName(segmentNumber)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        strings.clear();
+        lastTimestamp = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).put(VERSION);
+        header.flip();
+        writeFully(header);
+        channel.force(true);    // A crash before the first flush must still leave a readable segment
+        segmentBytes = HEADER_BYTES;
+        List<Path> segments = EventJournalReader.segments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends one byte to the record being encoded
+    private void putByte(byte value) {
+        ensureRecordSpace(1);
+        record.put(value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends value to the record being encoded as an unsigned varint
+    private void putVarLong(long value) {
+        ensureRecordSpace(Varint.MAX_BYTES);
+        Varint.put(record, value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: grows the record buffer so that it has room for at least bytes more bytes
+    private void ensureRecordSpace(int bytes) {
+        if (record.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(record.capacity() * 2, record.position() + bytes));
+            record.flip();
+            record = larger.put(record);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package persistence;
+
+import model.Event;
+import model.EventTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Represents a reader for the segments written by an EventJournal. Segments are streamed through a fixed-size
+// buffer, so scanning never holds more than one record and the current segment's string table in memory.
+// A record cut short at the end of a segment (e.g. by a crash mid-write) ends that segment quietly, and
+// records of unknown types are skipped using their length prefix.
+
+public class EventJournalReader {
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+
+    // EFFECTS: constructs a reader for the journal in directory
+    public EventJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    // EFFECTS: returns the journal's segment files, oldest first; throws IOException if the directory
+    //          cannot be listed
+    public List<Path> getSegments() throws IOException {
+        return segments(directory);
+    }
+
+    // EFFECTS: passes every event in the journal to consumer, oldest first, and returns how many there were;
+    //          throws IOException if a segment cannot be read or is not a journal segment
+    public long scan(Consumer<Event> consumer) throws IOException {
+        long count = 0;
+        for (Path segment : getSegments()) {
+            count += readSegment(segment, consumer);
+        }
+        return count;
+    }
+
+    // REQUIRES: count >= 0
+    // EFFECTS: returns up to count of the most recent events in the journal, oldest first; only the newest
+    //          segments needed to find them are read
+    public List<Event> tail(int count) throws IOException {
+        LinkedList<Event> result = new LinkedList<>();
+        List<Path> segments = getSegments();
+        for (int i = segments.size() - 1; i >= 0 && result.size() < count; i--) {
+            int needed = count - result.size();
+            ArrayDeque<Event> last = new ArrayDeque<>();
+            readSegment(segments.get(i), event -> {
+                if (last.size() == needed) {
+                    last.removeFirst();
+                }
+                last.addLast(event);
+            });
+            while (!last.isEmpty()) {
+                result.addFirst(last.removeLast());
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    // EFFECTS: returns the segment files in directory ordered by segment number, or an empty list if the
+    //          directory does not exist
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        String glob = EventJournal.SEGMENT_PREFIX + "*" + EventJournal.SEGMENT_SUFFIX;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        segments.sort(Comparator.comparingInt(EventJournalReader::segmentNumber));
+        return segments;
+    }
+
+    // REQUIRES: segment is named by EventJournal.segmentName
+    // EFFECTS: returns the number in the segment's file name
+    static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(EventJournal.SEGMENT_PREFIX.length(),
+                name.length() - EventJournal.SEGMENT_SUFFIX.length()));
+    }
+
+    // MODIFIES: input
+    // EFFECTS: reads the segment header and returns true, or returns false if the segment ends before its
+    //          header is complete (it was cut off by a crash while being created, so holds no events); throws
+    //          IOException if the header is not an event journal header
+    private static boolean readHeader(SegmentInput input, Path segment) throws IOException {
+        if (!input.fill(EventJournal.HEADER_BYTES)) {
+            return false;
+        }
+        if (input.buffer.getInt() != EventJournal.MAGIC || input.buffer.get() != EventJournal.VERSION) {
+            throw new IOException("Not an event journal segment: " + segment);
+        }
+        return true;
+    }
+
+    // EFFECTS: passes each event in segment to consumer and returns how many there were
+    private long readSegment(Path segment, Consumer<Event> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            SegmentInput input = new SegmentInput(channel);
+            if (!readHeader(input, segment)) {
+                return 0;
+            }
+            List<String> strings = new ArrayList<>();
+            long[] timestamp = {0};
+            long count = 0;
+            ByteBuffer record = input.nextRecord();
+            while (record != null) {
+                byte type = record.get();
+                if (type == EventJournal.STRING_RECORD) {
+                    readString(record, strings);
+                } else if (type == EventJournal.EVENT_RECORD) {
+                    consumer.accept(readEvent(record, strings, timestamp));
+                    count++;
+                }
+                record = input.nextRecord();
+            }
+            return count;
+        }
+    }
+
+    // MODIFIES: strings
+    // EFFECTS: adds the string defined by a STRING record to the segment's string table
+    private static void readString(ByteBuffer record, List<String> strings) throws IOException {
+        int id = (int) Varint.get(record);
+        int length = (int) Varint.get(record);
+        if (id != strings.size() || length > record.remaining()) {
+            throw new IOException("Corrupt string record in event journal");
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        strings.add(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    // MODIFIES: timestamp
+    // EFFECTS: decodes an EVENT record, updating timestamp[0] to the event's timestamp
+    private static Event readEvent(ByteBuffer record, List<String> strings, long[] timestamp) throws IOException {
+        timestamp[0] += Varint.unZigZag(Varint.get(record));
+        EventTemplate template;
+        try {
+            template = EventTemplate.valueOf(string(strings, Varint.get(record)));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown event template in event journal", e);
+        }
+        Object[] arguments = new Object[EventTemplate.OBJECT_ARGUMENTS];
+        for (int i = 0; i < arguments.length; i++) {
+            long tag = Varint.get(record);
+            arguments[i] = tag == EventJournal.NULL_ARGUMENT ? null : string(strings, tag - 1);
+        }
+        int firstNumber = (int) Varint.unZigZag(Varint.get(record));
+        int secondNumber = (int) Varint.unZigZag(Varint.get(record));
+        return new Event(timestamp[0], template, arguments[0], arguments[1], arguments[2],
+                firstNumber, secondNumber);
+    }
+
+    // EFFECTS: returns the interned string with the given id
+    private static String string(List<String> strings, long id) throws IOException {
+        if (id < 0 || id >= strings.size()) {
+            throw new IOException("Undefined string " + id + " in event journal");
+        }
+        return strings.get((int) id);
+    }
+
+    // Streams length-prefixed records from one segment through a reusable buffer
+    private static final class SegmentInput {
+        private final FileChannel channel;
+        private ByteBuffer buffer;              // in read mode: position is the next unread byte
+
+        SegmentInput(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            this.buffer.limit(0);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns the body of the next record, valid until the next call, or null at the end of the
+        //          segment or at a record that was cut short
+        ByteBuffer nextRecord() throws IOException {
+            int length = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (!fill(1) || shift > 28) {
+                    return null;
+                }
+                byte b = buffer.get();
+                length |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            if (length <= 0 || !fill(length)) {
+                return null;
+            }
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            buffer.position(buffer.position() + length);
+            return record;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads from the channel until at least bytes unread bytes are buffered, growing the buffer
+        //          if needed; returns false if the segment ends first
+        boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            if (buffer.capacity() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2));
+                buffer = larger.put(buffer);
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    buffer.flip();
+                    return false;
+                }
+            }
+            buffer.flip();
+            return true;
+        }
+    }
+}
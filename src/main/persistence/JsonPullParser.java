@@ -0,0 +1,426 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Represents a pull parser that reads one JSON token at a time from a Reader through a fixed-size buffer, so a
+// document can be turned into objects as it is read without building a tree or holding the whole text.
+// Callers walk the document with beginObject/nextName/endObject, beginArray/hasNext/endArray and the value
+// methods, and skip members they do not need with skipValue, or record the text of a value they read between
+// beginCapture and endCapture to be parsed again later. Malformed input is reported as an IOException
+// giving the character offset where parsing failed.
+
+final class JsonPullParser {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_DEPTH = 256;
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 2;
+
+    private final Reader in;
+    private final char[] buffer;
+    private int pos;                    // next unread character in buffer
+    private int limit;                  // number of valid characters in buffer
+    private long bufferStart;           // offset in the document of buffer[0]
+    private final int[] scopes;         // OBJECT or ARRAY for each open container
+    private final boolean[] first;      // true until the first member/element of each container has been read
+    private int depth;
+    private boolean ready;              // true if hasNext consumed the separator before a member/element
+    private boolean nameRead;           // true if nextName was called and the member's value is unread
+    private final StringBuilder text;
+    private StringBuilder capture;      // text of the value being captured, or null
+    private int captureFrom;            // first character in buffer not yet added to capture
+
+    // EFFECTS: constructs a parser reading from in
+    JsonPullParser(Reader in) {
+        this.in = in;
+        this.buffer = new char[BUFFER_SIZE];
+        this.scopes = new int[MAX_DEPTH];
+        this.first = new boolean[MAX_DEPTH];
+        this.text = new StringBuilder();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if another top-level value follows, for input holding a sequence of documents
+    boolean hasNextDocument() throws IOException {
+        return depth == 0 && peekNonWhitespace() != -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the start of an object
+    void beginObject() throws IOException {
+        beforeValue();
+        open('{', OBJECT);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the end of the current object
+    void endObject() throws IOException {
+        close('}', OBJECT);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the start of an array
+    void beginArray() throws IOException {
+        beforeValue();
+        open('[', ARRAY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the end of the current array
+    void endArray() throws IOException {
+        close(']', ARRAY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the current object or array has another member or element, consuming the comma
+    //          before it; may be called more than once before reading it
+    boolean hasNext() throws IOException {
+        if (ready) {
+            return true;
+        }
+        if (depth == 0 || nameRead) {
+            throw error("Expected a value");
+        }
+        int c = peekNonWhitespace();
+        if (c == '}' || c == ']' || c == -1) {
+            return false;
+        }
+        if (!first[depth - 1]) {
+            if (c != ',') {
+                throw error("Expected ',' but found '" + (char) c + "'");
+            }
+            pos++;
+        }
+        first[depth - 1] = false;
+        ready = true;
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the name of the next member of the current object and consumes the colon after it
+    String nextName() throws IOException {
+        if (depth == 0 || scopes[depth - 1] != OBJECT || !hasNext()) {
+            throw error("Expected a member name");
+        }
+        ready = false;
+        String name = readString();
+        expect(':');
+        nameRead = true;
+        return name;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next value, which must be a string
+    String nextString() throws IOException {
+        beforeValue();
+        return readString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next value, which must be a number, truncated to an int
+    int nextInt() throws IOException {
+        beforeValue();
+        return readInt();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next value, which must be true or false
+    boolean nextBoolean() throws IOException {
+        beforeValue();
+        if (peekNonWhitespace() == 't') {
+            expectLiteral("true");
+            return true;
+        }
+        expectLiteral("false");
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the next value is a string, without consuming it
+    boolean peekString() throws IOException {
+        return peekNonWhitespaceAfterSeparator() == '"';
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true and consumes the next value if it is null, otherwise returns false and leaves it
+    boolean nextNullIfPresent() throws IOException {
+        if (peekNonWhitespaceAfterSeparator() != 'n') {
+            return false;
+        }
+        beforeValue();
+        expectLiteral("null");
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next value, including everything nested inside it
+    void skipValue() throws IOException {
+        int c = peekNonWhitespaceAfterSeparator();
+        if (c == '{') {
+            beginObject();
+            while (hasNext()) {
+                nextName();
+                skipValue();
+            }
+            endObject();
+        } else if (c == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else if (c == '"') {
+            nextString();
+        } else if (c == 't' || c == 'f') {
+            nextBoolean();
+        } else if (!nextNullIfPresent()) {
+            beforeValue();
+            readNumberText();
+        }
+    }
+
+    // REQUIRES: the next value is read completely before endCapture is called
+    // MODIFIES: this
+    // EFFECTS: starts recording the text of the next value as it is read
+    void beginCapture() throws IOException {
+        peekNonWhitespaceAfterSeparator();
+        capture = new StringBuilder();
+        captureFrom = pos;
+    }
+
+    // REQUIRES: beginCapture was called and the value has been read since
+    // MODIFIES: this
+    // EFFECTS: stops recording and returns the text of the value exactly as it appears in the input
+    String endCapture() {
+        capture.append(buffer, captureFrom, pos - captureFrom);
+        String value = capture.toString();
+        capture = null;
+        return value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks that the parser is positioned where a value may be read and marks it as being read
+    private void beforeValue() throws IOException {
+        if (depth == 0) {
+            return;
+        }
+        if (scopes[depth - 1] == ARRAY) {
+            if (!hasNext()) {
+                throw error("Expected a value");
+            }
+            ready = false;
+        } else if (nameRead) {
+            nameRead = false;
+        } else {
+            throw error("Expected a member name");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next non-whitespace character, calling hasNext first inside an array so that any
+    //          comma before the value is consumed
+    private int peekNonWhitespaceAfterSeparator() throws IOException {
+        if (depth > 0 && scopes[depth - 1] == ARRAY && !hasNext()) {
+            throw error("Expected a value");
+        }
+        return peekNonWhitespace();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the given opening character and enters a container of the given scope
+    private void open(char c, int scope) throws IOException {
+        expect(c);
+        if (depth == MAX_DEPTH) {
+            throw error("Nesting too deep");
+        }
+        scopes[depth] = scope;
+        first[depth] = true;
+        depth++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the given closing character and leaves the current container, which must have the
+    //          given scope and no half-read member
+    private void close(char c, int scope) throws IOException {
+        if (depth == 0 || scopes[depth - 1] != scope || ready || nameRead) {
+            throw error("Unexpected '" + c + "'");
+        }
+        expect(c);
+        depth--;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a quoted string, decoding escape sequences
+    private String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return text.toString();
+            } else if (c == '\\') {
+                text.append(readEscape());
+            } else if (c == -1 || c < ' ') {
+                throw error("Unterminated string");
+            } else {
+                text.append((char) c);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the character after a backslash and returns the character it stands for
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                return readUnicodeEscape();
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            default:
+                throw error("Invalid escape sequence");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the four hex digits of a \\u escape
+    private char readUnicodeEscape() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape");
+            }
+            value = value * 16 + digit;
+        }
+        return (char) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a number and returns it truncated to an int; integers are parsed without allocating
+    private int readInt() throws IOException {
+        String number = readNumberText();
+        boolean integer = true;
+        long value = 0;
+        for (int i = number.charAt(0) == '-' ? 1 : 0; i < number.length() && integer; i++) {
+            char c = number.charAt(i);
+            integer = c >= '0' && c <= '9' && i < 19;
+            value = value * 10 + (c - '0');
+        }
+        if (integer) {
+            return (int) (number.charAt(0) == '-' ? -value : value);
+        }
+        try {
+            return (int) Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + number + "'");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the characters of a number literal
+    private String readNumberText() throws IOException {
+        peekNonWhitespace();
+        text.setLength(0);
+        int c = peek();
+        while (c != -1 && (c >= '0' && c <= '9' || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E')) {
+            text.append((char) c);
+            pos++;
+            c = peek();
+        }
+        if (text.length() == 0 || text.length() == 1 && text.charAt(0) == '-') {
+            throw error(c == -1 ? "Unexpected end of input" : "Unexpected character '" + (char) c + "'");
+        }
+        return text.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the given literal (true, false or null)
+    private void expectLiteral(String literal) throws IOException {
+        peekNonWhitespace();
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw error("Expected " + literal);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and consumes c
+    private void expect(char c) throws IOException {
+        int next = peekNonWhitespace();
+        if (next != c) {
+            throw error(next == -1 ? "Unexpected end of input, expected '" + c + "'"
+                    : "Expected '" + c + "' but found '" + (char) next + "'");
+        }
+        pos++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips whitespace and returns the next character without consuming it, or -1 at the end
+    private int peekNonWhitespace() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            pos++;
+            c = peek();
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character without consuming it, or -1 at the end of input
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes and returns the next character, or -1 at the end of input
+    private int read() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            pos++;
+        }
+        return c;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: refills the buffer from the reader; returns false at the end of input
+    private boolean fill() throws IOException {
+        if (capture != null) {
+            capture.append(buffer, captureFrom, limit - captureFrom);
+            captureFrom = 0;
+        }
+        bufferStart += limit;
+        pos = 0;
+        limit = 0;
+        int n = in.read(buffer, 0, buffer.length);
+        while (n == 0) {
+            n = in.read(buffer, 0, buffer.length);
+        }
+        if (n < 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    // EFFECTS: returns an exception describing malformed input at the current position
+    private IOException error(String message) {
+        return new IOException("Malformed JSON at character " + (bufferStart + pos) + ": " + message);
+    }
+}
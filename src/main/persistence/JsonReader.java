@@ -45,21 +45,18 @@ public class JsonReader {
         String name = jsonObject.getString("name");
         int level = jsonObject.getInt("level");
 
-        GameCharacter character = new GameCharacter(name, level);
-        addAbilityScores(character, jsonObject);
-        addSkills(character, jsonObject);
-        addBuffsDebuffs(character, jsonObject);
-
-        // Populating roll history
-        if (jsonObject.has("rollHistory")) {
+        // Populating roll history, without logging an event for each roll
+        GameCharacter character;
+        if (!jsonObject.has("rollHistory")) {
+            character = new GameCharacter(name, level);
+        } else {
             JSONObject rollHistoryJsonObject = jsonObject.getJSONObject("rollHistory");
-            JSONArray rollArray = rollHistoryJsonObject.getJSONArray("rolls");
-            List<Roll> rolls = readRolls(rollArray);
-            for (Roll roll : rolls) {
-                character.addRoll(roll);
-            }
+            character = new GameCharacter(name, level, new RollHistory(readRolls(rollHistoryJsonObject)));
         }
 
+        addAbilityScores(character, jsonObject);
+        addSkills(character, jsonObject);
+        addBuffsDebuffs(character, jsonObject);
         return character;
     }
 
@@ -130,25 +127,46 @@ public class JsonReader {
         character.addBuffDebuff(buffDebuff);
     }
 
-    // EFFECTS: Returns a list of Roll objects parsed from the provided JSON array
-    private List<Roll> readRolls(JSONArray jsonArray) {
+    // EFFECTS: Returns a list of Roll objects parsed from the provided roll history JSON object
+    private List<Roll> readRolls(JSONObject rollHistoryJsonObject) {
+        RollType[] rollTypes = readRollTypes(rollHistoryJsonObject.optJSONArray("rollTypes"));
         List<Roll> rolls = new ArrayList<>();
 
-        for (Object obj : jsonArray) {
+        for (Object obj : rollHistoryJsonObject.getJSONArray("rolls")) {
             JSONObject jsonObject = (JSONObject) obj;
-            Roll roll = readRoll(jsonObject);
+            Roll roll = readRoll(jsonObject, rollTypes);
             rolls.add(roll);
         }
 
         return rolls;
     }
 
-    // EFFECTS: Returns a Roll object parsed from the provided JSON object
-    private Roll readRoll(JSONObject jsonObject) {
-        String type = jsonObject.getString("type");
+    // EFFECTS: Returns the roll types named by the provided table, or an empty table if there is none
+    private RollType[] readRollTypes(JSONArray jsonArray) {
+        if (jsonArray == null) {
+            return new RollType[0];
+        }
+        RollType[] rollTypes = new RollType[jsonArray.length()];
+        for (int i = 0; i < rollTypes.length; i++) {
+            rollTypes[i] = RollType.named(jsonArray.getString(i));
+        }
+        return rollTypes;
+    }
+
+    // EFFECTS: Returns a Roll object parsed from the provided JSON object, whose type is either an index into
+    //          rollTypes or (in files written before the table existed) the type's name
+    private Roll readRoll(JSONObject jsonObject, RollType[] rollTypes) {
+        Object type = jsonObject.get("type");
         int baseResult = jsonObject.getInt("baseResult");
         int appliedModifier = jsonObject.getInt("appliedModifier");
 
-        return new Roll(type, baseResult, appliedModifier);
+        if (type instanceof String) {
+            return new Roll((String) type, baseResult, appliedModifier);
+        }
+        int index = jsonObject.getInt("type");
+        if (index < 0 || index >= rollTypes.length) {
+            throw new JSONException("Roll type index " + index + " is not in the rollTypes table");
+        }
+        return new Roll(rollTypes[index], baseResult, appliedModifier);
     }
 }
@@ -0,0 +1,174 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Represents an emitter that writes JSON tokens straight to a Writer as they are produced, either pretty-printed
+// with the given indent per level or compact. It tracks only the current nesting depth and whether a comma is
+// needed, so writing a document needs no tree and no intermediate string.
+
+final class JsonTokenWriter {
+    private static final int MAX_DEPTH = 256;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private final int indent;               // spaces per nesting level, or 0 for compact output
+    private final boolean[] hasMembers;     // true once the container at each depth has a member/element
+    private int depth;
+    private boolean afterName;              // true if a name was written and its value has not been
+
+    // EFFECTS: constructs an emitter writing to out, pretty-printed with indent spaces per level if indent > 0
+    JsonTokenWriter(Writer out, int indent) {
+        this.out = out;
+        this.indent = indent;
+        this.hasMembers = new boolean[MAX_DEPTH];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the start of an object
+    JsonTokenWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the end of the current object
+    JsonTokenWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the start of an array
+    JsonTokenWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the end of the current array
+    JsonTokenWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the name of the next member of the current object
+    JsonTokenWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        out.write(indent > 0 ? ": " : ":");
+        afterName = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a string value
+    JsonTokenWriter value(String value) throws IOException {
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a number value
+    JsonTokenWriter value(int value) throws IOException {
+        beforeValue();
+        out.write(Integer.toString(value));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a boolean value
+    JsonTokenWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the separator and line break needed before the next token, unless it is a member's value
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasMembers[depth - 1]) {
+                out.write(',');
+            }
+            hasMembers[depth - 1] = true;
+            newLine(depth);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an opening bracket and enters a new container
+    private JsonTokenWriter open(char bracket) throws IOException {
+        beforeValue();
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("JSON nesting too deep");
+        }
+        out.write(bracket);
+        hasMembers[depth++] = false;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a closing bracket, on its own line if the container was not empty
+    private JsonTokenWriter close(char bracket) throws IOException {
+        depth--;
+        if (hasMembers[depth]) {
+            newLine(depth);
+        }
+        out.write(bracket);
+        return this;
+    }
+
+    // EFFECTS: starts a new line indented for the given depth, if pretty-printing
+    private void newLine(int level) throws IOException {
+        if (indent > 0) {
+            out.write('\n');
+            for (int i = 0; i < level * indent; i++) {
+                out.write(' ');
+            }
+        }
+    }
+
+    // EFFECTS: writes value as a quoted JSON string, escaping quotes, backslashes and control characters
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < ' ') {
+                out.write(value, start, i - start);
+                writeEscape(c);
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    // EFFECTS: writes the escape sequence for c
+    private void writeEscape(char c) throws IOException {
+        switch (c) {
+            case '"':
+                out.write("\\\"");
+                break;
+            case '\\':
+                out.write("\\\\");
+                break;
+            case '\n':
+                out.write("\\n");
+                break;
+            case '\r':
+                out.write("\\r");
+                break;
+            case '\t':
+                out.write("\\t");
+                break;
+            default:
+                out.write("\\u00");
+                out.write(HEX[c >> 4]);
+                out.write(HEX[c & 0xF]);
+        }
+    }
+}
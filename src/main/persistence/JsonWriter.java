@@ -8,11 +8,14 @@ import java.io.*;
 // Code influence by the JsonSerializationDemo
 // https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo.git
 
-// Represents a writer that writes JSON representation of GameCharacter to file
+// Represents a writer that writes JSON representation of GameCharacter to file; in atomic mode the destination
+// is only replaced once the whole character has been written and forced to disk
 public class JsonWriter {
     private static final int TAB = 4;
     private PrintWriter writer;
     private final String destination;
+    private boolean atomic;
+    private SaveBatch batch;
 
     // EFFECTS: constructs writer to write to destination file
     public JsonWriter(String destination) {
@@ -20,10 +23,21 @@ public class JsonWriter {
     }
 
     // MODIFIES: this
-    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    // EFFECTS: sets whether open() writes to a temporary file that close() atomically moves over the destination
+    public void setAtomic(boolean atomic) {
+        this.atomic = atomic;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException if destination file cannot
     // be opened for writing
-    public void open() throws FileNotFoundException {
-        writer = new PrintWriter(destination);
+    public void open() throws IOException {
+        if (atomic) {
+            batch = new SaveBatch();
+            writer = new PrintWriter(batch.open(destination));
+        } else {
+            writer = new PrintWriter(destination);
+        }
     }
 
     // MODIFIES: this
@@ -34,9 +48,19 @@ public class JsonWriter {
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
+    // EFFECTS: closes writer; in atomic mode, replaces the destination with what was written, or throws
+    //          IOException and leaves the destination untouched if it could not be written
+    public void close() throws IOException {
         writer.close();
+        if (batch != null) {
+            SaveBatch written = batch;
+            batch = null;
+            if (writer.checkError()) {
+                written.abort();
+                throw new IOException("Unable to write to file: " + destination);
+            }
+            written.commit();
+        }
     }
 
     // MODIFIES: this
@@ -0,0 +1,271 @@
+package persistence;
+
+import model.ColumnarRollHistory;
+import model.Roll;
+import model.RollHistory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Represents an append-only log of a character's rolls, kept in a sidecar file next to the character's JSON
+// file (the JSON file name followed by SUFFIX), so saving only has to append the rolls made since the last
+// save instead of rewriting every roll. Each line of the log is one roll as a compact JSON object.
+//
+// The log is attached to one RollHistory at a time and remembers how much of it has been written. While the
+// history has only had rolls added, sync appends the new ones; once rolls have been removed or cleared, or the
+// log is synced with a different history, sync compacts the log instead, rewriting it to match the history.
+// Compaction can also be requested directly, e.g. to drop rolls a ring-buffer history no longer holds. A last
+// line cut short by a crash is ignored and cut off before anything more is appended.
+// Both appending and compacting force the log to disk before returning, so a character file saved after sync
+// returns never depends on rolls that a crash could still lose. A sync can also be split with capture: the
+// rolls to write are rendered on the thread that owns the history, and the file is written later on another
+// thread. Captured writes must run in the order they were captured; once one fails, later appends fail too
+// until a compaction captured after the failure has been written.
+
+public class RollHistoryLog {
+    public static final String SUFFIX = ".rolls";
+    private static final int SCAN_BYTES = 4096;
+
+    private final Path path;
+    private RollHistory attached;       // the history whose rolls this log holds, or null
+    private long syncedRollsAdded;      // attached.getTotalRollsAdded() when last synced
+    private long syncedRemovals;        // attached.getRemovalCount() when last synced
+    private boolean failed;             // True from a failed write until a compaction has been written
+
+    // EFFECTS: constructs the log that belongs to the given character file
+    public RollHistoryLog(String characterFile) {
+        this.path = Paths.get(characterFile + SUFFIX);
+    }
+
+    // EFFECTS: returns the path of the sidecar file
+    public Path getPath() {
+        return path;
+    }
+
+    // MODIFIES: this, history
+    // EFFECTS: adds every roll in the log to history, oldest first, attaches this log to history and returns the
+    //          number of rolls read; a missing log has no rolls. If history already held rolls (e.g. from a
+    //          character file saved before rolls were logged), the next sync compacts so they are written too.
+    //          Throws IOException if the log cannot be read.
+    public long replay(RollHistory history) throws IOException {
+        boolean hadRolls = history.size() > 0;
+        long count = 0;
+        if (Files.exists(path)) {
+            repairTail();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                JsonPullParser parser = new JsonPullParser(reader);
+                while (parser.hasNextDocument()) {
+                    history.addRoll(StreamingJsonReader.readRoll(parser));
+                    count++;
+                }
+            }
+        }
+        attach(history);
+        if (hadRolls) {
+            attached = null;
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: attaches this log to history without reading it, treating the rolls history holds now as already
+    //          in the log; used when loading a character without its roll history, so later rolls are appended
+    public void skip(RollHistory history) throws IOException {
+        if (Files.exists(path)) {
+            repairTail();
+        }
+        attach(history);
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: brings the log up to date with history, appending the rolls added since the last sync or
+    //          compacting the log if that is not possible, and forces what was written to disk; returns the
+    //          number of rolls written
+    public long sync(RollHistory history) throws IOException {
+        PendingWrite write = prepare(history, false);
+        write.save();
+        return write.rollCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: renders the rolls sync(history) would write, without touching the file system, and returns the
+    //          write that brings the log up to date with them on any thread; the log counts as in step with
+    //          history from now on
+    public AutosaveService.SaveAction capture(RollHistory history) throws IOException {
+        return prepare(history, false);
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: rewrites the log to hold exactly the rolls in history, replacing the old log only once the new
+    //          one is complete and forced to disk (see SaveBatch), and attaches this log to history; returns the
+    //          number of rolls written
+    public long compact(RollHistory history) throws IOException {
+        PendingWrite write = prepare(history, true);
+        write.save();
+        return write.rollCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: renders the rolls added to history since the last sync, or all of them if the log must be (or
+    //          compact says to be) compacted, attaches this log to history and returns the write for them
+    private synchronized PendingWrite prepare(RollHistory history, boolean compact) throws IOException {
+        boolean rewrite = compact || history != attached || history.getRemovalCount() != syncedRemovals;
+        int from = 0;
+        if (!rewrite) {
+            long added = history.getTotalRollsAdded() - syncedRollsAdded;
+            from = history.size() - (int) Math.min(added, history.size());
+        }
+        StringWriter lines = new StringWriter();
+        writeRolls(lines, history, from, history.size());
+        attach(history);
+        return new PendingWrite(rewrite, lines.toString(), history.size() - from);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that a write failed, so the next sync compacts and appends fail until it is written
+    private synchronized void writeFailed() {
+        failed = true;
+        attached = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that a compaction was written
+    private synchronized void compactionWritten() {
+        failed = false;
+    }
+
+    // EFFECTS: returns true if a write failed and no compaction has been written since
+    private synchronized boolean hasFailed() {
+        return failed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records history as the history this log is in step with
+    private void attach(RollHistory history) {
+        attached = history;
+        syncedRollsAdded = history.getTotalRollsAdded();
+        syncedRemovals = history.getRemovalCount();
+    }
+
+    // A rendered write to the log: either the whole log to replace it with or the lines to append to it
+    private final class PendingWrite implements AutosaveService.SaveAction {
+        private final boolean compact;
+        private final String lines;
+        private final long rollCount;
+
+        PendingWrite(boolean compact, String lines, long rollCount) {
+            this.compact = compact;
+            this.lines = lines;
+            this.rollCount = rollCount;
+        }
+
+        // MODIFIES: the file system
+        // EFFECTS: replaces the log with lines, or appends them, and forces them to disk; throws IOException if
+        //          they cannot be written, or if they are to be appended after an earlier write failed
+        @Override
+        public void save() throws IOException {
+            try {
+                if (compact) {
+                    replace();
+                    compactionWritten();
+                } else if (rollCount > 0) {
+                    if (hasFailed()) {
+                        throw new IOException("An earlier write to " + path + " failed");
+                    }
+                    append();
+                }
+            } catch (IOException | RuntimeException e) {
+                writeFailed();
+                throw e;
+            }
+        }
+
+        // MODIFIES: the file system
+        // EFFECTS: replaces the log with lines once they are complete and forced to disk (see SaveBatch)
+        private void replace() throws IOException {
+            SaveBatch batch = new SaveBatch();
+            try {
+                try (Writer out = batch.open(path.toString())) {
+                    out.write(lines);
+                }
+                batch.commit();
+            } finally {
+                batch.abort();      // Does nothing once committed
+            }
+        }
+
+        // MODIFIES: the file system
+        // EFFECTS: appends lines to the log and forces them to disk, along with the log's directory entry if the
+        //          log is new
+        private void append() throws IOException {
+            boolean created = !Files.exists(path);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+                out.write(lines);
+                out.flush();
+                channel.force(false);
+            }
+            if (created) {
+                SaveBatch.forceDirectory(path.toAbsolutePath().getParent());
+            }
+        }
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the rolls of history from index from (inclusive) to to (exclusive), one per line
+    private static void writeRolls(Writer out, RollHistory history, int from, int to) throws IOException {
+        JsonTokenWriter json = new JsonTokenWriter(out, 0);
+        if (history instanceof ColumnarRollHistory) {
+            ColumnarRollHistory columns = (ColumnarRollHistory) history;
+            for (int i = from; i < to; i++) {
+                StreamingJsonWriter.writeRoll(json, columns.getTypeName(columns.getTypeCode(i)),
+                        columns.getBaseResult(i), columns.getAppliedModifier(i));
+                out.write('\n');
+            }
+        } else {
+            List<Roll> rolls = history.getRollList();
+            for (int i = from; i < to; i++) {
+                Roll roll = rolls.get(i);
+                StreamingJsonWriter.writeRoll(json, roll.getType(), roll.getBaseResult(), roll.getAppliedModifier());
+                out.write('\n');
+            }
+        }
+    }
+
+    // MODIFIES: the file system
+    // EFFECTS: cuts off anything after the last complete line of the log, e.g. a record cut short by a crash
+    private void repairTail() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            ByteBuffer chunk = ByteBuffer.allocate(SCAN_BYTES);
+            while (end > 0) {
+                long start = Math.max(0, end - SCAN_BYTES);
+                chunk.clear().limit((int) (end - start));
+                while (chunk.hasRemaining() && channel.read(chunk, start + chunk.position()) >= 0) {
+                    // keep reading until the chunk is full
+                }
+                for (int i = chunk.position() - 1; i >= 0; i--) {
+                    if (chunk.get(i) == '\n') {
+                        channel.truncate(start + i + 1);
+                        return;
+                    }
+                }
+                end = start;
+            }
+            channel.truncate(0);
+        }
+    }
+}
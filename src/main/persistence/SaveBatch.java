@@ -0,0 +1,188 @@
+package persistence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Represents a group of files saved together, each written to a temporary file in the same directory as its
+// destination so the destination is never truncated while it is being written. Committing forces every
+// temporary file to disk, atomically moves each one over its destination, and then forces each destination
+// directory once so the moves are durable. A crash therefore leaves every destination with either its old or
+// its new contents. Saving many files in one batch forces each directory once for the whole batch instead of
+// once per file. A temporary file is created with the permissions a new file would get, or with those of its
+// destination if that already exists, so replacing a file keeps its permissions.
+
+public class SaveBatch {
+    private final List<PendingFile> pending;
+
+    // EFFECTS: constructs an empty batch
+    public SaveBatch() {
+        pending = new ArrayList<>();
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: creates a temporary file for destination and returns a writer to it; the destination is only
+    //          replaced when the batch is committed. Closing the returned writer only flushes it. Throws
+    //          IllegalArgumentException if destination is already in this batch, or IOException if the temporary
+    //          file cannot be created
+    public Writer open(String destination) throws IOException {
+        return add(destination).writer;
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: creates a temporary file for destination and writes the remaining bytes of contents to it; the
+    //          destination is only replaced when the batch is committed. Throws IllegalArgumentException if
+    //          destination is already in this batch, or IOException if the temporary file cannot be written
+    public void write(String destination, ByteBuffer contents) throws IOException {
+        FileChannel channel = openChannel(destination);
+        while (contents.hasRemaining()) {
+            channel.write(contents);
+        }
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: creates a temporary file for destination and returns a channel for writing to it at any position;
+    //          the batch closes the channel when it is committed or aborted. Throws IllegalArgumentException if
+    //          destination is already in this batch, or IOException if the temporary file cannot be created
+    FileChannel openChannel(String destination) throws IOException {
+        return add(destination).channel;
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: creates a temporary file for destination and adds it to the batch; throws IllegalArgumentException
+    //          if destination is already in this batch, or IOException if the temporary file cannot be created
+    private PendingFile add(String destination) throws IOException {
+        Path target = Paths.get(destination).toAbsolutePath();
+        for (PendingFile file : pending) {
+            if (file.destination.equals(target)) {
+                throw new IllegalArgumentException(destination + " is already being saved in this batch.");
+            }
+        }
+        Path temp = createTempFile(target);
+        FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+        PendingFile file = new PendingFile(target, temp, channel);
+        pending.add(file);
+        return file;
+    }
+
+    // EFFECTS: returns the number of files waiting to be committed
+    public int size() {
+        return pending.size();
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: forces all the files in the batch to disk, moves each over its destination and forces the
+    //          destination directories, then empties the batch. If a file cannot be written or forced, no
+    //          destination is replaced; throws IOException if any step fails, discarding any files not yet moved
+    public void commit() throws IOException {
+        try {
+            for (PendingFile file : pending) {
+                file.writer.flush();
+                file.channel.force(false);
+                file.channel.close();
+            }
+            Set<Path> directories = new LinkedHashSet<>();
+            while (!pending.isEmpty()) {
+                PendingFile file = pending.get(0);
+                Files.move(file.temp, file.destination, StandardCopyOption.ATOMIC_MOVE);
+                pending.remove(0);
+                directories.add(file.destination.getParent());
+            }
+            for (Path directory : directories) {
+                forceDirectory(directory);
+            }
+        } finally {
+            abort();
+        }
+    }
+
+    // MODIFIES: this, the file system
+    // EFFECTS: discards all the files in the batch without replacing their destinations
+    public void abort() {
+        for (PendingFile file : pending) {
+            try {
+                file.channel.close();
+                Files.deleteIfExists(file.temp);
+            } catch (IOException e) {
+                // the temporary file is left behind, but the destination is untouched
+            }
+        }
+        pending.clear();
+    }
+
+    // MODIFIES: the file system
+    // EFFECTS: creates an empty temporary file next to target with the permissions of target if it exists (and
+    //          the file system has POSIX permissions), or those of any newly created file otherwise
+    private static Path createTempFile(Path target) throws IOException {
+        Path temp;
+        while (true) {
+            String suffix = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+            try {
+                temp = Files.createFile(target.resolveSibling("." + target.getFileName() + suffix + ".tmp"));
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // try another name
+            }
+        }
+        try {
+            if (Files.exists(target)
+                    && Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    // EFFECTS: forces the entry for a moved file in directory to disk; platforms that cannot open a directory
+    //          for this (e.g. Windows) make their renames durable themselves, so failing to open it is ignored
+    static void forceDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    // A file written in the batch: its destination, temporary file and the writer given out for it
+    private static final class PendingFile {
+        private final Path destination;
+        private final Path temp;
+        private final FileChannel channel;
+        private final Writer writer;
+
+        PendingFile(Path destination, Path temp, FileChannel channel) {
+            this.destination = destination;
+            this.temp = temp;
+            this.channel = channel;
+            this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package persistence;
+
+import model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a reader that reads a GameCharacter from JSON data stored in file, in the same format as
+// JsonReader, by pulling tokens from the file as it goes instead of first reading the whole file into a string
+// and a JSONObject tree. Members may appear in any order (JSONObject does not keep insertion order), so
+// buffs/debuffs and rolls are built as soon as they are read, while ability scores and skills, which need the
+// character, are held as plain values until the end. Rolls go straight into the character's roll history
+// without logging an event per roll. Unknown members are skipped.
+//
+// In lazy mode the roll history is only checked to be well-formed JSON and kept as text; it is parsed into
+// rolls the first time the character's getRollHistory() is called, so characters that are only used for their
+// ability scores and skills never build their rolls.
+
+public class StreamingJsonReader {
+    private final String source;
+    private boolean lazyRollHistory;
+
+    // EFFECTS: constructs a reader for the given source file
+    public StreamingJsonReader(String source) {
+        this.source = source;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets whether characters are read with their roll history left unparsed until it is first used
+    public void setLazyRollHistory(boolean lazyRollHistory) {
+        this.lazyRollHistory = lazyRollHistory;
+    }
+
+    // EFFECTS: reads the source file and returns the GameCharacter it describes; throws IOException if the
+    //          file cannot be read or is not a valid character file
+    public GameCharacter read() throws IOException {
+        try (Reader reader = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            return parse(reader, lazyRollHistory);
+        }
+    }
+
+    // EFFECTS: returns the GameCharacter described by the JSON text read from reader
+    public static GameCharacter parse(Reader reader) throws IOException {
+        return parse(reader, false);
+    }
+
+    // EFFECTS: returns the GameCharacter described by the JSON text read from reader, leaving its roll history
+    //          unparsed until it is first used if lazyRollHistory
+    public static GameCharacter parse(Reader reader, boolean lazyRollHistory) throws IOException {
+        JsonPullParser parser = new JsonPullParser(reader);
+        CharacterParts parts = new CharacterParts();
+        parts.lazyRollHistory = lazyRollHistory;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            readMember(parser, parser.nextName(), parts);
+        }
+        parser.endObject();
+        return parts.build();
+    }
+
+    // EFFECTS: returns the GameCharacter described by the UTF-8 JSON text between buffer's position and limit;
+    //          buffer itself is not changed
+    public static GameCharacter parse(ByteBuffer buffer) throws IOException {
+        return parse(buffer, false);
+    }
+
+    // EFFECTS: returns the GameCharacter described by the UTF-8 JSON text between buffer's position and limit,
+    //          leaving its roll history unparsed until it is first used if lazyRollHistory; buffer itself is not
+    //          changed
+    public static GameCharacter parse(ByteBuffer buffer, boolean lazyRollHistory) throws IOException {
+        Reader reader = new InputStreamReader(new ByteBufferInputStream(buffer.duplicate()), StandardCharsets.UTF_8);
+        return parse(reader, lazyRollHistory);
+    }
+
+    // MODIFIES: parser, parts
+    // EFFECTS: reads the value of one top-level member into parts
+    private static void readMember(JsonPullParser parser, String name, CharacterParts parts) throws IOException {
+        switch (name) {
+            case "name":
+                parts.name = parser.nextString();
+                break;
+            case "level":
+                parts.level = parser.nextInt();
+                parts.hasLevel = true;
+                break;
+            case "abilityScores":
+                readAbilityScores(parser, parts);
+                break;
+            case "skills":
+                readSkills(parser, parts);
+                break;
+            case "activeBuffsDebuffs":
+                readBuffsDebuffs(parser, parts);
+                break;
+            case "rollHistory":
+                readRollHistoryMember(parser, parts);
+                break;
+            default:
+                parser.skipValue();
+        }
+    }
+
+    // MODIFIES: parser, parts
+    // EFFECTS: reads the array of ability scores; a later score for the same ability replaces an earlier one
+    private static void readAbilityScores(JsonPullParser parser, CharacterParts parts) throws IOException {
+        parts.hasAbilityScores = true;
+        parser.beginArray();
+        while (parser.hasNext()) {
+            AbilityType type = null;
+            Integer score = null;
+            parser.beginObject();
+            while (parser.hasNext()) {
+                String member = parser.nextName();
+                if (member.equals("type")) {
+                    type = readEnum(parser, AbilityType.class);
+                } else if (member.equals("score")) {
+                    score = parser.nextInt();
+                } else {
+                    parser.skipValue();
+                }
+            }
+            parser.endObject();
+            parts.abilityScores[require(type, "type").ordinal()] = require(score, "score");
+        }
+        parser.endArray();
+    }
+
+    // MODIFIES: parser, parts
+    // EFFECTS: reads the array of skills, keeping the ability type each is associated with
+    private static void readSkills(JsonPullParser parser, CharacterParts parts) throws IOException {
+        parts.hasSkills = true;
+        parser.beginArray();
+        while (parser.hasNext()) {
+            PendingSkill skill = new PendingSkill();
+            parser.beginObject();
+            while (parser.hasNext()) {
+                String member = parser.nextName();
+                if (member.equals("type")) {
+                    skill.type = readEnum(parser, SkillType.class);
+                } else if (member.equals("isProficient")) {
+                    skill.proficient = parser.nextBoolean();
+                } else if (member.equals("associatedAbility")) {
+                    skill.ability = readAssociatedAbility(parser);
+                } else {
+                    parser.skipValue();
+                }
+            }
+            parser.endObject();
+            parts.skills.add(skill.check());
+        }
+        parser.endArray();
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads a skill's associated ability object and returns its type
+    private static AbilityType readAssociatedAbility(JsonPullParser parser) throws IOException {
+        AbilityType type = null;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            if (parser.nextName().equals("type")) {
+                type = readEnum(parser, AbilityType.class);
+            } else {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
+        return require(type, "type");
+    }
+
+    // MODIFIES: parser, parts
+    // EFFECTS: reads the array of active buffs/debuffs
+    private static void readBuffsDebuffs(JsonPullParser parser, CharacterParts parts) throws IOException {
+        parts.hasBuffsDebuffs = true;
+        parser.beginArray();
+        while (parser.hasNext()) {
+            parts.buffsDebuffs.add(readBuffDebuff(parser));
+        }
+        parser.endArray();
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads one buff/debuff object
+    private static BuffDebuff readBuffDebuff(JsonPullParser parser) throws IOException {
+        String name = null;
+        AbilityType effectAbility = null;
+        Integer effectMagnitude = null;
+        Integer duration = null;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            String member = parser.nextName();
+            if (member.equals("name")) {
+                name = parser.nextString();
+            } else if (member.equals("effectAbility")) {
+                effectAbility = readEnum(parser, AbilityType.class);
+            } else if (member.equals("effectMagnitude")) {
+                effectMagnitude = parser.nextInt();
+            } else if (member.equals("duration")) {
+                duration = parser.nextInt();
+            } else {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
+        return new BuffDebuff(require(name, "name"), require(effectAbility, "effectAbility"),
+                require(effectMagnitude, "effectMagnitude"), require(duration, "duration"));
+    }
+
+    // MODIFIES: parser, parts
+    // EFFECTS: reads the roll history object into parts; in lazy mode it is checked as it is read, without
+    //          building any rolls, and kept as text, so building it later cannot fail
+    private static void readRollHistoryMember(JsonPullParser parser, CharacterParts parts) throws IOException {
+        if (parts.lazyRollHistory) {
+            parser.beginCapture();
+            readRollHistory(parser, null);
+            parts.rollHistoryText = parser.endCapture();
+        } else {
+            readRollHistory(parser, parts.rollHistory);
+        }
+    }
+
+    // MODIFIES: parser, rollHistory
+    // EFFECTS: reads the roll history object, adding each roll to rollHistory, or only checking each roll if
+    //          rollHistory is null; its rolls may refer to the roll type table by index even if the table comes
+    //          after them, as members of an object are unordered
+    private static void readRollHistory(JsonPullParser parser, RollHistory rollHistory) throws IOException {
+        List<RollType> rollTypes = null;
+        List<int[]> pending = new ArrayList<>();   // Rolls read before the roll type table
+        parser.beginObject();
+        while (parser.hasNext()) {
+            String member = parser.nextName();
+            if (member.equals("rollTypes")) {
+                rollTypes = readRollTypes(parser);
+            } else if (member.equals("rolls")) {
+                readRolls(parser, rollTypes, rollHistory, pending);
+            } else {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
+        for (int[] roll : pending) {
+            addRoll(rollHistory, roll, rollTypes);
+        }
+    }
+
+    // MODIFIES: parser, rollHistory, pending
+    // EFFECTS: reads the array of rolls of a roll history, adding each roll to rollHistory (see addRoll) if the
+    //          roll type table has been read (rollTypes is not null), or its values to pending otherwise
+    private static void readRolls(JsonPullParser parser, List<RollType> rollTypes, RollHistory rollHistory,
+                                  List<int[]> pending) throws IOException {
+        int[] values = new int[3];
+        parser.beginArray();
+        while (parser.hasNext()) {
+            readRollValues(parser, values);
+            if (rollTypes == null) {
+                pending.add(values.clone());
+            } else {
+                addRoll(rollHistory, values, rollTypes);
+            }
+        }
+        parser.endArray();
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads the array of roll type names of a roll history
+    private static List<RollType> readRollTypes(JsonPullParser parser) throws IOException {
+        List<RollType> rollTypes = new ArrayList<>();
+        parser.beginArray();
+        while (parser.hasNext()) {
+            rollTypes.add(RollType.named(parser.nextString()));
+        }
+        parser.endArray();
+        return rollTypes;
+    }
+
+    // REQUIRES: text was checked by readRollHistory when it was captured
+    // EFFECTS: returns the roll history described by the JSON text of a roll history object; throws
+    //          IllegalStateException if it does not describe one after all
+    private static RollHistory parseRollHistory(String text) {
+        RollHistory rollHistory = new RollHistory();
+        try {
+            readRollHistory(new JsonPullParser(new StringReader(text)), rollHistory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read roll history: " + e.getMessage(), e);
+        }
+        return rollHistory;
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads one roll object that names its type; its final outcome is recomputed from the base result
+    //          and modifier
+    static Roll readRoll(JsonPullParser parser) throws IOException {
+        int[] values = new int[3];
+        readRollValues(parser, values);
+        return toRoll(values, null);
+    }
+
+    // MODIFIES: parser, values
+    // EFFECTS: reads one roll object into values as {type, base result, applied modifier}, where a type given
+    //          by index into the roll type table is stored as that index, and one given by name as the
+    //          complement (~) of its registry code
+    private static void readRollValues(JsonPullParser parser, int[] values) throws IOException {
+        Integer type = null;
+        Integer baseResult = null;
+        Integer appliedModifier = null;
+        parser.beginObject();
+        while (parser.hasNext()) {
+            String member = parser.nextName();
+            if (member.equals("type")) {
+                type = readRollType(parser);
+            } else if (member.equals("baseResult")) {
+                baseResult = parser.nextInt();
+            } else if (member.equals("appliedModifier")) {
+                appliedModifier = parser.nextInt();
+            } else {
+                parser.skipValue();
+            }
+        }
+        parser.endObject();
+        values[0] = require(type, "type");
+        values[1] = require(baseResult, "baseResult");
+        values[2] = require(appliedModifier, "appliedModifier");
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads the type of a roll, stored as described for readRollValues
+    private static int readRollType(JsonPullParser parser) throws IOException {
+        if (parser.peekString()) {
+            return ~RollType.named(parser.nextString()).getCode();
+        }
+        int index = parser.nextInt();
+        if (index < 0) {
+            throw new IOException("Roll type index " + index + " is negative");
+        }
+        return index;
+    }
+
+    // MODIFIES: rollHistory
+    // EFFECTS: adds the roll read into values to rollHistory, or only checks its type if rollHistory is null
+    private static void addRoll(RollHistory rollHistory, int[] values, List<RollType> rollTypes) throws IOException {
+        if (rollHistory == null) {
+            checkType(values, rollTypes);
+        } else {
+            rollHistory.addRoll(toRoll(values, rollTypes));
+        }
+    }
+
+    // EFFECTS: returns the roll read into values, looking a type index up in rollTypes; throws IOException if
+    //          the index is not in rollTypes or there is no roll type table (rollTypes is null)
+    private static Roll toRoll(int[] values, List<RollType> rollTypes) throws IOException {
+        checkType(values, rollTypes);
+        int type = values[0];
+        RollType rollType = type < 0 ? RollType.forCode(~type) : rollTypes.get(type);
+        return new Roll(rollType, values[1], values[2]);
+    }
+
+    // EFFECTS: throws IOException if the roll read into values gives its type by an index that is not in
+    //          rollTypes, or there is no roll type table (rollTypes is null)
+    private static void checkType(int[] values, List<RollType> rollTypes) throws IOException {
+        int type = values[0];
+        if (type >= 0 && (rollTypes == null || type >= rollTypes.size())) {
+            throw new IOException("Roll type index " + type + " is not in the rollTypes table");
+        }
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: reads a string value naming a constant of the given enum
+    private static <E extends Enum<E>> E readEnum(JsonPullParser parser, Class<E> type) throws IOException {
+        String name = parser.nextString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown " + type.getSimpleName() + " '" + name + "'", e);
+        }
+    }
+
+    // EFFECTS: returns value, or throws IOException naming the missing member if it is null
+    private static <T> T require(T value, String member) throws IOException {
+        if (value == null) {
+            throw new IOException("Missing \"" + member + "\" in character file");
+        }
+        return value;
+    }
+
+    // The values read for a skill, which is only created once the character and its ability scores exist
+    private static final class PendingSkill {
+        private SkillType type;
+        private AbilityType ability;
+        private Boolean proficient;
+
+        // EFFECTS: returns this, or throws IOException if a member was missing
+        PendingSkill check() throws IOException {
+            require(type, "type");
+            require(ability, "associatedAbility");
+            require(proficient, "isProficient");
+            return this;
+        }
+    }
+
+    // The parts of a character read so far, in whatever order the file lists them
+    private static final class CharacterParts {
+        private String name;
+        private int level;
+        private boolean hasLevel;
+        private boolean hasAbilityScores;
+        private boolean hasSkills;
+        private boolean hasBuffsDebuffs;
+        private final Integer[] abilityScores = new Integer[AbilityType.values().length];
+        private final List<PendingSkill> skills = new ArrayList<>();
+        private final List<BuffDebuff> buffsDebuffs = new ArrayList<>();
+        private final RollHistory rollHistory = new RollHistory();
+        private boolean lazyRollHistory;
+        private String rollHistoryText;     // the unparsed roll history in lazy mode, or null
+
+        // EFFECTS: returns the character described by the parts; throws IOException if a required member of
+        //          the character was missing
+        GameCharacter build() throws IOException {
+            if (!hasLevel || !hasAbilityScores || !hasSkills || !hasBuffsDebuffs) {
+                throw new IOException("Missing level, abilityScores, skills or activeBuffsDebuffs in character file");
+            }
+            GameCharacter character;
+            if (rollHistoryText != null) {
+                String text = rollHistoryText;
+                character = new GameCharacter(require(name, "name"), level, () -> parseRollHistory(text));
+            } else {
+                character = new GameCharacter(require(name, "name"), level, rollHistory);
+            }
+            for (AbilityType type : AbilityType.values()) {
+                if (abilityScores[type.ordinal()] != null) {
+                    character.updateAbilityScore(type, abilityScores[type.ordinal()]);
+                }
+            }
+            for (PendingSkill skill : skills) {
+                AbilityScore associatedAbility = character.getAbilityScoreByType(skill.ability);
+                character.addSkill(new Skill(skill.type, associatedAbility, skill.proficient));
+            }
+            for (BuffDebuff buffDebuff : buffsDebuffs) {
+                character.addBuffDebuff(buffDebuff);
+            }
+            return character;
+        }
+    }
+
+    // An InputStream over the remaining bytes of a ByteBuffer
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+    }
+}
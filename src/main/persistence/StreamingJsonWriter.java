@@ -0,0 +1,231 @@
+package persistence;
+
+import model.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Represents a writer that writes the JSON representation of a GameCharacter to file by emitting tokens into a
+// buffered Writer as it walks the character, instead of building a JSONObject tree and a string first. The
+// output has the same members as GameCharacter.toJson, so JsonReader and StreamingJsonReader can read it,
+// pretty-printed with a four-space indent or, in compact mode, with no whitespace at all. The roll history can
+// be left out when it is stored separately, e.g. in a RollHistoryLog. In atomic mode, or when opened into a
+// SaveBatch, the destination is only replaced once the whole character has been written and forced to disk.
+
+public class StreamingJsonWriter {
+    private static final int TAB = 4;
+    private final String destination;
+    private final boolean compact;
+    private boolean includeRollHistory;
+    private boolean atomic;
+    private SaveBatch ownBatch;         // the batch opened in atomic mode, committed on close, or null
+    private boolean writeFailed;
+    private Writer writer;
+
+    // EFFECTS: constructs a writer that writes pretty-printed JSON to the destination file
+    public StreamingJsonWriter(String destination) {
+        this(destination, false);
+    }
+
+    // EFFECTS: constructs a writer that writes to the destination file, without whitespace if compact
+    public StreamingJsonWriter(String destination, boolean compact) {
+        this.destination = destination;
+        this.compact = compact;
+        this.includeRollHistory = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets whether the roll history is written with the character
+    public void setIncludeRollHistory(boolean includeRollHistory) {
+        this.includeRollHistory = includeRollHistory;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets whether open() writes to a temporary file that close() atomically moves over the destination
+    public void setAtomic(boolean atomic) {
+        this.atomic = atomic;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException if destination file cannot be opened for writing
+    public void open() throws IOException {
+        writeFailed = false;
+        if (atomic) {
+            ownBatch = new SaveBatch();
+            writer = ownBatch.open(destination);
+        } else {
+            ownBatch = null;
+            writer = Files.newBufferedWriter(Paths.get(destination), StandardCharsets.UTF_8);
+        }
+    }
+
+    // MODIFIES: this, batch
+    // EFFECTS: opens writer into batch, so the destination is replaced when batch is committed; throws
+    //          IOException if the temporary file cannot be created
+    public void open(SaveBatch batch) throws IOException {
+        writeFailed = false;
+        ownBatch = null;
+        writer = batch.open(destination);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes and closes writer; in atomic mode, replaces the destination with what was written, or
+    //          leaves it untouched if a write failed
+    public void close() throws IOException {
+        writer.close();
+        if (ownBatch != null) {
+            if (writeFailed) {
+                ownBatch.abort();
+            } else {
+                ownBatch.commit();
+            }
+            ownBatch = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of GameCharacter to file; throws IOException if it cannot be written
+    public void write(GameCharacter character) throws IOException {
+        try {
+            write(character, writer, compact, includeRollHistory);
+        } catch (IOException | RuntimeException e) {
+            writeFailed = true;
+            throw e;
+        }
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the JSON representation of character to out, without whitespace if compact; out is not
+    //          flushed or closed
+    public static void write(GameCharacter character, Writer out, boolean compact) throws IOException {
+        write(character, out, compact, true);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the JSON representation of character to out, without whitespace if compact and without
+    //          the roll history unless includeRollHistory; out is not flushed or closed
+    public static void write(GameCharacter character, Writer out, boolean compact, boolean includeRollHistory)
+            throws IOException {
+        JsonTokenWriter json = new JsonTokenWriter(out, compact ? 0 : TAB);
+        json.beginObject();
+        json.name("name").value(character.getName());
+        json.name("level").value(character.getLevel());
+        writeModifierSources(json, character);
+        if (includeRollHistory) {
+            json.name("rollHistory");
+            writeRollHistory(json, character.getRollHistory());
+        }
+        json.endObject();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes the ability score, buff/debuff and skill arrays of character
+    private static void writeModifierSources(JsonTokenWriter json, GameCharacter character) throws IOException {
+        json.name("abilityScores").beginArray();
+        for (AbilityScore score : character.getAbilityScores()) {
+            writeAbilityScore(json, score);
+        }
+        json.endArray();
+        json.name("activeBuffsDebuffs").beginArray();
+        for (BuffDebuff buffDebuff : character.getActiveBuffsDebuffs()) {
+            writeBuffDebuff(json, buffDebuff);
+        }
+        json.endArray();
+        json.name("skills").beginArray();
+        for (Skill skill : character.getSkills()) {
+            writeSkill(json, skill);
+        }
+        json.endArray();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes one ability score object
+    private static void writeAbilityScore(JsonTokenWriter json, AbilityScore score) throws IOException {
+        json.beginObject();
+        json.name("type").value(score.getType().toString());
+        json.name("score").value(score.getScore());
+        json.name("modifier").value(score.getModifier());
+        json.endObject();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes one buff/debuff object
+    private static void writeBuffDebuff(JsonTokenWriter json, BuffDebuff buffDebuff) throws IOException {
+        json.beginObject();
+        json.name("name").value(buffDebuff.getName());
+        json.name("effectAbility").value(buffDebuff.getEffectAbility().toString());
+        json.name("effectMagnitude").value(buffDebuff.getEffectMagnitude());
+        json.name("duration").value(buffDebuff.getDuration());
+        json.endObject();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes one skill object, including its associated ability score
+    private static void writeSkill(JsonTokenWriter json, Skill skill) throws IOException {
+        json.beginObject();
+        json.name("type").value(skill.getType().toString());
+        json.name("associatedAbility");
+        writeAbilityScore(json, skill.getAssociatedAbility());
+        json.name("isProficient").value(skill.getIsProficient());
+        json.endObject();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes the roll history object; a columnar history is written from its columns without creating
+    //          a Roll per roll
+    private static void writeRollHistory(JsonTokenWriter json, RollHistory rollHistory) throws IOException {
+        RollTypeTable rollTypes = RollTypeTable.of(rollHistory);
+        json.beginObject();
+        json.name("rollTypes").beginArray();
+        for (RollType type : rollTypes.getTypes()) {
+            json.value(type.getName());
+        }
+        json.endArray();
+        json.name("rolls").beginArray();
+        if (rollHistory instanceof ColumnarRollHistory) {
+            ColumnarRollHistory columns = (ColumnarRollHistory) rollHistory;
+            for (int i = 0; i < columns.size(); i++) {
+                writeRoll(json, rollTypes.indexOf(columns.getRollType(i)), columns.getBaseResult(i),
+                        columns.getAppliedModifier(i));
+            }
+        } else {
+            for (Roll roll : rollHistory.getRollList()) {
+                writeRoll(json, rollTypes.indexOf(roll.getRollType()), roll.getBaseResult(),
+                        roll.getAppliedModifier());
+            }
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes one roll object that names its type
+    static void writeRoll(JsonTokenWriter json, String type, int baseResult, int appliedModifier)
+            throws IOException {
+        json.beginObject();
+        json.name("type").value(type);
+        writeResults(json, baseResult, appliedModifier);
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes one roll object that refers to its type by index in the history's roll type table
+    private static void writeRoll(JsonTokenWriter json, int typeIndex, int baseResult, int appliedModifier)
+            throws IOException {
+        json.beginObject();
+        json.name("type").value(typeIndex);
+        writeResults(json, baseResult, appliedModifier);
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes the results of a roll and ends its object
+    private static void writeResults(JsonTokenWriter json, int baseResult, int appliedModifier)
+            throws IOException {
+        json.name("baseResult").value(baseResult);
+        json.name("appliedModifier").value(appliedModifier);
+        json.name("finalOutcome").value(baseResult + appliedModifier);
+        json.endObject();
+    }
+}
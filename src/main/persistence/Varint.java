@@ -0,0 +1,55 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Variable-length integer encoding shared by the binary formats: seven bits per byte, low bits first, with the
+// high bit set on every byte but the last, so small values take one byte. Signed values are zigzag-mapped
+// first so that small negative values are short too.
+
+final class Varint {
+    static final int MAX_BYTES = 10;
+
+    // EFFECTS: prevents construction; this class only has static methods
+    private Varint() {
+    }
+
+    // REQUIRES: buffer has at least MAX_BYTES bytes remaining
+    // MODIFIES: buffer
+    // EFFECTS: writes value to buffer as an unsigned varint
+    static void put(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    // MODIFIES: buffer
+    // EFFECTS: reads an unsigned varint from buffer; throws IOException if it runs past the end of the buffer
+    //          or is longer than MAX_BYTES
+    static long get(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Truncated varint");
+            }
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    // EFFECTS: maps a signed value to an unsigned one so small negative values also encode in few bytes
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    // EFFECTS: reverses zigZag
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -1,12 +1,16 @@
 package ui;
 
 import model.*;
+import model.dice.DiceExpression;
+import model.dice.DiceRandomSource;
+import model.dice.DistributionCalculator;
 import persistence.*;
 
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import javax.swing.*;
 
@@ -22,14 +26,24 @@ import java.io.*;
 public class ModifierManagerApp {
     private GameCharacter character;
     private static final String JSON_STORE = "./data/character.json";
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private static final DiceExpression D20 = DiceExpression.compile("1d20");
+    private StreamingJsonReader jsonReader;
+    private RollHistoryLog rollHistoryLog;
+    private DiceRandomSource randomSource;
+    private AutosaveService autosave;
 
 
     // EFFECTS: constructs a ModifierManagerApp that deals with data persistence
     public ModifierManagerApp() {
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
+        jsonReader = new StreamingJsonReader(JSON_STORE);
+        rollHistoryLog = new RollHistoryLog(JSON_STORE);
+        randomSource = DiceRandomSource.newStream();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the random source used for automatic rolls, e.g. a seeded source to replay a session
+    public void setRandomSource(DiceRandomSource randomSource) {
+        this.randomSource = randomSource;
     }
 
     // Main Menu
@@ -38,10 +52,12 @@ public class ModifierManagerApp {
     // MODIFIES: this
     // EFFECTS: Initializes the character with the given name, level, and ability scores.
     public void initCharacter(String name, int level, Map<AbilityType, Integer> abilities) {
+        GameCharacter previous = character;
         character = new GameCharacter(name, level);
         for (AbilityType ability : abilities.keySet()) {
             character.updateAbilityScore(ability, abilities.get(ability));
         }
+        trackCharacter(previous, false);
     }
 
     // Validates the provided character name.
@@ -120,12 +136,7 @@ public class ModifierManagerApp {
     // EFFECTS: Finds and returns the associated ability with the skill.
     private AbilityScore findAssociatedAbility(SkillType chosenSkillType) {
         AbilityType associatedAbilityType = Skill.getAssociatedAbilityBySkill(chosenSkillType);
-        for (AbilityScore ability : character.getAbilityScores()) {
-            if (ability.getType() == associatedAbilityType) {
-                return ability;
-            }
-        }
-        return null;
+        return character.getAbilityScoreByType(associatedAbilityType);
     }
 
     // Character Details
@@ -174,14 +185,19 @@ public class ModifierManagerApp {
     // EFFECTS: Returns a string representation of the character's recent roll history.
     public String getRecentRollsText() {
         StringBuilder text = new StringBuilder("\nRecent Roll History:\n");
-        List<Roll> rolls = character.getRollHistory().getRollList();
+        List<Roll> rolls = character.getRollHistory().getRecentRolls(5);
         if (rolls.isEmpty()) {
             text.append("No rolls made yet.\n");
         } else {
-            for (int i = rolls.size() - 1; i >= Math.max(0, rolls.size() - 5); i--) {
-                text.append(rolls.get(i).rollDescription()).append("\n");
+            for (Roll roll : rolls) {
+                text.append(roll.rollDescription()).append("\n");
             }
         }
+        RollStatistics stats = character.getRollHistory().getStatistics();
+        if (stats.getCount() > 0) {
+            text.append(String.format("%d rolls, average %.1f, median %d, natural 20s %.0f%%%n",
+                    stats.getCount(), stats.getMean(), stats.getMedian(), stats.getNatural20Rate() * 100));
+        }
         return text.toString();
     }
 
@@ -198,12 +214,11 @@ public class ModifierManagerApp {
                 + "\nApplied Modifiers: " + modifier
                 + "\nTotal Result: " + totalResult);
 
-        Roll newRoll = new Roll(chosenSkill.name() + " check", diceRoll, modifier);
+        Roll newRoll = new Roll(RollType.skillCheck(chosenSkill), diceRoll, modifier);
         character.getRollHistory().addRoll(newRoll);
 
         // Log this event
-        EventLog.getInstance().logEvent(new Event("Skill check rolled for "
-                + chosenSkill + ": " + totalResult));
+        EventLog.getInstance().logEvent(new Event(EventTemplate.SKILL_CHECK_ROLLED, chosenSkill, totalResult));
 
         character.updateBuffsDebuffsDuration();
 
@@ -219,11 +234,10 @@ public class ModifierManagerApp {
                 + "\nApplied Modifiers: " + modifier
                 + "\nTotal Result: " + totalResult);
 
-        Roll newRoll = new Roll(chosenAbility.name() + " check", diceRoll, modifier);
+        Roll newRoll = new Roll(RollType.abilityCheck(chosenAbility), diceRoll, modifier);
         character.getRollHistory().addRoll(newRoll);
 
-        EventLog.getInstance().logEvent(new Event(chosenAbility
-                + " check rolled: " + totalResult));
+        EventLog.getInstance().logEvent(new Event(EventTemplate.ABILITY_CHECK_ROLLED, chosenAbility, totalResult));
 
         character.updateBuffsDebuffsDuration();
     }
@@ -234,101 +248,174 @@ public class ModifierManagerApp {
     //           Returns the dice roll value.
     public int rollDice(boolean isAutomatic) {
         if (isAutomatic) {
-            return (int) (Math.random() * 20) + 1; // 20 sided dice roll
+            return D20.roll(randomSource); // 20 sided dice roll
         } else {
             String rollInput = JOptionPane.showInputDialog("Input your roll:");
             return Integer.parseInt(rollInput);
         }
     }
 
+    // EFFECTS:  Rolls the given dice expression (e.g. "4d6kh3+2", "2d20kl1", "8d6!") and returns the total.
+    //           Throws IllegalArgumentException if the expression is not valid.
+    public int rollDice(String expression) {
+        return DiceExpression.compile(expression).roll(randomSource);
+    }
+
     // EFFECTS:  Returns the total modifier for a given skill, considering both the associated
     //           ability score's modifier and a proficiency bonus if the character is proficient in the skill.
     //           Also takes into account active buffs and debuffs on the character.
     public int calculateSkillModifier(SkillType skill) {
-        AbilityType associatedAbility = Skill.getAssociatedAbilityBySkill(skill);
-        int abilityModifier = getModifierForAbility(associatedAbility);
-
-        boolean isProficient = character.isProficientInSkill(skill);
-        int bonus = 1 + (character.getLevel() + 3) / 4;
-        int proficiencyBonus = isProficient ? bonus : 0;
+        return character.calculateSkillCheckModifier(skill);
+    }
 
-        int buffDebuffModifier = calculateBuffDebuffModifier(associatedAbility);
+    // EFFECTS:  Returns the exact chance that a d20 skill check for the given skill meets or beats
+    //           difficultyClass, using the same modifier as calculateSkillModifier.
+    public double calculateChanceToPassSkillCheck(SkillType skill, int difficultyClass) {
+        return calculateChanceToPassSkillCheck(skill, difficultyClass, "1d20");
+    }
 
-        return abilityModifier + proficiencyBonus + buffDebuffModifier;
+    // EFFECTS:  Returns the exact chance that a skill check rolled with dieExpression (e.g. "2d20kh1" for
+    //           advantage or "2d20kl1" for disadvantage) meets or beats difficultyClass.
+    //           Throws IllegalArgumentException if dieExpression is not a valid dice expression.
+    public double calculateChanceToPassSkillCheck(SkillType skill, int difficultyClass, String dieExpression) {
+        int modifier = calculateSkillModifier(skill);
+        return DistributionCalculator.chanceToBeat(dieExpression, modifier, difficultyClass);
     }
 
     // EFFECTS:  Returns the modifier associated with the provided ability type.
     //           Also takes into account active buffs and debuffs on the character.
     public int calculateAbilityModifier(AbilityType ability) {
-        int abilityModifier = getModifierForAbility(ability);
-
-        int buffDebuffModifier = calculateBuffDebuffModifier(ability);
-
-        return abilityModifier + buffDebuffModifier;
+        return character.calculateAbilityCheckModifier(ability);
     }
 
     // EFFECTS:  Returns the cumulative modifier for the specified ability type based on active buffs and debuffs.
     public int calculateBuffDebuffModifier(AbilityType ability) {
-        int totalModifier = 0;
-
-        for (BuffDebuff bd : character.getActiveBuffsDebuffs()) {
-            if (bd.getEffectAbility() == ability) {
-                totalModifier += bd.getEffectMagnitude();
-            }
-        }
-
-        return totalModifier;
+        return character.calculateBuffDebuffModifier(ability);
     }
 
 
     // EFFECTS:  Returns the modifier for the specified ability type.
     //           If the ability is not found among the character's ability scores, returns 0.
     public int getModifierForAbility(AbilityType ability) {
-        for (AbilityScore score : character.getAbilityScores()) {
-            if (score.getType() == ability) {
-                return score.getModifier();
-            }
-        }
-        return 0;
+        AbilityScore score = character.getAbilityScoreByType(ability);
+        return score == null ? 0 : score.getModifier();
     }
 
     // Save/Loading
 
-    public void saveCharacter() {
+    // MODIFIES: this
+    // EFFECTS: starts saving the character in the background, at most once every intervalMillis milliseconds
+    //          while it changes; its state is captured on the Swing event thread and written on the autosave
+    //          thread
+    public void startAutosave(long intervalMillis) {
+        autosave = new AutosaveService(intervalMillis, SwingUtilities::invokeLater);
+        trackCharacter(null, false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops saving the character in the background, waiting for a save already under way
+    public void stopAutosave() {
+        if (autosave != null) {
+            autosave.close();
+            autosave = null;
+        }
+    }
+
+    // REQUIRES: called on the Swing event thread
+    // MODIFIES: the file system
+    // EFFECTS: saves the character, then tells the user whether it worked and runs then on the Swing event
+    //          thread; while autosave is running, only the character's state is captured here and the write
+    //          finishes on the autosave thread, so the event thread is never blocked by it
+    public void saveCharacter(Runnable then) {
+        String name = character.getName();
+        CompletableFuture<?> write;
         try {
-            jsonWriter.open();
-            jsonWriter.write(character);
-            jsonWriter.close();
-            JOptionPane.showMessageDialog(null,
-                    "Saved " + character.getName() + " to " + JSON_STORE);
+            if (autosave != null) {
+                write = autosave.saveSoon(character);
+            } else {
+                captureSave(character).save();
+                write = CompletableFuture.completedFuture(null);
+            }
+        } catch (IOException e) {
+            write = CompletableFuture.failedFuture(e);
+        }
+        write.whenComplete((result, failure) -> SwingUtilities.invokeLater(() -> {
+            reportSave(name, failure == null);
+            then.run();
+        }));
+    }
 
-            EventLog.getInstance().logEvent(new Event("Character saved: "
-                    + character.getName()));
+    // EFFECTS: tells the user whether the character called name was saved and logs the outcome
+    private void reportSave(String name, boolean saved) {
+        if (saved) {
+            JOptionPane.showMessageDialog(null,
+                    "Saved " + name + " to " + JSON_STORE);
 
-        } catch (FileNotFoundException e) {
+            EventLog.getInstance().logEvent(new Event(EventTemplate.CHARACTER_SAVED, name));
+        } else {
             JOptionPane.showMessageDialog(null,
                     "Unable to write to file: " + JSON_STORE);
 
-            EventLog.getInstance().logEvent(new Event("Failed to save character: "
-                    + character.getName()));
+            EventLog.getInstance().logEvent(new Event(EventTemplate.SAVE_FAILED, name));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: renders the rolls made since the last save and toSave without its rolls, reading only memory,
+    //          and returns the write that appends the rolls to the roll log and then atomically replaces the
+    //          character file with the rendered JSON
+    private AutosaveService.SaveAction captureSave(GameCharacter toSave) throws IOException {
+        AutosaveService.SaveAction rolls = rollHistoryLog.capture(toSave.getRollHistory());
+        StringWriter json = new StringWriter();
+        StreamingJsonWriter.write(toSave, json, false, false);
+        String contents = json.toString();
+        return () -> {
+            rolls.save();
+            SaveBatch batch = new SaveBatch();
+            try {
+                batch.open(JSON_STORE).write(contents);
+                batch.commit();
+            } finally {
+                batch.abort();
+            }
+        };
+    }
+
+    // MODIFIES: this
+    // EFFECTS: autosaves the current character instead of previous, if autosave is running; saved is true if
+    //          the current character is already on disk
+    private void trackCharacter(GameCharacter previous, boolean saved) {
+        if (autosave == null) {
+            return;
+        }
+        if (previous != null) {
+            autosave.untrack(previous);
+        }
+        if (character != null && saved) {
+            autosave.trackSaved(character, this::captureSave);
+        } else if (character != null) {
+            autosave.track(character, this::captureSave);
         }
     }
 
     public boolean loadCharacter() {
         try {
+            GameCharacter previous = character;
             character = jsonReader.read();
+            rollHistoryLog.replay(character.getRollHistory());
+            trackCharacter(previous, true);
             JOptionPane.showMessageDialog(null, "Loaded " + character.getName() + " from "
                     + JSON_STORE);
 
             // Log the character load event
-            EventLog.getInstance().logEvent(new Event("Character loaded: " + character.getName()));
+            EventLog.getInstance().logEvent(new Event(EventTemplate.CHARACTER_LOADED, character.getName()));
 
             return true;
         } catch (IOException e) {
             JOptionPane.showMessageDialog(null, "Unable to read from file: " + JSON_STORE);
 
             // Log the character load error
-            EventLog.getInstance().logEvent(new Event("Failed to load character from file."));
+            EventLog.getInstance().logEvent(new Event(EventTemplate.LOAD_FAILED, null));
 
             return false;
         }
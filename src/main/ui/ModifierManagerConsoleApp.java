@@ -1,6 +1,7 @@
 package ui;
 
 import model.*;
+import model.dice.DiceRandomSource;
 
 import java.util.HashMap;
 import java.util.List;
@@ -10,10 +11,12 @@ import java.util.Scanner;
 public class ModifierManagerConsoleApp {
     private GameCharacter character;
     private final Scanner scanner;
+    private final DiceRandomSource randomSource;
 
     // EFFECTS: Constructs a ModifierManagerConsoleApp that deals with data persistence
     public ModifierManagerConsoleApp() {
         scanner = new Scanner(System.in);
+        randomSource = DiceRandomSource.newStream();
     }
 
     // EFFECTS: Runs the main menu of the application
@@ -303,7 +306,7 @@ public class ModifierManagerConsoleApp {
 
     // EFFECTS: Rolls a 20-sided die and returns the result
     private int rollDice() {
-        return (int) (Math.random() * 19) + 1;
+        return randomSource.roll(20);
     }
 
 
@@ -332,7 +335,7 @@ public class ModifierManagerConsoleApp {
         int buffDebuffModifier = calculateBuffDebuffModifier(associatedAbilityType);
         int rollValue = rollDice();
         int totalModifier = associatedAbility.getModifier() + proficiencyBonus + buffDebuffModifier;
-        Roll roll = new Roll(chosenSkillType + " check", rollValue, totalModifier);
+        Roll roll = new Roll(RollType.skillCheck(chosenSkillType), rollValue, totalModifier);
 
         displaySkillRollDetails(
                 chosenSkillType, rollValue, associatedAbility, proficiencyBonus, buffDebuffModifier, totalModifier);
@@ -396,7 +399,7 @@ public class ModifierManagerConsoleApp {
         int buffDebuffModifier = calculateBuffDebuffModifier(chosenAbility);
         int rollValue = rollDice();
         int totalModifier = abilityScore.getModifier() + buffDebuffModifier;
-        Roll roll = new Roll(chosenAbility.toString() + " check", rollValue, totalModifier);
+        Roll roll = new Roll(RollType.abilityCheck(chosenAbility), rollValue, totalModifier);
 
         displayAbilityRollDetails(
                 chosenAbility, rollValue, abilityScore, buffDebuffModifier, totalModifier);
@@ -6,10 +6,13 @@ import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
 
 import model.*;
+import persistence.EventJournal;
 
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 
 // This class represents the main GUI for managing character modifiers in a Dungeons & Dragons 5th Edition game.
@@ -24,7 +27,10 @@ import java.util.*;
 
 
 public class ModifierManagerGUI extends JFrame {
+    private static final String JOURNAL_DIRECTORY = "./data/journal";
+    private static final long AUTOSAVE_INTERVAL_MILLIS = 5000;
     private final ModifierManagerApp managerApp;
+    private EventJournal eventJournal;
     private final GamePanel gamePanel;
     private JPanel initialPanel;
     private JPanel actionsPanel;
@@ -45,6 +51,8 @@ public class ModifierManagerGUI extends JFrame {
         super("D&D 5E Modifier Manager");
         this.managerApp = app;
         this.gamePanel = new GamePanel(managerApp, this);
+        openEventJournal();
+        managerApp.startAutosave(AUTOSAVE_INTERVAL_MILLIS);
 
         setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
         setSize(400, 600);
@@ -291,20 +299,61 @@ public class ModifierManagerGUI extends JFrame {
     // Save Character Panel
 
     // EFFECTS: Asks the user if they would like to save their character before quitting.
-    //          If user responds with "yes", the character is saved to file. Otherwise, does nothing.
+    //          If user responds with "yes", the character is saved to file before exiting; the save finishes
+    //          in the background and the application exits once it is done. Otherwise, exits right away.
     private void saveCharacter() {
         int response = JOptionPane.showConfirmDialog(null,
                 "Would you like to save your character before quitting?",
                 "Save Character", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
 
         if (response == JOptionPane.YES_OPTION) {
-            managerApp.saveCharacter();
+            managerApp.saveCharacter(this::exit);
+        } else {
+            exit();
         }
+    }
+
+    // EFFECTS: Stops autosaving, prints the event log and exits the application
+    private void exit() {
+        managerApp.stopAutosave();
 
+        closeEventJournal();
         printEventLog(); // Print the events before exiting
         System.exit(0);  // Make sure this is the last line to exit the application
     }
 
+    // MODIFIES: this
+    // EFFECTS: Starts journaling logged events to disk so they survive a crash; if it cannot be opened, tells
+    //          the user, logs the failure and continues without a journal
+    private void openEventJournal() {
+        try {
+            eventJournal = new EventJournal(Paths.get(JOURNAL_DIRECTORY));
+            EventLog.getInstance().addSink(eventJournal);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null, "Unable to open event journal: " + e.getMessage(),
+                    "Event Journal", JOptionPane.WARNING_MESSAGE);
+            EventLog.getInstance().logEvent(new model.Event(EventTemplate.JOURNAL_FAILED, e.getMessage()));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: Writes every logged event to the journal and closes it; if it cannot be closed, tells the user
+    //          and logs the failure
+    private void closeEventJournal() {
+        if (eventJournal == null) {
+            return;
+        }
+        EventLog.getInstance().flush();
+        EventLog.getInstance().removeSink(eventJournal);
+        try {
+            eventJournal.close();
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null, "Unable to close event journal: " + e.getMessage(),
+                    "Event Journal", JOptionPane.WARNING_MESSAGE);
+            EventLog.getInstance().logEvent(new model.Event(EventTemplate.JOURNAL_FAILED, e.getMessage()));
+        }
+    }
+
     // EFFECTS: Prints the events from the EventLog to the console
     private void printEventLog() {
         EventLog eventLog = EventLog.getInstance();
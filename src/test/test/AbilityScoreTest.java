@@ -2,10 +2,11 @@ package test;
 
 import model.AbilityScore;
 import model.AbilityType;
+import model.ScoreValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class AbilityScoreTest {
 
@@ -62,4 +63,31 @@ public class AbilityScoreTest {
     public void testDisplayAsString() {
         assertEquals("STRENGTH: 10 (Modifier: 0)", abilityScore.displayAsString());
     }
+
+    @Test
+    public void testScoreValuesAreShared() {
+        abilityScore.setScore(14);
+        assertSame(ScoreValue.of(14), abilityScore.getValue());
+        assertSame(abilityScore.getValue(), new AbilityScore(AbilityType.WISDOM, 14).getValue());
+        for (int score = ScoreValue.MIN_SCORE; score <= ScoreValue.MAX_SCORE; score++) {
+            assertSame(ScoreValue.of(score), ScoreValue.of(score));
+            assertEquals(Math.floorDiv(score - 10, 2), ScoreValue.of(score).getModifier());
+            assertEquals(score, ScoreValue.of(score).getScore());
+        }
+    }
+
+    @Test
+    public void testScoreValuesOutsideRange() {
+        assertEquals(-6, ScoreValue.modifierOf(-1));
+        assertEquals(11, ScoreValue.modifierOf(33));
+        assertNotSame(ScoreValue.of(31), ScoreValue.of(31));
+        assertEquals(ScoreValue.of(31), ScoreValue.of(31));
+        assertEquals(ScoreValue.of(31).hashCode(), ScoreValue.of(31).hashCode());
+        assertNotEquals(ScoreValue.of(31), ScoreValue.of(30));
+        assertEquals("31", ScoreValue.of(31).toString());
+
+        abilityScore = new AbilityScore(AbilityType.STRENGTH, ScoreValue.of(0));
+        assertEquals(0, abilityScore.getScore());
+        assertEquals(-5, ScoreValue.of(1).getModifier());
+    }
 }
@@ -0,0 +1,149 @@
+package test;
+
+import model.AbilityType;
+import model.BuffDebuff;
+import model.BuffDebuffScheduler;
+import model.GameCharacter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BuffDebuffSchedulerTest {
+
+    private BuffDebuffScheduler scheduler;
+    private GameCharacter character;
+
+    @BeforeEach
+    void runBefore() {
+        scheduler = new BuffDebuffScheduler();
+        character = new GameCharacter("Scheduled", 3);
+    }
+
+    @Test
+    public void testExpiresOnSameRoundAsUpdate() {
+        GameCharacter manual = new GameCharacter("Manual", 3);
+        scheduler.register(character);
+        for (int duration = 0; duration <= 4; duration++) {
+            character.addBuffDebuff(new BuffDebuff("Buff " + duration, AbilityType.STRENGTH, 1, duration));
+            manual.addBuffDebuff(new BuffDebuff("Buff " + duration, AbilityType.STRENGTH, 1, duration));
+        }
+
+        for (int round = 0; round < 6; round++) {
+            scheduler.advanceRound();
+            manual.updateBuffsDebuffsDuration();
+            assertEquals(manual.getActiveBuffsDebuffs().size(), character.getActiveBuffsDebuffs().size());
+            for (int i = 0; i < manual.getActiveBuffsDebuffs().size(); i++) {
+                assertEquals(manual.getActiveBuffsDebuffs().get(i).getDuration(),
+                        character.getActiveBuffsDebuffs().get(i).getDuration());
+            }
+        }
+        assertTrue(character.getActiveBuffsDebuffs().isEmpty());
+    }
+
+    @Test
+    public void testAdvancesManyCharactersInOneCall() {
+        List<GameCharacter> party = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            GameCharacter member = new GameCharacter("Member " + i, 1);
+            member.addBuffDebuff(new BuffDebuff("Bless", AbilityType.WISDOM, 1, 1 + i % 3));
+            scheduler.register(member);
+            party.add(member);
+        }
+
+        assertEquals(34, scheduler.advanceRound());
+        assertEquals(33, scheduler.advanceRound());
+        assertEquals(33, scheduler.advanceRound());
+        for (GameCharacter member : party) {
+            assertTrue(member.getActiveBuffsDebuffs().isEmpty());
+            assertEquals(0, member.calculateAbilityCheckModifier(AbilityType.WISDOM));
+        }
+    }
+
+    @Test
+    public void testDurationsLongerThanWheel() {
+        scheduler.register(character);
+        BuffDebuff longBuff = new BuffDebuff("Long", AbilityType.DEXTERITY, 2, 150);
+        character.addBuffDebuff(longBuff);
+
+        assertEquals(0, scheduler.advanceRounds(149));
+        assertEquals(1, longBuff.getDuration());
+        assertEquals(1, scheduler.advanceRound());
+        assertTrue(character.getActiveBuffsDebuffs().isEmpty());
+        assertEquals(150, scheduler.getCurrentRound());
+    }
+
+    @Test
+    public void testChangingDurationReschedules() {
+        scheduler.register(character);
+        BuffDebuff buff = new BuffDebuff("Haste", AbilityType.DEXTERITY, 2, 2);
+        character.addBuffDebuff(buff);
+
+        scheduler.advanceRound();
+        buff.incrementDuration(3);
+        assertEquals(4, buff.getDuration());
+        assertEquals(0, scheduler.advanceRounds(3));
+        assertEquals(1, scheduler.advanceRound());
+
+        BuffDebuff shortened = new BuffDebuff("Slow", AbilityType.DEXTERITY, -2, 10);
+        character.addBuffDebuff(shortened);
+        shortened.setDuration(1);
+        assertEquals(1, scheduler.advanceRound());
+        assertTrue(character.getActiveBuffsDebuffs().isEmpty());
+    }
+
+    @Test
+    public void testEachEffectHasOneScheduledEntry() {
+        scheduler.register(character);
+        BuffDebuff buff = new BuffDebuff("Bless", AbilityType.WISDOM, 1, 100);
+        BuffDebuff other = new BuffDebuff("Guidance", AbilityType.WISDOM, 1, 100);
+        character.addBuffDebuff(buff);
+        character.addBuffDebuff(other);
+        for (int i = 0; i < 50; i++) {
+            buff.decrementDuration();
+            other.incrementDuration(1);
+        }
+        assertEquals(2, scheduler.getScheduledCount());
+        assertEquals(50, buff.getDuration());
+
+        character.removeBuffDebuff(other);
+        assertEquals(1, scheduler.getScheduledCount());
+        assertEquals(1, scheduler.advanceRounds(50));
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testAdvancingRoundIsAChange() {
+        scheduler.register(character);
+        long unchanged = character.getModificationCount();
+        scheduler.advanceRound();
+        assertEquals(unchanged, character.getModificationCount());
+
+        character.addBuffDebuff(new BuffDebuff("Bless", AbilityType.WISDOM, 1, 3));
+        long before = character.getModificationCount();
+        scheduler.advanceRound();
+        assertTrue(character.getModificationCount() > before);
+        assertEquals(2, character.getSnapshot().getActiveBuffsDebuffs().get(0).getDuration());
+    }
+
+    @Test
+    public void testRemovedAndUnregisteredEffectsStopCounting() {
+        scheduler.register(character);
+        BuffDebuff removed = new BuffDebuff("Removed", AbilityType.STRENGTH, 1, 5);
+        BuffDebuff kept = new BuffDebuff("Kept", AbilityType.STRENGTH, 1, 5);
+        character.addBuffDebuff(removed);
+        character.addBuffDebuff(kept);
+
+        scheduler.advanceRound();
+        character.removeBuffDebuff(removed);
+        scheduler.unregister(character);
+        scheduler.advanceRounds(10);
+
+        assertEquals(4, removed.getDuration());
+        assertEquals(4, kept.getDuration());
+        assertEquals(1, character.getActiveBuffsDebuffs().size());
+    }
+}
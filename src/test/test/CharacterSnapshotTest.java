@@ -0,0 +1,139 @@
+package test;
+
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CharacterSnapshotTest {
+
+    private GameCharacter character;
+    private CharacterSnapshot first;
+
+    @BeforeEach
+    public void setup() {
+        character = new GameCharacter("Aria", 5);
+        character.updateAbilityScore(AbilityType.DEXTERITY, 16);
+        character.addSkill(new Skill(SkillType.STEALTH,
+                character.getAbilityScoreByType(AbilityType.DEXTERITY), true));
+        first = character.getSnapshot();
+    }
+
+    @Test
+    public void testSnapshotDescribesCharacter() {
+        assertEquals("Aria", first.getName());
+        assertEquals(5, first.getLevel());
+        assertEquals(3, first.getProficiencyBonus());
+        assertEquals(6, first.getAbilityScores().size());
+        assertEquals(16, first.getAbilityScoreByType(AbilityType.DEXTERITY).getScore());
+        assertEquals(3, first.getAbilityScoreByType(AbilityType.DEXTERITY).getModifier());
+        assertSame(ScoreValue.of(16), first.getSkills().get(0).getAssociatedValue());
+        assertEquals(AbilityType.DEXTERITY, first.getSkills().get(0).getAssociatedAbility());
+        assertTrue(first.getSkills().get(0).getIsProficient());
+        assertEquals(6, first.calculateSkillCheckModifier(SkillType.STEALTH));
+        assertEquals(3, first.calculateAbilityCheckModifier(AbilityType.DEXTERITY));
+        assertSame(first, character.getSnapshot());
+        assertThrows(UnsupportedOperationException.class, () -> first.getActiveBuffsDebuffs().clear());
+    }
+
+    @Test
+    public void testSnapshotTakenAfterEachChange() {
+        character.addBuffDebuff(new BuffDebuff("Bless", AbilityType.DEXTERITY, 2, 3));
+        CharacterSnapshot second = character.getSnapshot();
+        assertNotSame(first, second);
+        assertEquals(0, first.getActiveBuffsDebuffs().size());
+        assertEquals("Bless", second.getActiveBuffsDebuffs().get(0).getName());
+        assertEquals(3, second.getActiveBuffsDebuffs().get(0).getDuration());
+        assertEquals(8, second.calculateSkillCheckModifier(SkillType.STEALTH));
+        assertTrue(second.getModificationCount() > first.getModificationCount());
+
+        character.updateBuffsDebuffsDuration();
+        assertEquals(2, character.getSnapshot().getActiveBuffsDebuffs().get(0).getDuration());
+        character.setLevel(9);
+        assertEquals(4, character.getSnapshot().getProficiencyBonus());
+        assertEquals(5, first.getLevel());
+    }
+
+    @Test
+    public void testSnapshotTakenOnDemandAfterDurationUpdate() {
+        GameCharacter fresh = new GameCharacter("Brin", 1);
+        assertEquals("Brin", fresh.getSnapshot().getName());
+        assertEquals(6, fresh.getSnapshot().getAbilityScores().size());
+        assertEquals("Aria", character.copy().getSnapshot().getName());
+
+        character.addBuffDebuff(new BuffDebuff("Bless", AbilityType.DEXTERITY, 2, 3));
+        character.addBuffDebuff(new BuffDebuff("Bane", AbilityType.DEXTERITY, -1, 1));
+        CharacterSnapshot before = character.getSnapshot();
+        character.updateBuffsDebuffsDuration();
+        CharacterSnapshot after = character.getSnapshot();
+        assertTrue(after.getModificationCount() > before.getModificationCount());
+        assertEquals(1, after.getActiveBuffsDebuffs().size());
+        assertEquals(2, after.getActiveBuffsDebuffs().get(0).getDuration());
+        assertEquals(8, after.calculateSkillCheckModifier(SkillType.STEALTH));
+    }
+
+    @Test
+    public void testSnapshotOnlyRetakenWhenSheetChanges() {
+        character.addRoll(new Roll("Stealth", 12, 6));
+        assertSame(first, character.getSnapshot());
+        character.setLevel(6);
+        CharacterSnapshot second = character.getSnapshot();
+        assertNotSame(first, second);
+        assertSame(second, character.getSnapshot());
+    }
+
+    @Test
+    public void testSharedSnapshotsPublishedOncePerDurationUpdate() {
+        character.shareSnapshots();
+        character.addBuffDebuff(new BuffDebuff("Bless", AbilityType.DEXTERITY, 2, 3));
+        character.addBuffDebuff(new BuffDebuff("Bane", AbilityType.DEXTERITY, -1, 1));
+        CharacterSnapshot before = character.getSnapshot();
+        assertEquals(2, before.getActiveBuffsDebuffs().size());
+        character.updateBuffsDebuffsDuration();
+        CharacterSnapshot after = character.getSnapshot();
+        assertNotSame(before, after);
+        assertEquals(1, after.getActiveBuffsDebuffs().size());
+        assertSame(after, character.getSnapshot());
+    }
+
+    @Test
+    public void testSnapshotsShareUnchangedParts() {
+        character.updateAbilityScore(AbilityType.STRENGTH, 14);
+        CharacterSnapshot second = character.getSnapshot();
+        assertNotSame(first.getAbilityScores(), second.getAbilityScores());
+        assertSame(first.getAbilityScores().get(1), second.getAbilityScores().get(1));
+        assertSame(first.getSkills(), second.getSkills());
+        assertSame(first.getActiveBuffsDebuffs(), second.getActiveBuffsDebuffs());
+
+        character.getSkills().get(0).setProficiency(false);
+        CharacterSnapshot third = character.getSnapshot();
+        assertSame(second.getAbilityScores(), third.getAbilityScores());
+        assertNotSame(second.getSkills(), third.getSkills());
+        assertEquals(3, third.calculateSkillCheckModifier(SkillType.STEALTH));
+    }
+
+    @Test
+    public void testConcurrentReader() throws InterruptedException {
+        character.shareSnapshots();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 20000 && failure.get() == null; i++) {
+                CharacterSnapshot snapshot = character.getSnapshot();
+                int modifier = snapshot.getAbilityScoreByType(AbilityType.DEXTERITY).getModifier();
+                if (snapshot.calculateSkillCheckModifier(SkillType.STEALTH) != modifier + 3) {
+                    failure.set("Inconsistent snapshot " + snapshot.getModificationCount());
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 20000; i++) {
+            character.updateAbilityScore(AbilityType.DEXTERITY, 1 + i % 30);
+        }
+        reader.join();
+        assertNull(failure.get());
+        assertEquals(20, character.getSnapshot().getAbilityScoreByType(AbilityType.DEXTERITY).getScore());
+    }
+}
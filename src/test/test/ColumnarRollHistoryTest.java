@@ -0,0 +1,132 @@
+package test;
+
+import model.ColumnarRollHistory;
+import model.Roll;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarRollHistoryTest {
+
+    private ColumnarRollHistory growing;
+    private ColumnarRollHistory ring;
+
+    @BeforeEach
+    void runBefore() {
+        growing = new ColumnarRollHistory();
+        ring = new ColumnarRollHistory(3);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(0, growing.size());
+        assertFalse(growing.isRingBuffer());
+        assertTrue(ring.isRingBuffer());
+        assertEquals(3, ring.getCapacity());
+        assertNull(growing.getLastRoll());
+        assertTrue(growing.getRollList().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new ColumnarRollHistory(0));
+    }
+
+    @Test
+    public void testAddRollStoresColumns() {
+        growing.addRoll(new Roll("Strength check", 10, 2));
+        growing.addRoll("Dexterity check", 8, -1);
+        growing.addRoll("Strength check", 15, 3);
+
+        assertEquals(3, growing.size());
+        assertEquals(growing.getTypeCode(0), growing.getTypeCode(2));
+        assertEquals("Dexterity check", growing.getTypeName(growing.getTypeCode(1)));
+        assertEquals(8, growing.getBaseResult(1));
+        assertEquals(-1, growing.getAppliedModifier(1));
+        assertEquals(7, growing.getFinalOutcome(1));
+
+        Roll last = growing.getLastRoll();
+        assertEquals("Strength check", last.getType());
+        assertEquals(18, last.getFinalOutcome());
+    }
+
+    @Test
+    public void testGrowingKeepsEveryRoll() {
+        for (int i = 0; i < 100; i++) {
+            growing.addRoll("Check", i, 1);
+        }
+        assertEquals(100, growing.size());
+        assertEquals(100, growing.getTotalRollsAdded());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, growing.getBaseResult(i));
+        }
+    }
+
+    @Test
+    public void testRingOverwritesOldest() {
+        for (int i = 1; i <= 5; i++) {
+            ring.addRoll("Check", i, 0);
+        }
+        assertEquals(3, ring.size());
+        assertEquals(5, ring.getTotalRollsAdded());
+        List<Roll> rolls = ring.getRollList();
+        assertEquals(3, rolls.get(0).getBaseResult());
+        assertEquals(4, rolls.get(1).getBaseResult());
+        assertEquals(5, rolls.get(2).getBaseResult());
+        assertThrows(IndexOutOfBoundsException.class, () -> rolls.get(3));
+        assertThrows(UnsupportedOperationException.class, () -> rolls.add(new Roll("Check", 1, 0)));
+    }
+
+    @Test
+    public void testGetRecentRolls() {
+        for (int i = 1; i <= 5; i++) {
+            ring.addRoll("Check", i, 0);
+        }
+        List<Roll> recent = ring.getRecentRolls(2);
+        assertEquals(2, recent.size());
+        assertEquals(5, recent.get(0).getBaseResult());
+        assertEquals(4, recent.get(1).getBaseResult());
+        assertEquals(3, ring.getRecentRolls(10).size());
+    }
+
+    @Test
+    public void testRemoveRollAfterWrap() {
+        for (int i = 1; i <= 5; i++) {
+            ring.addRoll("Check", i, 0);
+        }
+        ring.removeRoll(new Roll("Check", 4, 0));
+        ring.removeRoll(new Roll("Missing", 4, 0));
+        assertEquals(2, ring.size());
+        assertEquals(3, ring.getBaseResult(0));
+        assertEquals(5, ring.getBaseResult(1));
+
+        ring.addRoll("Check", 6, 0);
+        ring.addRoll("Check", 7, 0);
+        assertEquals(3, ring.size());
+        assertEquals(5, ring.getBaseResult(0));
+        assertEquals(7, ring.getBaseResult(2));
+    }
+
+    @Test
+    public void testClearRollHistory() {
+        ring.addRoll("Check", 1, 0);
+        ring.clearRollHistory();
+        assertEquals(0, ring.size());
+        assertNull(ring.getLastRoll());
+        ring.addRoll("Check", 2, 0);
+        assertEquals(2, ring.getLastRoll().getBaseResult());
+    }
+
+    @Test
+    public void testToJson() {
+        ring.addRoll("Check", 1, 2);
+        ring.addRoll("Save", 3, 4);
+        JSONObject json = ring.toJson();
+        JSONArray rolls = json.getJSONArray("rolls");
+        assertEquals(2, rolls.length());
+        int typeIndex = rolls.getJSONObject(1).getInt("type");
+        assertEquals("Save", json.getJSONArray("rollTypes").getString(typeIndex));
+        assertEquals(7, rolls.getJSONObject(1).getInt("finalOutcome"));
+    }
+}
@@ -0,0 +1,169 @@
+package test;
+
+import model.Event;
+import model.EventLog;
+import model.EventSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventLogTest {
+
+    private final EventLog log = EventLog.getInstance();
+    private final List<EventSink> addedSinks = new ArrayList<>();
+
+    @AfterEach
+    void runAfter() {
+        log.setSinkErrorHandler(null);
+        log.setBackpressurePolicy(EventLog.BackpressurePolicy.BLOCK);
+        log.setSampleInterval(10);
+        for (EventSink sink : addedSinks) {
+            log.removeSink(sink);
+        }
+        log.flush();
+    }
+
+    @Test
+    public void testIterationSeesEventsLoggedBefore() {
+        Event event = new Event("EventLogTest iteration");
+        log.logEvent(event);
+        Event last = null;
+        for (Event e : log) {
+            last = e;
+        }
+        assertSame(event, last);
+    }
+
+    @Test
+    public void testClear() {
+        log.logEvent(new Event("EventLogTest before clear"));
+        log.clear();
+        Iterator<Event> events = log.iterator();
+        assertEquals("Event log cleared.", events.next().getDescription());
+        assertFalse(events.hasNext());
+    }
+
+    @Test
+    public void testConcurrentProducersDeliverEveryEventInOrder() throws InterruptedException {
+        int threads = 4;
+        int perThread = 20_000;
+        int[][] received = new int[threads][1];
+        List<String> errors = new ArrayList<>();
+        addSink(batch -> {
+            for (Event e : batch) {
+                String[] parts = e.getDescription().split(" ");
+                if (parts.length == 3 && parts[0].equals("EventLogTest-producer")) {
+                    int producer = Integer.parseInt(parts[1]);
+                    if (Integer.parseInt(parts[2]) != received[producer][0]++) {
+                        errors.add(e.getDescription());
+                    }
+                }
+            }
+        });
+
+        runProducers(threads, perThread);
+        log.flush();
+
+        assertTrue(errors.isEmpty());
+        for (int t = 0; t < threads; t++) {
+            assertEquals(perThread, received[t][0]);
+        }
+    }
+
+    @Test
+    public void testDropPolicyDiscardsWhenFull() throws InterruptedException {
+        CountDownLatch release = blockDrainer();
+        log.setBackpressurePolicy(EventLog.BackpressurePolicy.DROP);
+        long droppedBefore = log.getDroppedCount();
+        for (int i = 0; i < EventLog.RING_CAPACITY + 50; i++) {
+            log.logEvent(new Event("EventLogTest drop"));
+        }
+        release.countDown();
+        assertTrue(log.getDroppedCount() - droppedBefore >= 50);
+    }
+
+    @Test
+    public void testSamplePolicyThinsEventsWhenNearlyFull() throws InterruptedException {
+        CountDownLatch release = blockDrainer();
+        log.setBackpressurePolicy(EventLog.BackpressurePolicy.SAMPLE);
+        log.setSampleInterval(10);
+        long droppedBefore = log.getDroppedCount();
+        for (int i = 0; i < EventLog.RING_CAPACITY; i++) {
+            log.logEvent(new Event("EventLogTest sample"));
+        }
+        release.countDown();
+        long dropped = log.getDroppedCount() - droppedBefore;
+        assertTrue(dropped >= EventLog.RING_CAPACITY / 8);
+        assertTrue(dropped <= EventLog.RING_CAPACITY / 4);
+        assertThrows(IllegalArgumentException.class, () -> log.setSampleInterval(0));
+    }
+
+    @Test
+    public void testSinkFailuresAreCountedAndReported() {
+        List<RuntimeException> reported = new ArrayList<>();
+        log.setSinkErrorHandler(reported::add);
+        addSink(batch -> {
+            throw new IllegalStateException("EventLogTest sink failure");
+        });
+        long failuresBefore = log.getSinkFailureCount();
+        log.logEvent(new Event("EventLogTest failing sink"));
+        log.flush();
+        log.setSinkErrorHandler(null);
+
+        assertTrue(log.getSinkFailureCount() > failuresBefore);
+        assertFalse(reported.isEmpty());
+        assertEquals("EventLogTest sink failure", reported.get(0).getMessage());
+    }
+
+    // EFFECTS: logs perThread numbered events from each of threads producer threads and waits for them to finish
+    private void runProducers(int threads, int perThread) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int producer = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    log.logEvent(new Event("EventLogTest-producer " + producer + " " + i));
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    // EFFECTS: adds a sink that stops the drain thread until the returned latch is released
+    private CountDownLatch blockDrainer() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        addSink(batch -> {
+            if (entered.getCount() > 0) {
+                entered.countDown();
+                awaitQuietly(release);
+            }
+        });
+        log.logEvent(new Event("EventLogTest block"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private void addSink(EventSink sink) {
+        addedSinks.add(sink);
+        log.addSink(sink);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package test;
+
+import model.AbilityType;
+import model.Event;
+import model.EventTemplate;
+import model.SkillType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventTest {
+
+    @Test
+    public void testTextEvent() {
+        Event event = new Event("Something happened");
+        assertEquals(EventTemplate.TEXT, event.getTemplate());
+        assertEquals("Something happened", event.getDescription());
+        assertEquals(event.getTimestamp(), event.getDate().getTime());
+        assertTrue(event.toString().endsWith("\nSomething happened"));
+    }
+
+    @Test
+    public void testTemplatesFormatLikeTheOriginalMessages() {
+        assertEquals("GameCharacter created with name: Aria and level: 3",
+                new Event(EventTemplate.CHARACTER_CREATED, "Aria", 3).getDescription());
+        assertEquals("Skill added to Aria: STEALTH",
+                new Event(EventTemplate.SKILL_ADDED, "Aria", SkillType.STEALTH).getDescription());
+        assertEquals("Strength check roll added to Aria's history: 17",
+                new Event(EventTemplate.ROLL_ADDED, "Strength check", "Aria", 17).getDescription());
+        assertEquals("Buff/Debuff added to Aria: Bless (WISDOM, -2, Duration: 3 rounds)",
+                new Event(0, EventTemplate.BUFF_DEBUFF_ADDED, "Aria", "Bless", AbilityType.WISDOM, -2, 3)
+                        .getDescription());
+        assertEquals("Event log cleared.", new Event(EventTemplate.LOG_CLEARED, null).getDescription());
+    }
+
+    @Test
+    public void testArguments() {
+        Event event = new Event(5, EventTemplate.BUFF_DEBUFF_REMOVED, "Aria", "Bane", AbilityType.DEXTERITY, 1, 2);
+        assertEquals("Aria", event.getArgument(0));
+        assertEquals(AbilityType.DEXTERITY, event.getArgument(2));
+        assertEquals(2, event.getNumber(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> event.getArgument(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> event.getNumber(2));
+    }
+
+    @Test
+    public void testEqualsComparesTimeAndDescription() {
+        Event text = new Event(7, EventTemplate.TEXT, "Character saved: Aria", null, null, 0, 0);
+        Event templated = new Event(7, EventTemplate.CHARACTER_SAVED, "Aria", null, null, 0, 0);
+        Event later = new Event(8, EventTemplate.CHARACTER_SAVED, "Aria", null, null, 0, 0);
+        assertEquals(text, templated);
+        assertEquals(text.hashCode(), templated.hashCode());
+        assertNotEquals(templated, later);
+        assertNotEquals(templated, null);
+        assertNotEquals(templated, "Character saved: Aria");
+    }
+}
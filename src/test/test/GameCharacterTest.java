@@ -348,8 +348,181 @@ public class GameCharacterTest {
         assertNull(result);
     }
 
+    @Test
+    public void testLookupsFollowListViewChanges() {
+        AbilityScore replacement = new AbilityScore(AbilityType.WISDOM, 18);
+        character.getAbilityScores().removeIf(ability -> ability.getType() == AbilityType.WISDOM);
+        assertFalse(character.hasAbility(AbilityType.WISDOM));
+        assertNull(character.getAbilityScoreByType(AbilityType.WISDOM));
 
+        character.getAbilityScores().add(0, replacement);
+        assertSame(replacement, character.getAbilityScoreByType(AbilityType.WISDOM));
+        assertSame(replacement, character.getAbilityScores().get(0));
+        assertEquals(6, character.getAbilityScores().size());
+    }
 
+    @Test
+    public void testIsProficientInSkillWithDuplicateSkills() {
+        character.addSkill(new Skill(SkillType.ACROBATICS, testAbility, false));
+        character.addSkill(new Skill(SkillType.ACROBATICS, testAbility, true));
+        assertTrue(character.isProficientInSkill(SkillType.ACROBATICS));
+
+        character.getSkills().remove(1);
+        assertFalse(character.isProficientInSkill(SkillType.ACROBATICS));
+    }
+
+    @Test
+    public void testModifierTablesFollowChanges() {
+        Skill athletics = new Skill(SkillType.ATHLETICS,
+                character.getAbilityScoreByType(AbilityType.STRENGTH), false);
+        character.addSkill(athletics);
+        assertEquals(0, character.calculateSkillCheckModifier(SkillType.ATHLETICS));
+
+        character.getAbilityScoreByType(AbilityType.STRENGTH).setScore(16);
+        assertEquals(3, character.calculateSkillCheckModifier(SkillType.ATHLETICS));
+        assertEquals(3, character.calculateAbilityCheckModifier(AbilityType.STRENGTH));
+
+        athletics.setProficiency(true);
+        assertEquals(7, character.calculateSkillCheckModifier(SkillType.ATHLETICS));
+
+        character.setLevel(17);
+        assertEquals(9, character.calculateSkillCheckModifier(SkillType.ATHLETICS));
+
+        character.addBuffDebuff(testBuff);
+        assertEquals(11, character.calculateSkillCheckModifier(SkillType.ATHLETICS));
+        testBuff.setEffectMagnitude(-1);
+        assertEquals(8, character.calculateSkillCheckModifier(SkillType.ATHLETICS));
+        testBuff.setEffectAbility(AbilityType.DEXTERITY);
+        assertEquals(9, character.calculateSkillCheckModifier(SkillType.ATHLETICS));
+        assertEquals(-1, character.calculateAbilityCheckModifier(AbilityType.DEXTERITY));
+
+        character.removeBuffDebuff(testBuff);
+        assertEquals(0, character.calculateAbilityCheckModifier(AbilityType.DEXTERITY));
+        testBuff.setEffectMagnitude(5);
+        assertEquals(0, character.calculateAbilityCheckModifier(AbilityType.DEXTERITY));
+    }
+
+    @Test
+    public void testModifierTablesFollowExpiredBuffs() {
+        character.addBuffDebuff(new BuffDebuff("Temp Buff", AbilityType.CHARISMA, 2, 1));
+        assertEquals(2, character.calculateAbilityCheckModifier(AbilityType.CHARISMA));
+        character.updateBuffsDebuffsDuration();
+        assertEquals(0, character.calculateAbilityCheckModifier(AbilityType.CHARISMA));
+    }
+
+    @Test
+    public void testModificationCountFollowsChanges() {
+        long count = character.getModificationCount();
+        assertEquals(count, character.getModificationCount());
+        character.calculateSkillCheckModifier(SkillType.ACROBATICS);
+        assertEquals(count, character.getModificationCount());
+
+        character.updateAbilityScore(AbilityType.STRENGTH, 14);
+        count = assertModified(count);
+        character.setLevel(11);
+        count = assertModified(count);
+        character.addSkill(testSkill);
+        count = assertModified(count);
+        testSkill.setProficiency(false);
+        count = assertModified(count);
+        character.addBuffDebuff(testBuff);
+        count = assertModified(count);
+        testBuff.incrementDuration(2);
+        count = assertModified(count);
+        character.updateBuffsDebuffsDuration();
+        count = assertModified(count);
+        character.addRoll(testRoll);
+        count = assertModified(count);
+        character.getRollHistory().clearRollHistory();
+        assertModified(count);
+    }
+
+    @Test
+    public void testModificationCountFollowsScheduledDurations() {
+        BuffDebuffScheduler scheduler = new BuffDebuffScheduler();
+        scheduler.register(character);
+        long count = character.getModificationCount();
+        scheduler.advanceRound();
+        assertEquals(count, character.getModificationCount());
+
+        character.addBuffDebuff(testBuff);
+        count = assertModified(count);
+        scheduler.advanceRound();
+        count = assertModified(count);
+        assertEquals(count, character.getModificationCount());
+    }
+
+    // EFFECTS: fails unless the character's modification count grew past count; returns the new count
+    private long assertModified(long count) {
+        long newCount = character.getModificationCount();
+        assertTrue(newCount > count);
+        return newCount;
+    }
+
+    @Test
+    public void testLazyRollHistoryLoadsOnce() {
+        int[] loads = new int[1];
+        GameCharacter lazy = new GameCharacter("Lazy", 2, () -> {
+            loads[0]++;
+            RollHistory history = new RollHistory();
+            history.addRoll(testRoll);
+            return history;
+        });
+        long count = lazy.getModificationCount();
+        lazy.updateAbilityScore(AbilityType.WISDOM, 12);
+        assertEquals(0, loads[0]);
+        assertFalse(lazy.isRollHistoryLoaded());
+
+        count = lazy.getModificationCount();
+        assertEquals(testRoll, lazy.getRollHistory().getLastRoll());
+        assertEquals(count, lazy.getModificationCount());
+        lazy.addRoll(new Roll("Wisdom save", 3, 1));
+        assertTrue(lazy.getModificationCount() > count);
+        assertEquals(2, lazy.getRollHistory().size());
+        assertEquals(1, loads[0]);
+    }
 
-}
 
+    @Test
+    public void testCopy() {
+        character.updateAbilityScore(AbilityType.STRENGTH, 16);
+        AbilityScore strength = character.getAbilityScoreByType(AbilityType.STRENGTH);
+        character.addSkill(new Skill(SkillType.ATHLETICS, strength, true));
+        character.addSkill(testSkill);
+        character.addBuffDebuff(testBuff);
+        character.addRoll(testRoll);
+        int modifier = character.calculateSkillCheckModifier(SkillType.ATHLETICS);
+
+        GameCharacter copy = character.copy();
+        assertTrue(copy.hasSameSheet(character));
+        assertEquals(modifier, copy.calculateSkillCheckModifier(SkillType.ATHLETICS));
+        assertEquals(0, copy.getRollHistory().size());
+        assertSame(strength.getValue(), copy.getAbilityScoreByType(AbilityType.STRENGTH).getValue());
+        assertSame(copy.getAbilityScoreByType(AbilityType.STRENGTH), copy.getSkills().get(0).getAssociatedAbility());
+        assertNotSame(testAbility, copy.getSkills().get(1).getAssociatedAbility());
+
+        copy.updateAbilityScore(AbilityType.STRENGTH, 8);
+        assertEquals(16, strength.getScore());
+        assertEquals(modifier - 4, copy.calculateSkillCheckModifier(SkillType.ATHLETICS));
+        assertFalse(copy.hasSameSheet(character));
+    }
+
+    @Test
+    public void testHasSameSheet() {
+        character.addBuffDebuff(testBuff);
+        GameCharacter other = new GameCharacter("TestChar", 10);
+        assertFalse(character.hasSameSheet(other));
+        other.addBuffDebuff(new BuffDebuff("Strength Boost", AbilityType.STRENGTH, 2, 4));
+        assertFalse(character.hasSameSheet(other));
+        other.getActiveBuffsDebuffs().get(0).incrementDuration(1);
+        assertTrue(character.hasSameSheet(other));
+
+        character.addSkill(testSkill);
+        other.addSkill(new Skill(SkillType.ACROBATICS, new AbilityScore(AbilityType.STRENGTH, 11), true));
+        assertFalse(character.hasSameSheet(other));
+        other.getSkills().get(0).getAssociatedAbility().setScore(10);
+        assertTrue(character.hasSameSheet(other));
+        other.setLevel(11);
+        assertFalse(character.hasSameSheet(other));
+    }
+}
@@ -0,0 +1,75 @@
+package test;
+
+import model.*;
+import model.dice.DiceExpression;
+import model.dice.DiceRandomSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollBatchTest {
+
+    private GameCharacter character;
+
+    @BeforeEach
+    void runBefore() {
+        character = new GameCharacter("Batcher", 5);
+        character.updateAbilityScore(AbilityType.DEXTERITY, 16);
+        character.addSkill(new Skill(SkillType.STEALTH, character.getAbilityScoreByType(AbilityType.DEXTERITY),
+                true));
+        character.addBuffDebuff(new BuffDebuff("Pass without Trace", AbilityType.DEXTERITY, 10, 3));
+    }
+
+    @Test
+    public void testSkillCheckModifier() {
+        // +3 from Dexterity, +3 proficiency at level 5, +10 from the buff
+        assertEquals(16, character.calculateSkillCheckModifier(SkillType.STEALTH));
+        assertEquals(13, character.calculateAbilityCheckModifier(AbilityType.DEXTERITY));
+        assertEquals(0, character.calculateSkillCheckModifier(SkillType.ARCANA));
+    }
+
+    @Test
+    public void testBatchMatchesSingleRolls() {
+        int count = 1000;
+        int[] base = new int[count];
+        int[] modifiers = new int[count];
+        int[] totals = new int[count];
+        RollBatch.rollSkillChecks(character, SkillType.STEALTH, DiceRandomSource.seeded(11),
+                base, modifiers, totals, 0, count);
+
+        DiceExpression d20 = DiceExpression.compile("1d20");
+        DiceRandomSource single = DiceRandomSource.seeded(11);
+        for (int i = 0; i < count; i++) {
+            int diceRoll = d20.roll(single);
+            int modifier = character.calculateSkillCheckModifier(SkillType.STEALTH);
+            Roll roll = new Roll("STEALTH check", diceRoll, modifier);
+            assertEquals(roll.getBaseResult(), base[i]);
+            assertEquals(roll.getAppliedModifier(), modifiers[i]);
+            assertEquals(roll.getFinalOutcome(), totals[i]);
+        }
+    }
+
+    @Test
+    public void testAbilityChecksWithOffsetAndNullBuffers() {
+        int[] base = new int[10];
+        RollBatch.rollAbilityChecks(character, AbilityType.DEXTERITY, DiceRandomSource.seeded(3),
+                base, null, null, 4, 6);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, base[i]);
+        }
+        for (int i = 4; i < 10; i++) {
+            assertTrue(base[i] >= 1 && base[i] <= 20);
+        }
+    }
+
+    @Test
+    public void testBufferTooSmall() {
+        try {
+            RollBatch.rollChecks(0, DiceRandomSource.seeded(3), new int[5], null, null, 2, 4);
+            fail("IndexOutOfBoundsException expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package test;
+
+import model.AbilityType;
+import model.ColumnarRollHistory;
+import model.Roll;
+import model.RollHistory;
+import model.RollStatistics;
+import model.RollType;
+import model.SkillType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollStatisticsTest {
+
+    private RollHistory rollHistory;
+    private RollStatistics stats;
+
+    @BeforeEach
+    void runBefore() {
+        rollHistory = new RollHistory();
+        stats = rollHistory.getStatistics();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getMean());
+        assertEquals(0, stats.getVariance());
+        assertEquals(0, stats.getNatural20Rate());
+        assertThrows(IllegalArgumentException.class, () -> stats.getMedian());
+    }
+
+    @Test
+    public void testMeanAndVariance() {
+        rollHistory.addRoll(new Roll("Strength check", 10, 2));
+        rollHistory.addRoll(new Roll("Strength check", 4, 2));
+        rollHistory.addRoll(new Roll("Dexterity check", 20, 0));
+        rollHistory.addRoll(new Roll("Dexterity check", 1, 3));
+
+        // Final outcomes 12, 6, 20, 4
+        assertEquals(4, stats.getCount());
+        assertEquals(10.5, stats.getMean(), 1e-9);
+        assertEquals(38.75, stats.getVariance(), 1e-9);
+        assertEquals(Math.sqrt(38.75), stats.getStandardDeviation(), 1e-9);
+        assertEquals(2, stats.getCountForType("Strength check"));
+        assertEquals(0, stats.getCountForType("Wisdom check"));
+        assertEquals(0.25, stats.getNatural20Rate(), 1e-9);
+        assertEquals(0.25, stats.getNatural1Rate(), 1e-9);
+        assertEquals(1, stats.getBaseResultCount(10));
+    }
+
+    @Test
+    public void testPercentiles() {
+        for (int i = 1; i <= 20; i++) {
+            rollHistory.addRoll(new Roll("Check", i, 5));
+        }
+        assertEquals(15, stats.getMedian());
+        assertEquals(6, stats.getPercentile(0));
+        assertEquals(24, stats.getPercentile(0.95));
+        assertEquals(25, stats.getPercentile(1));
+    }
+
+    @Test
+    public void testOutcomesOutsideTrackedRangeAreClamped() {
+        rollHistory.addRoll(new Roll("Damage", 150, 10));
+        assertEquals(1, stats.getOtherBaseResultCount());
+        assertEquals(1, stats.getOutcomeCount(RollStatistics.MAX_TRACKED_OUTCOME));
+        assertEquals(RollStatistics.MAX_TRACKED_OUTCOME, stats.getMedian());
+        assertEquals(160, stats.getMean(), 1e-9);
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        Roll roll1 = new Roll("Strength check", 10, 2);
+        Roll roll2 = new Roll("Dexterity check", 20, 0);
+        rollHistory.addRoll(roll1);
+        rollHistory.addRoll(roll2);
+        rollHistory.removeRoll(roll2);
+        rollHistory.removeRoll(roll2);
+
+        assertEquals(1, stats.getCount());
+        assertEquals(12, stats.getMean(), 1e-9);
+        assertEquals(0, stats.getVariance(), 1e-9);
+        assertEquals(0, stats.getNatural20Rate());
+        assertFalse(stats.getTypeCounts().containsKey("Dexterity check"));
+
+        rollHistory.clearRollHistory();
+        assertEquals(0, stats.getCount());
+        assertTrue(stats.getTypeCounts().isEmpty());
+    }
+
+    @Test
+    public void testCheckAndCustomTypeCounts() {
+        rollHistory.addRoll(new Roll(RollType.skillCheck(SkillType.STEALTH), 10, 2));
+        rollHistory.addRoll(new Roll("Wild magic surge", 7, 0));
+        rollHistory.addRoll(new Roll("Wild magic surge", 3, 0));
+
+        assertEquals(1, stats.getCountForType(RollType.skillCheck(SkillType.STEALTH)));
+        assertEquals(0, stats.getCountForType(RollType.abilityCheck(AbilityType.WISDOM)));
+        assertEquals(2, stats.getCountForType("Wild magic surge"));
+        assertEquals(0, new RollHistory().getStatistics().getCountForType("Wild magic surge"));
+        assertEquals(2, stats.getTypeCounts().size());
+        assertEquals(2L, stats.getTypeCounts().get("Wild magic surge"));
+    }
+
+    @Test
+    public void testConstructedFromExistingRolls() {
+        List<Roll> rolls = new ArrayList<>();
+        rolls.add(new Roll("Check", 8, 1));
+        rolls.add(new Roll("Check", 12, 1));
+        RollStatistics seeded = new RollHistory(rolls).getStatistics();
+        assertEquals(2, seeded.getCount());
+        assertEquals(11, seeded.getMean(), 1e-9);
+    }
+
+    @Test
+    public void testRingBufferStatisticsCoverHeldRolls() {
+        ColumnarRollHistory ring = new ColumnarRollHistory(2);
+        ring.addRoll("Check", 20, 0);
+        ring.addRoll("Check", 4, 0);
+        ring.addRoll("Check", 6, 0);
+        RollStatistics ringStats = ring.getStatistics();
+        assertEquals(2, ringStats.getCount());
+        assertEquals(5, ringStats.getMean(), 1e-9);
+        assertEquals(0, ringStats.getNatural20Rate());
+        ring.removeRoll(new Roll("Check", 4, 0));
+        assertEquals(6, ringStats.getMean(), 1e-9);
+    }
+}
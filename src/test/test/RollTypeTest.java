@@ -0,0 +1,71 @@
+package test;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollTypeTest {
+
+    @Test
+    public void testSkillAndAbilityChecks() {
+        RollType stealth = RollType.skillCheck(SkillType.STEALTH);
+        assertEquals(SkillType.STEALTH.ordinal(), stealth.getCode());
+        assertEquals(SkillType.STEALTH, stealth.getSkill());
+        assertNull(stealth.getAbility());
+        assertFalse(stealth.isCustom());
+        assertEquals("STEALTH check", stealth.getName());
+        assertEquals("STEALTH check", stealth.toString());
+
+        RollType strength = RollType.abilityCheck(AbilityType.STRENGTH);
+        assertEquals(SkillType.values().length + AbilityType.STRENGTH.ordinal(), strength.getCode());
+        assertEquals(AbilityType.STRENGTH, strength.getAbility());
+        assertSame(strength, RollType.named("STRENGTH check"));
+        assertSame(strength, RollType.forCode(strength.getCode()));
+    }
+
+    @Test
+    public void testCustomRollTypes() {
+        RollType custom = RollType.named("RollTypeTest custom");
+        assertTrue(custom.isCustom());
+        assertNull(custom.getSkill());
+        assertEquals("RollTypeTest custom", custom.getName());
+        assertTrue(custom.getCode() >= SkillType.values().length + AbilityType.values().length);
+        assertTrue(custom.getCode() < RollType.getCodeLimit());
+        assertSame(custom, RollType.named("RollTypeTest custom"));
+        assertSame(custom, RollType.find("RollTypeTest custom"));
+        assertSame(custom, RollType.forCode(custom.getCode()));
+    }
+
+    @Test
+    public void testLookupFailures() {
+        assertNull(RollType.find("RollTypeTest never named"));
+        assertNull(RollType.find(null));
+        assertThrows(IllegalArgumentException.class, () -> RollType.named(null));
+        assertThrows(IllegalArgumentException.class, () -> RollType.forCode(-1));
+        assertThrows(IllegalArgumentException.class, () -> RollType.forCode(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testRollsShareRollTypes() {
+        Roll first = new Roll("Perception check", 10, 2);
+        Roll second = new Roll(first.getRollType(), 4, 0);
+        assertSame(first.getRollType(), second.getRollType());
+        assertEquals("Perception check", second.getType());
+    }
+
+    @Test
+    public void testRollTypeTable() {
+        RollHistory history = new RollHistory();
+        history.addRoll(new Roll(RollType.skillCheck(SkillType.ARCANA), 1, 0));
+        history.addRoll(new Roll("RollTypeTest table", 2, 0));
+        history.addRoll(new Roll(RollType.skillCheck(SkillType.ARCANA), 3, 0));
+
+        RollTypeTable table = RollTypeTable.of(history);
+        assertEquals(2, table.size());
+        assertEquals(0, table.indexOf(RollType.skillCheck(SkillType.ARCANA)));
+        assertEquals(1, table.indexOf(RollType.named("RollTypeTest table")));
+        assertEquals(2, table.indexOf(RollType.abilityCheck(AbilityType.WISDOM)));
+        assertEquals(RollType.abilityCheck(AbilityType.WISDOM), table.getTypes().get(2));
+    }
+}
@@ -0,0 +1,119 @@
+package test.dice;
+
+import model.dice.DiceCompiler;
+import model.dice.DiceExpression;
+import model.dice.DiceRandomSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiceExpressionTest {
+
+    private DiceRandomSource random;
+
+    @BeforeEach
+    void runBefore() {
+        random = DiceRandomSource.seeded(42);
+    }
+
+    @Test
+    public void testCompileSimpleDie() {
+        DiceExpression d20 = DiceExpression.compile("d20");
+        assertEquals(1, d20.getTermCount());
+        assertEquals(1, d20.getMinimum());
+        assertEquals(20, d20.getMaximum());
+
+        for (int i = 0; i < 1000; i++) {
+            int roll = d20.roll(random);
+            assertTrue(roll >= 1 && roll <= 20);
+        }
+    }
+
+    @Test
+    public void testCompileWithConstants() {
+        DiceExpression expression = DiceExpression.compile("1d8 + 2d6 - 1");
+        assertEquals(2, expression.getTermCount());
+        assertEquals(-1, expression.getConstant());
+        assertEquals(2, expression.getMinimum());
+        assertEquals(19, expression.getMaximum());
+    }
+
+    @Test
+    public void testCompileFlatNumber() {
+        DiceExpression expression = DiceExpression.compile("7");
+        assertEquals(0, expression.getTermCount());
+        assertEquals(7, expression.roll(random));
+    }
+
+    @Test
+    public void testKeepHighest() {
+        DiceExpression expression = DiceExpression.compile("4d6kh3+2");
+        assertEquals(5, expression.getMinimum());
+        assertEquals(20, expression.getMaximum());
+
+        for (int i = 0; i < 1000; i++) {
+            int roll = expression.roll(random);
+            assertTrue(roll >= 5 && roll <= 20);
+        }
+    }
+
+    @Test
+    public void testKeepLowestIsNeverAboveKeepHighest() {
+        DiceExpression advantage = DiceExpression.compile("2d20kh1");
+        DiceExpression disadvantage = DiceExpression.compile("2d20kl1");
+
+        for (int i = 0; i < 1000; i++) {
+            long seed = random.nextInt(Integer.MAX_VALUE);
+            assertTrue(disadvantage.roll(DiceRandomSource.seeded(seed))
+                    <= advantage.roll(DiceRandomSource.seeded(seed)));
+        }
+    }
+
+    @Test
+    public void testExploding() {
+        DiceExpression expression = DiceExpression.compile("8d6!");
+        assertEquals(8, expression.getMinimum());
+
+        boolean exploded = false;
+        for (int i = 0; i < 1000; i++) {
+            int roll = expression.roll(random);
+            assertTrue(roll >= 8);
+            exploded = exploded || roll > 48;
+        }
+        assertTrue(exploded);
+    }
+
+    @Test
+    public void testSameSeedSameResults() {
+        DiceExpression expression = DiceExpression.compile("4d6kh3+2");
+        DiceRandomSource first = DiceRandomSource.seeded(7);
+        DiceRandomSource second = DiceRandomSource.seeded(7);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(expression.roll(first), expression.roll(second));
+        }
+    }
+
+    @Test
+    public void testCompileIsCached() {
+        DiceCompiler.clearCache();
+        DiceExpression first = DiceCompiler.compile("3d8+4");
+        DiceExpression second = DiceCompiler.compile("3d8+4");
+        assertSame(first, second);
+        assertEquals(1, DiceCompiler.cacheSize());
+        assertEquals("3d8+4", first.getSource());
+    }
+
+    @Test
+    public void testInvalidExpressions() {
+        String[] invalid = {"", "d", "2d", "4d6kh5", "4d6kh0", "1d1!", "d20+", "d20*2", "0d6", "3x"};
+        for (String expression : invalid) {
+            try {
+                DiceCompiler.compile(expression);
+                fail("IllegalArgumentException expected for " + expression);
+            } catch (IllegalArgumentException e) {
+                // pass
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package test.dice;
+
+import model.dice.DiceRandomSource;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+// Throughput benchmark comparing the random generators available for rolling d20s.
+// Run main directly; it is not part of the unit test suite. Each generator is measured single-threaded and
+// with one thread per available core, after a warm-up pass so the JIT has compiled the rolling loops.
+
+public class DiceRandomSourceBenchmark {
+    private static final int ROLLS_PER_THREAD = 20_000_000;
+    private static volatile int sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Random shared = new Random();
+
+        Supplier<DiceRandomSource> mathRandom = () -> new LegacySource(null);
+        Supplier<DiceRandomSource> sharedRandom = () -> new LegacySource(shared);
+        Supplier<DiceRandomSource> threadLocal = DiceRandomSource::threadLocal;
+        Supplier<DiceRandomSource> splittable = DiceRandomSource::newStream;
+
+        int[] threadCounts = threads == 1 ? new int[] {1} : new int[] {1, threads};
+        for (int pass = 0; pass < 2; pass++) {
+            System.out.println(pass == 0 ? "Warm-up" : "Measured");
+            for (int n : threadCounts) {
+                report("Math.random()", n, mathRandom);
+                report("shared java.util.Random", n, sharedRandom);
+                report("ThreadLocalRandom", n, threadLocal);
+                report("SplittableRandom per thread", n, splittable);
+            }
+        }
+    }
+
+    // EFFECTS: rolls ROLLS_PER_THREAD d20s on each of n threads and prints the combined rolls per second
+    private static void report(String name, int n, Supplier<DiceRandomSource> sources)
+            throws InterruptedException {
+        Thread[] workers = new Thread[n];
+        for (int i = 0; i < n; i++) {
+            DiceRandomSource source = sources.get();
+            workers[i] = new Thread(() -> sink += rollMany(source));
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %-30s %2d thread(s): %,15.0f rolls/sec%n", name, n, n * ROLLS_PER_THREAD / seconds);
+    }
+
+    // EFFECTS: rolls ROLLS_PER_THREAD d20s from source and returns their sum
+    private static int rollMany(DiceRandomSource source) {
+        int total = 0;
+        for (int i = 0; i < ROLLS_PER_THREAD; i++) {
+            total += source.roll(20);
+        }
+        return total;
+    }
+
+    // The pre-existing rolling approaches, wrapped as sources for comparison
+    private static final class LegacySource implements DiceRandomSource {
+        private final Random random;    // Shared Random, or null to use Math.random()
+
+        LegacySource(Random random) {
+            this.random = random;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return random == null ? (int) (Math.random() * bound) : random.nextInt(bound);
+        }
+
+        @Override
+        public DiceRandomSource split() {
+            return this;
+        }
+    }
+}
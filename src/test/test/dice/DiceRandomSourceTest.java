@@ -0,0 +1,77 @@
+package test.dice;
+
+import model.dice.DiceRandomSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiceRandomSourceTest {
+
+    @Test
+    public void testRollStaysInRange() {
+        DiceRandomSource source = DiceRandomSource.seeded(1);
+        boolean[] seen = new boolean[21];
+        for (int i = 0; i < 10000; i++) {
+            int roll = source.roll(20);
+            assertTrue(roll >= 1 && roll <= 20);
+            seen[roll] = true;
+        }
+        for (int face = 1; face <= 20; face++) {
+            assertTrue(seen[face], "Face " + face + " was never rolled");
+        }
+    }
+
+    @Test
+    public void testSeededSourcesReplay() {
+        DiceRandomSource first = DiceRandomSource.seeded(1234);
+        DiceRandomSource second = DiceRandomSource.seeded(1234);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.roll(20), second.roll(20));
+        }
+    }
+
+    @Test
+    public void testSplitIsDeterministicAndIndependent() {
+        DiceRandomSource first = DiceRandomSource.seeded(99).split();
+        DiceRandomSource second = DiceRandomSource.seeded(99).split();
+        DiceRandomSource parent = DiceRandomSource.seeded(99);
+        parent.split();
+
+        int same = 0;
+        for (int i = 0; i < 1000; i++) {
+            int roll = first.roll(20);
+            assertEquals(roll, second.roll(20));
+            if (roll == parent.roll(20)) {
+                same++;
+            }
+        }
+        assertTrue(same < 200, "Split stream should not track its parent");
+    }
+
+    @Test
+    public void testRollsAreUnbiased() {
+        DiceRandomSource source = DiceRandomSource.seeded(5);
+        int[] counts = new int[7];
+        int rolls = 600000;
+        for (int i = 0; i < rolls; i++) {
+            counts[source.roll(6)]++;
+        }
+        double chiSquared = 0;
+        for (int face = 1; face <= 6; face++) {
+            double expected = rolls / 6.0;
+            chiSquared += (counts[face] - expected) * (counts[face] - expected) / expected;
+        }
+        assertTrue(chiSquared < 20.5, "Chi-squared too large: " + chiSquared);
+    }
+
+    @Test
+    public void testThreadLocalSource() {
+        DiceRandomSource source = DiceRandomSource.threadLocal();
+        assertSame(source, DiceRandomSource.threadLocal());
+        for (int i = 0; i < 1000; i++) {
+            int roll = source.roll(12);
+            assertTrue(roll >= 1 && roll <= 12);
+        }
+        assertNotNull(source.split());
+    }
+}
@@ -0,0 +1,98 @@
+package test.dice;
+
+import model.dice.DistributionCalculator;
+import model.dice.RollDistribution;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollDistributionTest {
+
+    private static final double EPSILON = 1e-12;
+
+    @Test
+    public void testSingleD20() {
+        RollDistribution d20 = DistributionCalculator.distributionOf("1d20");
+        assertEquals(1, d20.getMinimum());
+        assertEquals(20, d20.getMaximum());
+        assertEquals(0.05, d20.probabilityOf(7), EPSILON);
+        assertEquals(0.0, d20.probabilityOf(21), EPSILON);
+        assertEquals(10.5, d20.mean(), EPSILON);
+    }
+
+    @Test
+    public void testModifierShiftsDistribution() {
+        RollDistribution check = DistributionCalculator.distributionOf("1d20", 5);
+        assertEquals(6, check.getMinimum());
+        assertEquals(25, check.getMaximum());
+        assertEquals(0.55, check.chanceToBeat(15), EPSILON);
+        assertEquals(1.0, check.chanceToBeat(6), EPSILON);
+        assertEquals(0.0, check.chanceToBeat(26), EPSILON);
+        assertEquals(0.45, check.probabilityAtMost(14), EPSILON);
+    }
+
+    @Test
+    public void testRepeatedQueriesAreCached() {
+        RollDistribution first = DistributionCalculator.distributionOf("2d6", 3);
+        RollDistribution second = DistributionCalculator.distributionOf("2d6", 3);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testTwoD6() {
+        RollDistribution twoD6 = DistributionCalculator.distributionOf("2d6");
+        assertEquals(6.0 / 36, twoD6.probabilityOf(7), EPSILON);
+        assertEquals(1.0 / 36, twoD6.probabilityOf(12), EPSILON);
+        assertEquals(7.0, twoD6.mean(), EPSILON);
+    }
+
+    @Test
+    public void testAdvantageAndDisadvantage() {
+        RollDistribution advantage = DistributionCalculator.distributionOf("2d20kh1");
+        RollDistribution disadvantage = DistributionCalculator.distributionOf("2d20kl1");
+        for (int k = 1; k <= 20; k++) {
+            assertEquals((2.0 * k - 1) / 400, advantage.probabilityOf(k), EPSILON);
+            assertEquals((41.0 - 2 * k) / 400, disadvantage.probabilityOf(k), EPSILON);
+        }
+        assertEquals(0.75, advantage.chanceToBeat(11), EPSILON);
+        assertEquals(0.25, disadvantage.chanceToBeat(11), EPSILON);
+    }
+
+    @Test
+    public void testFourD6KeepHighestThree() {
+        RollDistribution stats = DistributionCalculator.distributionOf("4d6kh3");
+        assertEquals(3, stats.getMinimum());
+        assertEquals(18, stats.getMaximum());
+        assertEquals(1.0 / 1296, stats.probabilityOf(3), EPSILON);
+        assertEquals(21.0 / 1296, stats.probabilityOf(18), EPSILON);
+        assertEquals(15869.0 / 1296, stats.mean(), 1e-9);
+    }
+
+    @Test
+    public void testExplodingDieMean() {
+        RollDistribution exploding = DistributionCalculator.distributionOf("1d6!");
+        assertEquals(0.0, exploding.probabilityOf(6), EPSILON);
+        assertEquals(1.0 / 36, exploding.probabilityOf(7), EPSILON);
+        assertEquals(4.2, exploding.mean(), 1e-9);
+        assertEquals(1.0, exploding.chanceToBeat(1), 1e-9);
+    }
+
+    @Test
+    public void testNegativeTermsAndConstants() {
+        RollDistribution difference = DistributionCalculator.distributionOf("1d4-1d4+2");
+        assertEquals(-1, difference.getMinimum());
+        assertEquals(5, difference.getMaximum());
+        assertEquals(4.0 / 16, difference.probabilityOf(2), EPSILON);
+        assertEquals(2.0, difference.mean(), EPSILON);
+    }
+
+    @Test
+    public void testTooLargeExpression() {
+        try {
+            DistributionCalculator.distributionOf("1000d1000");
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package test.persistence;
+
+import model.AbilityType;
+import model.GameCharacter;
+import model.Roll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.AutosaveService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutosaveServiceTest extends JsonTest {
+    private static final long INTERVAL = 20;
+    private AutosaveService autosave;
+    private List<Integer> savedLevels;
+    private List<String> writerThreads;
+
+    @BeforeEach
+    void runBefore() {
+        autosave = new AutosaveService(INTERVAL);
+        savedLevels = new CopyOnWriteArrayList<>();
+        writerThreads = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void runAfter() {
+        autosave.close();
+    }
+
+    @Test
+    void testUnchangedCharacterIsNotRewritten() throws InterruptedException {
+        GameCharacter character = new GameCharacter("Aria", 3);
+        autosave.trackSaved(character, this::capture);
+        Thread.sleep(INTERVAL * 5);
+        assertEquals(0, autosave.getSaveCount());
+
+        character.setLevel(4);
+        waitForSaves(1);
+        Thread.sleep(INTERVAL * 5);
+        assertEquals(1, autosave.getSaveCount());
+        assertEquals(List.of(4), savedLevels);
+        assertEquals(List.of("autosave"), writerThreads);
+    }
+
+    @Test
+    void testManyChangesAreCoalesced() throws InterruptedException {
+        GameCharacter character = new GameCharacter("Borin", 5);
+        List<Integer> savedRollCounts = new CopyOnWriteArrayList<>();
+        autosave.trackSaved(character, toSave -> {
+            int rolls = toSave.getRollHistory().size();
+            return () -> savedRollCounts.add(rolls);
+        });
+        for (int i = 0; i < 1000; i++) {
+            character.addRoll(new Roll("Attack", i % 20 + 1, 2));
+            if (i % 100 == 0) {
+                Thread.sleep(1);
+            }
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!savedRollCounts.contains(1000) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(INTERVAL);
+        }
+        assertEquals(1000, savedRollCounts.get(savedRollCounts.size() - 1));
+        assertTrue(savedRollCounts.size() < 20);
+        assertEquals(savedRollCounts.size(), autosave.getSaveCount());
+    }
+
+    @Test
+    void testSaveNowSkipsUnchanged() throws IOException {
+        GameCharacter character = new GameCharacter("Cora", 2);
+        autosave.track(character, this::capture);
+        assertTrue(autosave.saveNow(character));
+        assertFalse(autosave.saveNow(character));
+        character.setLevel(3);
+        assertTrue(autosave.saveNow(character));
+        assertEquals(List.of(2, 3), savedLevels);
+        assertThrows(IllegalArgumentException.class, () -> autosave.saveNow(new GameCharacter("Dax", 1)));
+    }
+
+    @Test
+    void testSaveSoonDoesNotWaitForWrite() throws Exception {
+        GameCharacter character = new GameCharacter("Cora", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        autosave.track(character, toSave -> {
+            AutosaveService.SaveAction write = capture(toSave);
+            return () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                write.save();
+            };
+        });
+        CompletableFuture<Boolean> saved = autosave.saveSoon(character);
+        assertFalse(saved.isDone());
+        release.countDown();
+        assertTrue(saved.get(5, TimeUnit.SECONDS));
+        assertFalse(autosave.saveSoon(character).get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2), savedLevels);
+    }
+
+    @Test
+    void testFailedSaveIsRetried() throws InterruptedException {
+        AtomicInteger failures = new AtomicInteger();
+        List<IOException> errors = new CopyOnWriteArrayList<>();
+        autosave.setErrorHandler(errors::add);
+        GameCharacter character = new GameCharacter("Eve", 7);
+        autosave.track(character, toSave -> {
+            if (failures.getAndIncrement() == 0) {
+                throw new IOException("disk full");
+            }
+            return capture(toSave);
+        });
+        waitForSaves(1);
+        assertEquals(1, errors.size());
+        assertEquals(List.of(7), savedLevels);
+    }
+
+    @Test
+    void testUntrackedCharacterIsNotSaved() throws InterruptedException {
+        GameCharacter character = new GameCharacter("Finn", 1);
+        autosave.track(character, this::capture);
+        autosave.untrack(character);
+        Thread.sleep(INTERVAL * 5);
+        assertEquals(0, autosave.getSaveCount());
+    }
+
+    // EFFECTS: captures the level of character and returns a write recording it and the thread it ran on
+    private AutosaveService.SaveAction capture(GameCharacter character) {
+        int level = character.getLevel();
+        return () -> {
+            savedLevels.add(level);
+            writerThreads.add(Thread.currentThread().getName());
+        };
+    }
+
+    // EFFECTS: waits up to a few seconds for the service to complete count writes
+    private void waitForSaves(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (autosave.getSaveCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(INTERVAL);
+        }
+        assertEquals(count, autosave.getSaveCount());
+    }
+}
@@ -0,0 +1,117 @@
+package test.persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import persistence.BinaryCharacterReader;
+import persistence.BinaryCharacterWriter;
+import persistence.JsonReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCharacterTest extends JsonTest {
+    private static final String[] DATA_FILES = {
+        "./data/testReaderEmptyCharacter.json",
+        "./data/testReaderGeneralCharacter.json",
+        "./data/testReaderCharacterWithBuffsDebuffs.json",
+        "./data/testReaderCharacterWithMultipleBuffsDebuffs.json",
+        "./data/testReaderCharacterWithMultipleSkills.json"
+    };
+
+    @Test
+    void testRoundTripMatchesJson() throws IOException {
+        for (String file : DATA_FILES) {
+            GameCharacter fromJson = new JsonReader(file).read();
+            ByteBuffer snapshot = BinaryCharacterWriter.encode(fromJson);
+            assertTrue(snapshot.remaining() < Files.size(Paths.get(file)));
+
+            GameCharacter fromBinary = BinaryCharacterReader.decode(snapshot);
+            assertFalse(snapshot.hasRemaining());
+            assertTrue(fromJson.toJson().similar(fromBinary.toJson()), file);
+        }
+    }
+
+    @Test
+    void testRoundTripThroughFile() throws IOException {
+        GameCharacter character = new GameCharacter("Zo" + (char) 0xEB, 12);
+        character.updateAbilityScore(AbilityType.CHARISMA, 30);
+        character.updateAbilityScore(AbilityType.STRENGTH, 1);
+        character.addSkill(new Skill(SkillType.PERSUASION, character.getAbilityScoreByType(AbilityType.CHARISMA),
+                true));
+        character.addBuffDebuff(new BuffDebuff("Bane", AbilityType.STRENGTH, -4, 10));
+        for (int i = 0; i < 300; i++) {
+            character.addRoll(new Roll(i % 2 == 0 ? "Persuasion check" : "Strength save", i % 20 + 1, -i));
+        }
+
+        Path file = Files.createTempFile("character", ".bin");
+        try {
+            new BinaryCharacterWriter(file.toString()).write(character);
+            GameCharacter read = new BinaryCharacterReader(file.toString()).read();
+            assertTrue(character.toJson().similar(read.toJson()));
+            assertSame(read.getAbilityScoreByType(AbilityType.CHARISMA),
+                    read.getSkills().get(0).getAssociatedAbility());
+            checkRoll("Strength save", 20, -299, -279, read.getRollHistory().getLastRoll());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testDecodeFromDirectBuffer() throws IOException {
+        GameCharacter character = new GameCharacter("Direct", 2);
+        character.addRoll(new Roll("Check", 4, 1));
+        ByteBuffer heap = BinaryCharacterWriter.encode(character);
+        ByteBuffer direct = ByteBuffer.allocateDirect(heap.remaining());
+        direct.put(heap).flip();
+        assertEquals("Direct", BinaryCharacterReader.decode(direct).getName());
+    }
+
+    @Test
+    void testLazyRollHistory() throws IOException {
+        GameCharacter character = new GameCharacter("Lazy", 6);
+        character.addSkill(new Skill(SkillType.ARCANA, character.getAbilityScoreByType(AbilityType.INTELLIGENCE),
+                true));
+        for (int i = 0; i < 100; i++) {
+            character.addRoll(new Roll("Arcana check", i % 20 + 1, 5));
+        }
+        ByteBuffer snapshot = BinaryCharacterWriter.encode(character);
+        GameCharacter lazy = BinaryCharacterReader.decode(snapshot, true);
+        assertFalse(snapshot.hasRemaining());
+        assertFalse(lazy.isRollHistoryLoaded());
+        assertTrue(lazy.isProficientInSkill(SkillType.ARCANA));
+        assertEquals(snapshot.flip(), BinaryCharacterWriter.encode(lazy));
+        assertFalse(lazy.isRollHistoryLoaded());
+
+        snapshot.clear();
+        snapshot.put(new byte[snapshot.capacity()]);
+        assertEquals(100, lazy.getRollHistory().size());
+        assertTrue(character.toJson().similar(lazy.toJson()));
+    }
+
+    @Test
+    void testInvalidSnapshots() {
+        ByteBuffer valid = BinaryCharacterWriter.encode(new GameCharacter("Aria", 3));
+        byte[] bytes = new byte[valid.remaining()];
+        valid.get(bytes);
+
+        byte[] newerVersion = bytes.clone();
+        newerVersion[4] = (byte) (BinaryCharacterWriter.VERSION + 1);
+        assertInvalid(newerVersion);
+        byte[] badMagic = bytes.clone();
+        badMagic[0] = 0;
+        assertInvalid(badMagic);
+        assertInvalid(Arrays.copyOf(bytes, bytes.length - 3));
+        assertInvalid(new byte[0]);
+    }
+
+    // EFFECTS: fails unless decoding bytes throws IOException
+    private void assertInvalid(byte[] bytes) {
+        assertThrows(IOException.class, () -> BinaryCharacterReader.decode(ByteBuffer.wrap(bytes)));
+    }
+}
@@ -0,0 +1,124 @@
+package test.persistence;
+
+import model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.CampaignStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CampaignStoreTest extends JsonTest {
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("campaign");
+        file = directory.resolve("campaign.dnds");
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testEmptyStore() throws IOException {
+        try (CampaignStore store = new CampaignStore(file)) {
+            assertEquals(0, store.size());
+            assertNull(store.load("Aria"));
+            assertFalse(store.remove("Aria"));
+        }
+        try (CampaignStore store = new CampaignStore(file)) {
+            assertTrue(store.getNames().isEmpty());
+        }
+    }
+
+    @Test
+    void testSaveAndLoadByName() throws IOException {
+        List<GameCharacter> characters = saveHeroes();
+        try (CampaignStore store = new CampaignStore(file)) {
+            assertEquals(201, store.size());
+            assertTrue(store.contains("Hero 150"));
+            assertFalse(store.contains("Hero 200"));
+            GameCharacter read = store.load("Hero 57");
+            assertTrue(characters.get(57).toJson().similar(read.toJson()));
+            assertEquals(4, store.load("Zo" + (char) 0xEB).getLevel());
+        }
+    }
+
+    @Test
+    void testLoadAllAndNames() throws IOException {
+        saveHeroes();
+        try (CampaignStore store = new CampaignStore(file)) {
+            Map<String, GameCharacter> subset = store.loadAll(Arrays.asList("Hero 9", "Nobody", "Hero 1"));
+            assertEquals(Arrays.asList("Hero 9", "Hero 1"), new ArrayList<>(subset.keySet()));
+            assertEquals(10, subset.get("Hero 9").getLevel());
+
+            List<String> names = store.getNames();
+            List<String> sorted = new ArrayList<>(names);
+            sorted.sort(null);
+            assertEquals(sorted, names);
+        }
+    }
+
+    @Test
+    void testReplaceRemoveAndCompact() throws IOException {
+        try (CampaignStore store = new CampaignStore(file)) {
+            store.save(new GameCharacter("Aria", 3));
+            store.save(new GameCharacter("Borin", 5));
+            store.save(new GameCharacter("Aria", 9));
+            assertEquals(2, store.size());
+            assertEquals(9, store.load("Aria").getLevel());
+
+            assertTrue(store.remove("Borin"));
+            assertNull(store.load("Borin"));
+            assertTrue(store.getFileSize() > store.getLiveBytes());
+
+            store.compact();
+            assertEquals(store.getLiveBytes(), store.getFileSize());
+            assertEquals(Arrays.asList("Aria"), store.getNames());
+            assertEquals(9, store.load("Aria").getLevel());
+        }
+        try (CampaignStore store = new CampaignStore(file)) {
+            assertEquals(9, store.load("Aria").getLevel());
+        }
+    }
+
+    @Test
+    void testNotACampaignStore() throws IOException {
+        Files.write(file, "{\"name\": \"Aria\"}".getBytes());
+        assertThrows(IOException.class, () -> new CampaignStore(file));
+    }
+
+    // EFFECTS: saves 200 numbered heroes and one character with a non-ASCII name to the store; returns the heroes
+    private List<GameCharacter> saveHeroes() throws IOException {
+        List<GameCharacter> characters = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            GameCharacter character = new GameCharacter("Hero " + i, i % 20 + 1);
+            character.updateAbilityScore(AbilityType.DEXTERITY, i % 30 + 1);
+            character.addRoll(new Roll("Stealth check", i % 20 + 1, i % 7));
+            characters.add(character);
+        }
+        try (CampaignStore store = new CampaignStore(file)) {
+            store.saveAll(characters);
+            store.save(new GameCharacter("Zo" + (char) 0xEB, 4));
+        }
+        return characters;
+    }
+}
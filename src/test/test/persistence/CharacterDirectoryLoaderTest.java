@@ -0,0 +1,97 @@
+package test.persistence;
+
+import model.GameCharacter;
+import model.Roll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.CharacterDirectoryLoader;
+import persistence.RollHistoryLog;
+import persistence.StreamingJsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CharacterDirectoryLoaderTest extends JsonTest {
+    private Path directory;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("characters");
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void testLoadsEveryCharacterInParallel() throws IOException {
+        Files.createDirectory(directory.resolve("party"));
+        for (int i = 0; i < 50; i++) {
+            GameCharacter character = new GameCharacter("Hero " + i, i % 20 + 1);
+            character.addRoll(new Roll("Perception check", i % 20 + 1, 3));
+            write(character, directory.resolve(i % 2 == 0 ? "hero" + i + ".json" : "party/hero" + i + ".json"));
+        }
+
+        CharacterDirectoryLoader loader = new CharacterDirectoryLoader(directory, 4);
+        Set<Path> reported = ConcurrentHashMap.newKeySet();
+        AtomicInteger lastTotal = new AtomicInteger();
+        loader.setProgressListener((file, completed, total) -> {
+            reported.add(file);
+            lastTotal.set(total);
+        });
+        CharacterDirectoryLoader.Result result = loader.load();
+
+        assertEquals(50, result.getCharacters().size());
+        assertTrue(result.getFailures().isEmpty());
+        assertEquals(50, reported.size());
+        assertEquals(50, lastTotal.get());
+        GameCharacter hero = result.getCharacters().get(directory.resolve("party/hero7.json"));
+        assertEquals("Hero 7", hero.getName());
+        assertEquals(8, hero.getRollHistory().getLastRoll().getBaseResult());
+    }
+
+    @Test
+    void testBadFilesDoNotStopTheOthers() throws IOException {
+        write(new GameCharacter("Aria", 3), directory.resolve("aria.json"));
+        Files.write(directory.resolve("broken.json"), "{\"name\": \"Bro".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("list.json"), "[1, 2, 3]".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("notes.txt"), "not a character".getBytes(StandardCharsets.UTF_8));
+
+        CharacterDirectoryLoader.Result result = new CharacterDirectoryLoader(directory, 2).load();
+        assertEquals(List.of(directory.resolve("aria.json")), List.copyOf(result.getCharacters().keySet()));
+        assertEquals(List.of(directory.resolve("broken.json"), directory.resolve("list.json")),
+                List.copyOf(result.getFailures().keySet()));
+    }
+
+    @Test
+    void testEmptyAndMissingDirectories() throws IOException {
+        assertTrue(new CharacterDirectoryLoader(directory).load().getCharacters().isEmpty());
+        assertThrows(IOException.class, () -> new CharacterDirectoryLoader(directory.resolve("missing")).load());
+        assertThrows(IllegalArgumentException.class, () -> new CharacterDirectoryLoader(directory, 0));
+    }
+
+    // EFFECTS: writes character to file the way the app saves it, with its rolls in a roll history log
+    private void write(GameCharacter character, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            StreamingJsonWriter.write(character, out, false, false);
+        }
+        new RollHistoryLog(file.toString()).compact(character.getRollHistory());
+    }
+}
@@ -0,0 +1,148 @@
+package test.persistence;
+
+import model.AbilityType;
+import model.Event;
+import model.EventTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.EventJournal;
+import persistence.EventJournalReader;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventJournalTest {
+    private Path directory;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("event-journal");
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        List<Event> events = Arrays.asList(
+                new Event(1_700_000_000_000L, EventTemplate.CHARACTER_CREATED, "Aria", null, null, 3, 0),
+                new Event(1_700_000_000_005L, EventTemplate.BUFF_DEBUFF_ADDED, "Aria", "Bless",
+                        AbilityType.WISDOM, -2, 3),
+                new Event(1_699_999_999_999L, EventTemplate.TEXT, "Free-form message", null, null, 0, 0),
+                new Event(1_700_000_000_010L, EventTemplate.LOG_CLEARED, null, null, null, 0, 0));
+        try (EventJournal journal = new EventJournal(directory)) {
+            journal.eventsLogged(events);
+            journal.flush();
+        }
+
+        List<Event> read = new ArrayList<>();
+        assertEquals(4, new EventJournalReader(directory).scan(read::add));
+        assertEquals(events, read);
+        assertEquals(EventTemplate.BUFF_DEBUFF_ADDED, read.get(1).getTemplate());
+        assertEquals(-2, read.get(1).getNumber(0));
+    }
+
+    @Test
+    void testRotationAndRetention() throws IOException {
+        try (EventJournal journal = new EventJournal(directory, 256, 3)) {
+            for (int i = 0; i < 200; i++) {
+                journal.eventsLogged(Arrays.asList(new Event(i, EventTemplate.ROLL_ADDED, "Check " + i, "Aria",
+                        null, i, 0)));
+            }
+            assertTrue(journal.getSegmentNumber() > 3);
+        }
+        EventJournalReader reader = new EventJournalReader(directory);
+        assertEquals(3, reader.getSegments().size());
+
+        List<Event> tail = reader.tail(5);
+        assertEquals(5, tail.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(195 + i, tail.get(i).getNumber(0));
+            assertEquals("Check " + (195 + i), tail.get(i).getArgument(0));
+        }
+        List<Event> all = new ArrayList<>();
+        reader.scan(all::add);
+        assertTrue(all.size() < 200);
+        assertEquals(all, reader.tail(1000));
+    }
+
+    @Test
+    void testReopenStartsNewSegment() throws IOException {
+        try (EventJournal journal = new EventJournal(directory)) {
+            journal.eventsLogged(Arrays.asList(new Event("first")));
+        }
+        try (EventJournal journal = new EventJournal(directory)) {
+            assertEquals(2, journal.getSegmentNumber());
+            journal.eventsLogged(Arrays.asList(new Event("second")));
+        }
+        List<Event> tail = new EventJournalReader(directory).tail(2);
+        assertEquals("first", tail.get(0).getDescription());
+        assertEquals("second", tail.get(1).getDescription());
+    }
+
+    @Test
+    void testTruncatedRecordIsIgnored() throws IOException {
+        try (EventJournal journal = new EventJournal(directory)) {
+            journal.eventsLogged(Arrays.asList(new Event("kept"), new Event("cut short")));
+        }
+        Path segment = new EventJournalReader(directory).getSegments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+        List<Event> read = new ArrayList<>();
+        new EventJournalReader(directory).scan(read::add);
+        assertEquals(1, read.size());
+        assertEquals("kept", read.get(0).getDescription());
+    }
+
+    @Test
+    void testJournalKilledBeforeFlushIsReadable() throws IOException {
+        EventJournal killed = new EventJournal(directory);
+        List<Event> read = new ArrayList<>();
+        assertEquals(0, new EventJournalReader(directory).scan(read::add));
+        assertTrue(new EventJournalReader(directory).tail(5).isEmpty());
+        killed.close();
+
+        Files.write(directory.resolve(EventJournal.SEGMENT_PREFIX + "000003" + EventJournal.SEGMENT_SUFFIX),
+                new byte[0]);
+        Files.write(directory.resolve(EventJournal.SEGMENT_PREFIX + "000004" + EventJournal.SEGMENT_SUFFIX),
+                new byte[] {0x44, 0x4E});
+        try (EventJournal journal = new EventJournal(directory)) {
+            journal.eventsLogged(Arrays.asList(new Event("after crash")));
+        }
+        new EventJournalReader(directory).scan(read::add);
+        assertEquals(1, read.size());
+        assertEquals("after crash", read.get(0).getDescription());
+    }
+
+    @Test
+    void testNotAJournal() throws IOException {
+        Files.write(directory.resolve("events-000001.journal"), new byte[] {1, 2, 3, 4, 5, 6});
+        assertThrows(IOException.class, () -> new EventJournalReader(directory).scan(event -> { }));
+    }
+
+    @Test
+    void testClosedJournalRejectsEvents() throws IOException {
+        EventJournal journal = new EventJournal(directory);
+        journal.close();
+        journal.flush();
+        assertThrows(IllegalStateException.class, () -> journal.eventsLogged(Arrays.asList(new Event("late"))));
+    }
+}
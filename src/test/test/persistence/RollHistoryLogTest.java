@@ -0,0 +1,171 @@
+package test.persistence;
+
+import model.ColumnarRollHistory;
+import model.Roll;
+import model.RollHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.AutosaveService;
+import persistence.RollHistoryLog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollHistoryLogTest extends JsonTest {
+    private Path directory;
+    private String characterFile;
+    private RollHistoryLog log;
+    private RollHistory history;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("roll-history-log");
+        characterFile = directory.resolve("character.json").toString();
+        log = new RollHistoryLog(characterFile);
+        history = new RollHistory();
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testSyncAppendsOnlyNewRolls() throws IOException {
+        history.addRoll(new Roll("Strength check", 10, 2));
+        history.addRoll(new Roll("Dexterity check", 8, 1));
+        assertEquals(2, log.sync(history));
+        assertEquals(0, log.sync(history));
+        history.addRoll(new Roll("Wisdom save", 15, -1));
+        assertEquals(1, log.sync(history));
+        assertEquals(3, lines().size());
+
+        RollHistory replayed = new RollHistory();
+        assertEquals(3, new RollHistoryLog(characterFile).replay(replayed));
+        checkRoll("Strength check", 10, 2, 12, replayed.getRollList().get(0));
+        checkRoll("Wisdom save", 15, -1, 14, replayed.getLastRoll());
+    }
+
+    @Test
+    void testCaptureWritesOnlyWhenSaved() throws IOException {
+        history.addRoll(new Roll("Strength check", 10, 2));
+        AutosaveService.SaveAction compaction = log.capture(history);
+        history.addRoll(new Roll("Dexterity check", 8, 1));
+        AutosaveService.SaveAction append = log.capture(history);
+        assertFalse(Files.exists(log.getPath()));
+
+        compaction.save();
+        append.save();
+        assertEquals(2, lines().size());
+        assertEquals(0, log.sync(history));
+    }
+
+    @Test
+    void testRemovalCompacts() throws IOException {
+        Roll first = new Roll("Strength check", 10, 2);
+        history.addRoll(first);
+        history.addRoll(new Roll("Dexterity check", 8, 1));
+        log.sync(history);
+        history.removeRoll(first);
+        history.addRoll(new Roll("Wisdom save", 15, -1));
+        assertEquals(2, log.sync(history));
+
+        RollHistory replayed = new RollHistory();
+        log.replay(replayed);
+        assertEquals(2, replayed.size());
+        checkRoll("Dexterity check", 8, 1, 9, replayed.getRollList().get(0));
+    }
+
+    @Test
+    void testDifferentHistoryCompacts() throws IOException {
+        history.addRoll(new Roll("Strength check", 10, 2));
+        log.sync(history);
+        RollHistory other = new RollHistory();
+        other.addRoll(new Roll("Charisma check", 3, 0));
+        log.sync(other);
+        assertEquals(1, lines().size());
+        assertTrue(lines().get(0).contains("Charisma check"));
+    }
+
+    @Test
+    void testSkipAppendsLaterRolls() throws IOException {
+        history.addRoll(new Roll("Strength check", 10, 2));
+        log.sync(history);
+
+        RollHistory loadedWithoutRolls = new RollHistory();
+        RollHistoryLog reopened = new RollHistoryLog(characterFile);
+        reopened.skip(loadedWithoutRolls);
+        loadedWithoutRolls.addRoll(new Roll("Dexterity check", 8, 1));
+        assertEquals(1, reopened.sync(loadedWithoutRolls));
+        assertEquals(2, lines().size());
+    }
+
+    @Test
+    void testRollsAlreadyInHistoryAreWrittenOnNextSync() throws IOException {
+        history.addRoll(new Roll("Logged", 1, 0));
+        log.sync(history);
+
+        RollHistory legacy = new RollHistory();
+        legacy.addRoll(new Roll("From character file", 5, 0));
+        RollHistoryLog reopened = new RollHistoryLog(characterFile);
+        assertEquals(1, reopened.replay(legacy));
+        assertEquals(2, reopened.sync(legacy));
+        List<String> lines = lines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("From character file"));
+        assertTrue(lines.get(1).contains("Logged"));
+    }
+
+    @Test
+    void testTornLastLineIsCutOff() throws IOException {
+        history.addRoll(new Roll("Strength check", 10, 2));
+        log.sync(history);
+        Files.write(log.getPath(), "{\"type\": \"Torn".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        RollHistory replayed = new RollHistory();
+        RollHistoryLog reopened = new RollHistoryLog(characterFile);
+        assertEquals(1, reopened.replay(replayed));
+        replayed.addRoll(new Roll("Dexterity check", 8, 1));
+        reopened.sync(replayed);
+        assertEquals(2, new RollHistoryLog(characterFile).replay(new RollHistory()));
+    }
+
+    @Test
+    void testColumnarRingHistory() throws IOException {
+        ColumnarRollHistory ring = new ColumnarRollHistory(2);
+        for (int i = 1; i <= 3; i++) {
+            ring.addRoll("Check", i, 0);
+            log.sync(ring);
+        }
+        assertEquals(3, lines().size());
+        ColumnarRollHistory replayed = new ColumnarRollHistory(2);
+        assertEquals(3, new RollHistoryLog(characterFile).replay(replayed));
+        assertEquals(2, replayed.getBaseResult(0));
+        assertEquals(2, log.compact(ring));
+        assertEquals(2, lines().size());
+    }
+
+    @Test
+    void testReplayMissingLog() throws IOException {
+        assertEquals(0, log.replay(history));
+        assertFalse(Files.exists(log.getPath()));
+    }
+
+    // EFFECTS: returns the lines of the log file
+    private List<String> lines() throws IOException {
+        return Files.readAllLines(log.getPath(), StandardCharsets.UTF_8);
+    }
+}
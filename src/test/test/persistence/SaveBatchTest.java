@@ -0,0 +1,143 @@
+package test.persistence;
+
+import model.GameCharacter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+import persistence.JsonWriter;
+import persistence.SaveBatch;
+import persistence.StreamingJsonReader;
+import persistence.StreamingJsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SaveBatchTest extends JsonTest {
+    private Path directory;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("saves");
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void testCommitReplacesAllFiles() throws IOException {
+        Path first = directory.resolve("first.json");
+        Files.write(first, "old".getBytes(StandardCharsets.UTF_8));
+        SaveBatch batch = new SaveBatch();
+        for (int i = 0; i < 10; i++) {
+            StreamingJsonWriter writer = new StreamingJsonWriter(path(i == 0 ? "first.json" : "hero" + i + ".json"));
+            writer.open(batch);
+            writer.write(new GameCharacter("Hero " + i, i + 1));
+            writer.close();
+        }
+        assertEquals(10, batch.size());
+        assertEquals("old", read(first));
+
+        batch.commit();
+        assertEquals(0, batch.size());
+        assertEquals("Hero 0", new StreamingJsonReader(first.toString()).read().getName());
+        assertEquals(7, new StreamingJsonReader(path("hero6.json")).read().getLevel());
+        assertEquals(10, fileCount());
+    }
+
+    @Test
+    void testCommitKeepsPermissions() throws IOException {
+        Path file = directory.resolve("character.json");
+        Files.write(file, "old".getBytes(StandardCharsets.UTF_8));
+        assumeTrue(Files.getFileStore(file).supportsFileAttributeView(PosixFileAttributeView.class));
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(file, permissions);
+        SaveBatch batch = new SaveBatch();
+        Writer out = batch.open(file.toString());
+        out.write("new");
+        out.close();
+
+        batch.commit();
+        assertEquals("new", read(file));
+        assertEquals(permissions, Files.getPosixFilePermissions(file));
+    }
+
+    @Test
+    void testAbortLeavesDestinations() throws IOException {
+        Path file = directory.resolve("character.json");
+        Files.write(file, "old".getBytes(StandardCharsets.UTF_8));
+        SaveBatch batch = new SaveBatch();
+        Writer out = batch.open(file.toString());
+        out.write("new");
+        out.close();
+        assertThrows(IllegalArgumentException.class, () -> batch.open(file.toString()));
+
+        batch.abort();
+        assertEquals("old", read(file));
+        assertEquals(1, fileCount());
+    }
+
+    @Test
+    void testAtomicWriterKeepsOldFileWhenWriteFails() throws IOException {
+        Path file = directory.resolve("character.json");
+        StreamingJsonWriter writer = new StreamingJsonWriter(file.toString());
+        writer.setAtomic(true);
+        writer.open();
+        writer.write(new GameCharacter("Aria", 3));
+        writer.close();
+
+        writer.open();
+        assertThrows(NullPointerException.class, () -> writer.write(null));
+        writer.close();
+        assertEquals("Aria", new StreamingJsonReader(file.toString()).read().getName());
+        assertEquals(1, fileCount());
+    }
+
+    @Test
+    void testAtomicJsonWriter() throws IOException {
+        Path file = directory.resolve("character.json");
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.setAtomic(true);
+        writer.open();
+        writer.write(new GameCharacter("Borin", 5));
+        assertFalse(Files.exists(file));
+        writer.close();
+        assertEquals(5, new JsonReader(file.toString()).read().getLevel());
+        assertEquals(1, fileCount());
+    }
+
+    // EFFECTS: returns the path of name in the test directory
+    private String path(String name) {
+        return directory.resolve(name).toString();
+    }
+
+    // EFFECTS: returns the contents of file
+    private String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: returns the number of files in the test directory
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
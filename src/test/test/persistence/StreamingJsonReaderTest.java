@@ -0,0 +1,172 @@
+package test.persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+import persistence.StreamingJsonReader;
+import persistence.StreamingJsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingJsonReaderTest extends JsonTest {
+    private static final String[] DATA_FILES = {
+        "./data/testReaderEmptyCharacter.json",
+        "./data/testReaderGeneralCharacter.json",
+        "./data/testReaderCharacterWithBuffsDebuffs.json",
+        "./data/testReaderCharacterWithMultipleBuffsDebuffs.json",
+        "./data/testReaderCharacterWithMultipleSkills.json",
+        "./data/testWriterEmptyCharacter.json",
+        "./data/testWriterGeneralCharacter.json"
+    };
+
+    @Test
+    void testReaderNonExistentFile() {
+        StreamingJsonReader reader = new StreamingJsonReader("./data/noSuchFile.json");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testMatchesJsonReaderOnDataFiles() throws IOException {
+        for (String file : DATA_FILES) {
+            GameCharacter expected = new JsonReader(file).read();
+            GameCharacter actual = new StreamingJsonReader(file).read();
+            assertSameCharacter(expected, actual);
+        }
+    }
+
+    @Test
+    void testParseStringAndByteBuffer() throws IOException {
+        String json = "{\"rollHistory\": {\"rolls\": [{\"type\": \"Stealth \\\"check\\\"\", \"baseResult\": 12,"
+                + " \"appliedModifier\": -1, \"finalOutcome\": 11}]}, \"skills\": [{\"isProficient\": true,"
+                + " \"associatedAbility\": {\"type\": \"DEXTERITY\", \"score\": 14}, \"type\": \"STEALTH\"}],"
+                + " \"extra\": [1, 2.5e1, null, {\"a\": [true, false]}], \"level\": 3, \"name\": \"Aria\\u0021\","
+                + " \"activeBuffsDebuffs\": [{\"duration\": 2, \"name\": \"Bless\", \"effectAbility\": \"WISDOM\","
+                + " \"effectMagnitude\": 2}], \"abilityScores\": [{\"type\": \"DEXTERITY\", \"score\": 14}]}";
+        GameCharacter fromString = StreamingJsonReader.parse(new StringReader(json));
+        GameCharacter fromBuffer = StreamingJsonReader.parse(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+
+        for (GameCharacter character : new GameCharacter[] {fromString, fromBuffer}) {
+            assertEquals("Aria!", character.getName());
+            assertEquals(3, character.getLevel());
+            assertEquals(14, character.getAbilityScoreByType(AbilityType.DEXTERITY).getScore());
+            checkSkill(SkillType.STEALTH, true, character.getSkills().get(0));
+            assertSame(character.getAbilityScoreByType(AbilityType.DEXTERITY),
+                    character.getSkills().get(0).getAssociatedAbility());
+            assertEquals("Bless", character.getActiveBuffsDebuffs().get(0).getName());
+            assertEquals(2, character.getActiveBuffsDebuffs().get(0).getDuration());
+            checkRoll("Stealth \"check\"", 12, -1, 11, character.getRollHistory().getLastRoll());
+        }
+    }
+
+    @Test
+    void testLazyRollHistory() throws IOException {
+        GameCharacter original = new GameCharacter("Lazy \"L\"", 4);
+        for (int i = 0; i < 2000; i++) {
+            original.addRoll(new Roll(i % 3 == 0 ? "Stealth check" : "Attack", i % 20 + 1, i % 5 - 2));
+        }
+        StringWriter json = new StringWriter();
+        StreamingJsonWriter.write(original, json, false);
+
+        EventLog.getInstance().clear();
+        GameCharacter lazy = StreamingJsonReader.parse(new StringReader(json.toString()), true);
+        assertFalse(lazy.isRollHistoryLoaded());
+        assertEquals(4, lazy.getLevel());
+        long count = lazy.getModificationCount();
+
+        assertEquals(2000, lazy.getRollHistory().size());
+        assertTrue(lazy.isRollHistoryLoaded());
+        assertEquals(count, lazy.getModificationCount());
+        assertTrue(original.toJson().similar(lazy.toJson()));
+        for (Event event : EventLog.getInstance()) {
+            assertNotEquals(EventTemplate.ROLL_ADDED, event.getTemplate());
+        }
+    }
+
+    @Test
+    void testLazyRollHistoryChecksRollsUpFront() {
+        String json = "{\"name\": \"Aria\", \"level\": 3, \"abilityScores\": [], \"skills\": [],"
+                + " \"activeBuffsDebuffs\": [], \"rollHistory\": {\"rolls\": [{\"type\": }]}}";
+        assertThrows(IOException.class, () -> StreamingJsonReader.parse(new StringReader(json), true));
+
+        String missingMember = json.replace("{\"type\": }", "{\"type\": \"Attack\"}");
+        assertThrows(IOException.class, () -> StreamingJsonReader.parse(new StringReader(missingMember), true));
+        assertThrows(IOException.class, () -> StreamingJsonReader.parse(new StringReader(missingMember)));
+
+        String badIndex = json.replace("{\"type\": }", "{\"type\": 2, \"baseResult\": 3, \"appliedModifier\": 0}")
+                .replace("\"rolls\"", "\"rollTypes\": [\"Attack\"], \"rolls\"");
+        assertThrows(IOException.class, () -> StreamingJsonReader.parse(new StringReader(badIndex), true));
+        String valid = badIndex.replace("{\"type\": 2", "{\"type\": 0");
+        assertDoesNotThrow(() -> StreamingJsonReader.parse(new StringReader(valid), true).getRollHistory());
+    }
+
+    @Test
+    void testRollTypeTable() throws IOException {
+        String character = "{\"name\": \"A\", \"level\": 1, \"abilityScores\": [], \"skills\": [],"
+                + " \"activeBuffsDebuffs\": [], ";
+        String json = character + "\"rollHistory\": {\"rolls\": ["
+                + "{\"type\": 1, \"baseResult\": 3, \"appliedModifier\": 1},"
+                + " {\"type\": \"Old style\", \"baseResult\": 4, \"appliedModifier\": 0},"
+                + " {\"type\": 0, \"baseResult\": 5, \"appliedModifier\": 2}],"
+                + " \"rollTypes\": [\"STEALTH check\", \"Table check\"]}}";
+        List<Roll> rolls = StreamingJsonReader.parse(new StringReader(json)).getRollHistory().getRollList();
+        assertEquals(3, rolls.size());
+        checkRoll("Table check", 3, 1, 4, rolls.get(0));
+        checkRoll("Old style", 4, 0, 4, rolls.get(1));
+        assertSame(RollType.skillCheck(SkillType.STEALTH), rolls.get(2).getRollType());
+
+        String badIndex = character + "\"rollHistory\": {\"rollTypes\": [],"
+                + " \"rolls\": [{\"type\": 0, \"baseResult\": 3, \"appliedModifier\": 1}]}}";
+        assertThrows(IOException.class, () -> StreamingJsonReader.parse(new StringReader(badIndex)));
+    }
+
+    @Test
+    void testMalformedInput() {
+        assertMalformed("");
+        assertMalformed("{\"name\": \"Aria\" \"level\": 3}");
+        assertMalformed("{\"name\": \"Aria\", \"level\": 3, \"abilityScores\": [,], \"skills\": [],"
+                + " \"activeBuffsDebuffs\": []}");
+        assertMalformed("{\"name\": \"Aria\", \"level\": 3, \"abilityScores\": [], \"skills\": []}");
+        assertMalformed("{\"name\": \"Aria\", \"level\": 3, \"abilityScores\": [{\"type\": \"LUCK\", \"score\": 1}],"
+                + " \"skills\": [], \"activeBuffsDebuffs\": []}");
+        assertMalformed("{\"name\": \"Aria");
+    }
+
+    // EFFECTS: fails unless parsing json throws IOException
+    private void assertMalformed(String json) {
+        assertThrows(IOException.class, () -> StreamingJsonReader.parse(new StringReader(json)));
+    }
+
+    // EFFECTS: fails unless both characters have the same state
+    private void assertSameCharacter(GameCharacter expected, GameCharacter actual) {
+        checkGameCharacter(expected.getName(), expected.getLevel(), expected, actual);
+        for (int i = 0; i < expected.getAbilityScores().size(); i++) {
+            AbilityScore score = expected.getAbilityScores().get(i);
+            checkAbilityScore(score.getType(), score.getScore(), actual.getAbilityScores().get(i));
+        }
+        for (int i = 0; i < expected.getSkills().size(); i++) {
+            Skill skill = expected.getSkills().get(i);
+            checkSkill(skill.getType(), skill.getIsProficient(), actual.getSkills().get(i));
+            assertEquals(skill.getAssociatedAbility().getType(),
+                    actual.getSkills().get(i).getAssociatedAbility().getType());
+        }
+        for (int i = 0; i < expected.getActiveBuffsDebuffs().size(); i++) {
+            assertEquals(expected.getActiveBuffsDebuffs().get(i).getDescription(),
+                    actual.getActiveBuffsDebuffs().get(i).getDescription());
+        }
+        List<Roll> expectedRolls = expected.getRollHistory().getRollList();
+        List<Roll> actualRolls = actual.getRollHistory().getRollList();
+        assertEquals(expectedRolls.size(), actualRolls.size());
+        for (int i = 0; i < expectedRolls.size(); i++) {
+            Roll roll = expectedRolls.get(i);
+            checkRoll(roll.getType(), roll.getBaseResult(), roll.getAppliedModifier(), roll.getFinalOutcome(),
+                    actualRolls.get(i));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package test.persistence;
+
+import model.*;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.JsonReader;
+import persistence.StreamingJsonReader;
+import persistence.StreamingJsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingJsonWriterTest extends JsonTest {
+    private GameCharacter character;
+
+    @BeforeEach
+    void runBefore() {
+        character = new GameCharacter("Jane \"JD\" Doe\n", 7);
+        character.updateAbilityScore(AbilityType.STRENGTH, 16);
+        character.addSkill(new Skill(SkillType.ATHLETICS,
+                character.getAbilityScoreByType(AbilityType.STRENGTH), true));
+        character.addBuffDebuff(new BuffDebuff("Bless", AbilityType.WISDOM, 2, 3));
+        character.addRoll(new Roll("Athletics check", 14, 6));
+    }
+
+    @Test
+    void testWriterInvalidFile() {
+        StreamingJsonWriter writer = new StreamingJsonWriter("./data/my\0illegal:fileName.json");
+        assertThrows(Exception.class, writer::open);
+    }
+
+    @Test
+    void testMatchesToJson() throws IOException {
+        for (boolean compact : new boolean[] {false, true}) {
+            StringWriter out = new StringWriter();
+            StreamingJsonWriter.write(character, out, compact);
+            assertTrue(character.toJson().similar(new JSONObject(out.toString())));
+            assertEquals(compact, !out.toString().contains("\n"));
+        }
+    }
+
+    @Test
+    void testCompactOutput() throws IOException {
+        GameCharacter empty = new GameCharacter("E", 1);
+        empty.getAbilityScores().clear();
+        StringWriter out = new StringWriter();
+        StreamingJsonWriter.write(empty, out, true);
+        assertEquals("{\"name\":\"E\",\"level\":1,\"abilityScores\":[],\"activeBuffsDebuffs\":[],\"skills\":[],"
+                + "\"rollHistory\":{\"rollTypes\":[],\"rolls\":[]}}", out.toString());
+    }
+
+    @Test
+    void testColumnarRollHistory() throws IOException {
+        ColumnarRollHistory rolls = new ColumnarRollHistory(2);
+        GameCharacter columnar = new GameCharacter("C", 2, rolls);
+        rolls.addRoll("Check", 1, 2);
+        rolls.addRoll("Save", 3, 4);
+        rolls.addRoll("Check", 5, 6);
+        StringWriter out = new StringWriter();
+        StreamingJsonWriter.write(columnar, out, false);
+        GameCharacter read = StreamingJsonReader.parse(new StringReader(out.toString()));
+        assertEquals(2, read.getRollHistory().size());
+        checkRoll("Save", 3, 4, 7, read.getRollHistory().getRollList().get(0));
+        checkRoll("Check", 5, 6, 11, read.getRollHistory().getLastRoll());
+    }
+
+    @Test
+    void testWriteFileReadableByJsonReader() throws IOException {
+        StreamingJsonWriter writer = new StreamingJsonWriter("./data/testWriterGeneralCharacter.json");
+        writer.open();
+        writer.write(character);
+        writer.close();
+
+        GameCharacter read = new JsonReader("./data/testWriterGeneralCharacter.json").read();
+        checkGameCharacter(character.getName(), 7, character, read);
+        checkAbilityScore(AbilityType.STRENGTH, 16, read.getAbilityScoreByType(AbilityType.STRENGTH));
+        checkSkill(SkillType.ATHLETICS, true, read.getSkills().get(0));
+        assertEquals(3, read.getActiveBuffsDebuffs().get(0).getDuration());
+        checkRoll("Athletics check", 14, 6, 20, read.getRollHistory().getLastRoll());
+    }
+}
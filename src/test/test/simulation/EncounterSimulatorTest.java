@@ -0,0 +1,103 @@
+package test.simulation;
+
+import model.*;
+import model.simulation.EncounterSimulator;
+import model.simulation.SimulationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EncounterSimulatorTest {
+
+    private List<GameCharacter> party;
+
+    @BeforeEach
+    void runBefore() {
+        party = new ArrayList<>();
+        GameCharacter rogue = new GameCharacter("Rogue", 1);
+        rogue.updateAbilityScore(AbilityType.DEXTERITY, 14);
+        rogue.addSkill(new Skill(SkillType.STEALTH, rogue.getAbilityScoreByType(AbilityType.DEXTERITY), true));
+        party.add(rogue);
+
+        GameCharacter fighter = new GameCharacter("Fighter", 1);
+        fighter.addBuffDebuff(new BuffDebuff("Bless", AbilityType.DEXTERITY, 5, 2));
+        party.add(fighter);
+    }
+
+    @Test
+    public void testCountsAddUp() {
+        EncounterSimulator simulator = new EncounterSimulator(party, SkillType.STEALTH, 15, 3);
+        SimulationResult result = simulator.simulate(10000, 1L);
+
+        assertEquals(10000, result.getEncounters());
+        assertEquals(60000, result.getTotalChecks());
+        long checks = 0;
+        for (int total = -10; total <= 40; total++) {
+            checks += result.getTotalCount(total);
+        }
+        assertEquals(60000, checks);
+
+        long rounds = 0;
+        for (int successes = 0; successes <= 2; successes++) {
+            rounds += result.getRoundsWithSuccesses(successes);
+        }
+        assertEquals(30000, rounds);
+        assertTrue(result.getRollsPerSecond() > 0);
+    }
+
+    @Test
+    public void testSuccessRatesMatchExactOdds() {
+        EncounterSimulator simulator = new EncounterSimulator(party, SkillType.STEALTH, 15, 1);
+        SimulationResult result = simulator.simulate(200000, 2L);
+
+        // Rogue: +2 Dexterity, +2 proficiency => needs an 11 or better
+        assertEquals(0.5, result.getSuccessRate(0), 0.01);
+        // Fighter: +5 from Bless => needs a 10 or better
+        assertEquals(0.55, result.getSuccessRate(1), 0.01);
+    }
+
+    @Test
+    public void testBuffsExpireDuringEncounter() {
+        EncounterSimulator simulator = new EncounterSimulator(party, SkillType.STEALTH, 15, 4);
+        SimulationResult result = simulator.simulate(1000, 3L);
+        // Fighter's highest total: 20 + 5 while blessed in the first two rounds
+        assertEquals(0, result.getTotalCount(26));
+        assertTrue(result.getTotalCount(25) > 0);
+    }
+
+    @Test
+    public void testSameSeedSameResultOnAnyPool() {
+        EncounterSimulator simulator = new EncounterSimulator(party, SkillType.STEALTH, 12, 5);
+        SimulationResult single = simulator.simulate(50000, 42L, new ForkJoinPool(1));
+        SimulationResult parallel = simulator.simulate(50000, 42L, new ForkJoinPool(4));
+
+        for (int total = -10; total <= 40; total++) {
+            assertEquals(single.getTotalCount(total), parallel.getTotalCount(total));
+        }
+        for (int rounds = 0; rounds <= 5; rounds++) {
+            assertEquals(single.getEncountersWithGroupSuccesses(rounds),
+                    parallel.getEncountersWithGroupSuccesses(rounds));
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        try {
+            new EncounterSimulator(new ArrayList<>(), SkillType.STEALTH, 10, 1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            new EncounterSimulator(party, SkillType.STEALTH, 10, 1).simulate(-1, 0L);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+}